@@ -0,0 +1,61 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Recalcula title_key com a normalização da aplicação na época desta versão (NFD, sem marcas
+ * combinantes, minúsculas). Ela fica copiada aqui: mudar Game.toTitleKey depois pede uma nova
+ * migration, e esta continua produzindo o mesmo resultado em bancos novos e antigos. O preenchimento da V13 usou unaccent, que
+ * também expande ligaduras (æ, ß, ø, œ) e gera chaves que a aplicação nunca produz: a busca
+ * pelo título digitado não encontrava esses jogos. Só as linhas com chave diferente são gravadas.
+ */
+public class V21__Recompute_games_title_key extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("UPDATE games SET title_key = ? WHERE id = ?")) {
+            // A migration roda em transação, então o driver lê em blocos em vez de carregar a tabela toda
+            select.setFetchSize(BATCH_SIZE);
+
+            int pending = 0;
+            try (ResultSet rows = select.executeQuery("SELECT id, title, title_key FROM games")) {
+                while (rows.next()) {
+                    String key = toTitleKey(rows.getString("title"));
+                    if (key.equals(rows.getString("title_key"))) {
+                        continue;
+                    }
+
+                    update.setString(1, key);
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+
+    private static String toTitleKey(String title) {
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase().trim();
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.ronaldobertolucci.mygames.config;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.BulkLoadResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkLoadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Carga em massa do catálogo pela linha de comando:
+ * {@code java -jar my-games.jar --catalog.bulk-load.file=/caminho/jogos.csv}.
+ * O formato vem da extensão do arquivo (.csv, .ndjson ou .jsonl).
+ */
+@Component
+public class CatalogBulkLoadRunner implements ApplicationRunner {
+
+    @Autowired
+    private CatalogBulkLoadService catalogBulkLoadService;
+
+    @Value("${catalog.bulk-load.file:}")
+    private String file;
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogBulkLoadRunner.class);
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file.isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(file);
+        CatalogFileFormat format = CatalogFileFormat.fromFileName(path.getFileName().toString());
+        logger.info("Loading catalog from {} as {}", path, format);
+        try (InputStream input = Files.newInputStream(path)) {
+            BulkLoadResultDto result = catalogBulkLoadService.load(input, format);
+            logger.info("Catalog loaded from {}: {}", path, result);
+        }
+    }
+}
@@ -1,33 +1,124 @@
 package io.github.ronaldobertolucci.mygames.controller;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.BulkLoadResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncStatusDto;
+import io.github.ronaldobertolucci.mygames.model.export.ExportJobDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
 import io.github.ronaldobertolucci.mygames.model.mygame.MyGameDto;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.user.UserDto;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkLoadService;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSyncService;
+import io.github.ronaldobertolucci.mygames.service.export.ExportJobFile;
+import io.github.ronaldobertolucci.mygames.service.export.ExportJobService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryCounterService;
 import io.github.ronaldobertolucci.mygames.service.mygame.MyGameService;
 import io.github.ronaldobertolucci.mygames.service.user.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final String GZIP = "application/gzip";
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private MyGameService myGameService;
 
+    @Autowired
+    private CatalogBulkLoadService catalogBulkLoadService;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private LibraryCounterService libraryCounterService;
+
     @GetMapping("/my-games")
-    public ResponseEntity listMyGames(@PageableDefault(size = 20, sort = {"game.title"}) Pageable pagination) {
+    public ResponseEntity listMyGames(@RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) List<String> sort,
+                                      @PageableDefault(size = 20, sort = {"game.title"}) Pageable pagination) {
+        if (cursor != null) {
+            return ResponseEntity.ok(myGameService.findAllAfter(KeysetCursor.decode(cursor, sort), pagination.getPageSize()));
+        }
+
         Page<MyGameDto> myGames = myGameService.findAll(pagination);
         return ResponseEntity.ok(myGames);
     }
 
+    // O corpo é lido direto da requisição, sem passar por arquivo temporário nem memória
+    @PostMapping(value = "/catalog/bulk-load", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity bulkLoadCatalog(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          InputStream body) {
+        BulkLoadResultDto result = catalogBulkLoadService.load(body, CatalogFileFormat.fromContentType(contentType));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/catalog/sync")
+    public ResponseEntity syncCatalog() {
+        CatalogSyncStatusDto status = catalogSyncService.start();
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @GetMapping("/catalog/sync")
+    public ResponseEntity catalogSyncStatus() {
+        return ResponseEntity.ok(catalogSyncService.status());
+    }
+
+    @PostMapping("/exports")
+    public ResponseEntity createExport(@RequestParam(defaultValue = "ndjson") String format,
+                                       UriComponentsBuilder builder) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        ExportJobDto job = exportJobService.create(ExportFormat.fromName(format), username);
+        var uri = builder.path("/admin/exports/{id}").buildAndExpand(job.id()).toUri();
+        return ResponseEntity.accepted().location(uri).body(job);
+    }
+
+    @GetMapping("/exports/{id}")
+    public ResponseEntity exportStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(exportJobService.status(id));
+    }
+
+    // O arquivo segue como .gz para download, sem Content-Encoding, para o cliente não descomprimir no caminho
+    @GetMapping("/exports/{id}/file")
+    public void downloadExport(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportJobFile export = exportJobService.file(id);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(GZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(export.file().getFileName().toString()).build().toString());
+        FileDownloads.send(export.file(), request, response);
+    }
+
+    @PostMapping("/library-counters/reconcile")
+    public ResponseEntity reconcileLibraryCounters() {
+        return ResponseEntity.ok(libraryCounterService.reconcile());
+    }
+
     @GetMapping("/users")
     public ResponseEntity listUsers(@PageableDefault(size = 20, sort = {"username"}) Pageable pagination) {
         Page<UserDto> users = userService.findAll(pagination);
@@ -0,0 +1,33 @@
+package io.github.ronaldobertolucci.mygames.controller;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.service.autocomplete.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private AutocompleteService service;
+
+    @GetMapping
+    public ResponseEntity suggest(@RequestParam("prefix") String prefix,
+                                  @RequestParam(name = "type", required = false) Set<CatalogType> types,
+                                  @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        List<CatalogEntryDto> suggestions = service.suggest(prefix, types, Math.clamp(limit, 1, MAX_LIMIT));
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.ronaldobertolucci.mygames.controller;
+
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSnapshotFile;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSnapshotService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Snapshots do catálogo para clientes offline. Os arquivos já estão comprimidos no disco e
+ * seguem com {@code Content-Encoding: gzip}; o cabeçalho {@code Catalog-Version} traz a versão
+ * a enviar como {@code from} no próximo diff.
+ */
+@RestController
+@RequestMapping("/catalog")
+public class CatalogController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String VERSION_HEADER = "Catalog-Version";
+
+    @Autowired
+    private CatalogSnapshotService service;
+
+    @GetMapping("/snapshot")
+    public void snapshot(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CatalogSnapshotFile snapshot = service.latest();
+        String etag = "\"catalog-" + snapshot.version() + "\"";
+        response.setHeader(VERSION_HEADER, String.valueOf(snapshot.version()));
+        response.setHeader(HttpHeaders.ETAG, etag);
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        send(snapshot, request, response);
+    }
+
+    // Sem alterações desde "from" a resposta é 204; versão fora da retenção é 404 e o cliente baixa o snapshot
+    @GetMapping("/diff")
+    public void diff(@RequestParam long from, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<CatalogSnapshotFile> diff = service.diff(from);
+        if (diff.isEmpty()) {
+            response.setHeader(VERSION_HEADER, String.valueOf(from));
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+
+        response.setHeader(VERSION_HEADER, String.valueOf(diff.get().version()));
+        send(diff.get(), request, response);
+    }
+
+    private void send(CatalogSnapshotFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        FileDownloads.send(file.file(), request, response);
+    }
+}
@@ -1,8 +1,15 @@
 package io.github.ronaldobertolucci.mygames.controller;
 
+import io.github.ronaldobertolucci.mygames.exception.InvalidCursorException;
+import io.github.ronaldobertolucci.mygames.model.facet.GameFacetFilter;
+import io.github.ronaldobertolucci.mygames.model.game.BulkGameGenresDto;
+import io.github.ronaldobertolucci.mygames.model.game.BulkGameThemesDto;
 import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.game.PatchGameDto;
 import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
 import io.github.ronaldobertolucci.mygames.model.game.UpdateGameDto;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
+import io.github.ronaldobertolucci.mygames.service.facet.FacetService;
 import io.github.ronaldobertolucci.mygames.service.game.GameService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +21,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/games")
@@ -22,9 +31,27 @@ public class GameController {
     @Autowired
     private GameService service;
 
+    @Autowired
+    private FacetService facetService;
+
     @GetMapping
     public ResponseEntity list(@RequestParam(value="title", required = false) String title,
+                               @RequestParam(value="cursor", required = false) String cursor,
+                               @RequestParam(value="sort", required = false) List<String> sort,
+                               @RequestParam(value="fuzzy", defaultValue = "false") boolean fuzzy,
                                @PageableDefault(size = 20, sort ={"title"}) Pageable pagination) {
+        // A busca aproximada ordena por distância: não há (título, id) de onde seguir um cursor
+        if (fuzzy && cursor != null) {
+            throw new InvalidCursorException("Busca aproximada não aceita cursor");
+        }
+        if (fuzzy && title != null) {
+            return ResponseEntity.ok(service.findByTitleFuzzy(title, pagination));
+        }
+
+        if (cursor != null) {
+            return listAfter(title, KeysetCursor.decode(cursor, sort), pagination.getPageSize());
+        }
+
         if (title == null) {
             return ResponseEntity.ok(service.findAll(pagination));
         }
@@ -32,6 +59,30 @@ public class GameController {
         return ResponseEntity.ok(service.findByTitleContaining(title, pagination));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity search(@RequestParam("q") String terms,
+                                 @PageableDefault(size = 20) Pageable pagination) {
+        return ResponseEntity.ok(service.search(terms, pagination));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity facets(@RequestParam(name = "genre_id", required = false) List<Long> genreIds,
+                                 @RequestParam(name = "theme_id", required = false) List<Long> themeIds,
+                                 @RequestParam(name = "company_id", required = false) List<Long> companyIds,
+                                 @RequestParam(name = "year_from", required = false) Integer yearFrom,
+                                 @RequestParam(name = "year_to", required = false) Integer yearTo,
+                                 @PageableDefault(size = 20) Pageable pagination) {
+        GameFacetFilter filter = GameFacetFilter.builder()
+                .genreIds(genreIds)
+                .themeIds(themeIds)
+                .companyIds(companyIds)
+                .yearFrom(yearFrom)
+                .yearTo(yearTo)
+                .build();
+
+        return ResponseEntity.ok(facetService.search(filter, pagination));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity detail(@PathVariable Long id) {
         GameDto dto = service.detail(id);
@@ -52,6 +103,12 @@ public class GameController {
         return ResponseEntity.ok(dto);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity patch(@PathVariable Long id, @RequestBody @Valid PatchGameDto data) {
+        GameDto dto = service.patch(id, data);
+        return ResponseEntity.ok(dto);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity delete(@PathVariable Long id) {
         service.delete(id);
@@ -59,26 +116,57 @@ public class GameController {
     }
 
     @PostMapping("/{id}/genres/{genreId}")
-    public ResponseEntity addGenre(@PathVariable Long id, @PathVariable Long genreId) {
-        GameDto dto = service.addGenre(id, genreId);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity addGenre(@PathVariable Long id, @PathVariable Long genreId,
+                                   @RequestHeader(value = "Prefer", required = false) String prefer) {
+        service.addGenre(id, genreId);
+        return linkResponse(id, prefer);
     }
 
     @DeleteMapping("/{id}/genres/{genreId}")
-    public ResponseEntity removeGenre(@PathVariable Long id, @PathVariable Long genreId) {
-        GameDto dto = service.removeGenre(id, genreId);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity removeGenre(@PathVariable Long id, @PathVariable Long genreId,
+                                      @RequestHeader(value = "Prefer", required = false) String prefer) {
+        service.removeGenre(id, genreId);
+        return linkResponse(id, prefer);
     }
 
     @PostMapping("/{id}/themes/{themeId}")
-    public ResponseEntity addTheme(@PathVariable Long id, @PathVariable Long themeId) {
-        GameDto dto = service.addTheme(id, themeId);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity addTheme(@PathVariable Long id, @PathVariable Long themeId,
+                                   @RequestHeader(value = "Prefer", required = false) String prefer) {
+        service.addTheme(id, themeId);
+        return linkResponse(id, prefer);
     }
 
     @DeleteMapping("/{id}/themes/{themeId}")
-    public ResponseEntity removeTheme(@PathVariable Long id, @PathVariable Long themeId) {
-        GameDto dto = service.removeTheme(id, themeId);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity removeTheme(@PathVariable Long id, @PathVariable Long themeId,
+                                      @RequestHeader(value = "Prefer", required = false) String prefer) {
+        service.removeTheme(id, themeId);
+        return linkResponse(id, prefer);
+    }
+
+    @PostMapping("/bulk/genres")
+    public ResponseEntity addGenres(@RequestBody @Valid BulkGameGenresDto data) {
+        return ResponseEntity.ok(service.addGenres(data));
+    }
+
+    @PostMapping("/bulk/themes")
+    public ResponseEntity addThemes(@RequestBody @Valid BulkGameThemesDto data) {
+        return ResponseEntity.ok(service.addThemes(data));
+    }
+
+    // Com "Prefer: return=minimal" o cliente dispensa o jogo atualizado no corpo da resposta
+    private ResponseEntity linkResponse(Long id, String prefer) {
+        if (prefer != null && prefer.toLowerCase().contains("return=minimal")) {
+            return ResponseEntity.noContent().header("Preference-Applied", "return=minimal").build();
+        }
+
+        return ResponseEntity.ok(service.detail(id));
+    }
+
+    private ResponseEntity listAfter(String title, KeysetCursor cursor, int size) {
+        if (title == null) {
+            return ResponseEntity.ok(service.findAllAfter(cursor, size));
+        }
+
+        return ResponseEntity.ok(service.findByTitleContainingAfter(title, cursor, size));
     }
 }
\ No newline at end of file
@@ -1,19 +1,32 @@
 package io.github.ronaldobertolucci.mygames.controller;
 
 import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryCounterService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryExportService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryImportService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryStatsService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibrarySyncService;
 import io.github.ronaldobertolucci.mygames.service.mygame.MyGameService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -21,15 +34,37 @@ import java.util.List;
 @RequestMapping("/my-games")
 public class MyGameController {
 
+    private static final String IGNORE_DUPLICATES = "resolution=ignore-duplicates";
+    private static final String MERGE_DUPLICATES = "resolution=merge-duplicates";
+
+    private static final int MAX_CHANGES = 1000;
+
     @Autowired
     private MyGameService service;
 
+    @Autowired
+    private LibraryImportService libraryImportService;
+
+    @Autowired
+    private LibrarySyncService librarySyncService;
+
+    @Autowired
+    private LibraryExportService libraryExportService;
+
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+
+    @Autowired
+    private LibraryCounterService libraryCounterService;
+
     @GetMapping
     public ResponseEntity listByUser(
             @RequestParam(required = false) String title,
             @RequestParam(name = "source_id", required = false) Long sourceId,
             @RequestParam(name = "platform_id", required = false) Long platformId,
             @RequestParam(name = "status", required = false) List<Status> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> sort,
             @PageableDefault(size = 20, sort = {"game.title"}) Pageable pagination) {
 
         MyGameFilter filter = MyGameFilter.builder()
@@ -40,10 +75,45 @@ public class MyGameController {
                 .statuses(statuses)
                 .build();
 
+        if (cursor != null) {
+            return ResponseEntity.ok(service.findByFilterAfter(filter, KeysetCursor.decode(cursor, sort), pagination.getPageSize()));
+        }
+
         Page<MyGameDto> games = service.findByFilter(filter, pagination);
         return ResponseEntity.ok(games);
     }
 
+    @GetMapping("/changes")
+    public ResponseEntity changes(@RequestParam(defaultValue = "0") long since,
+                                  @RequestParam(defaultValue = "500") int limit) {
+        int size = Math.clamp(limit, 1, MAX_CHANGES);
+        return ResponseEntity.ok(service.findChangesSince(getUsername(), since, size));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity stats() {
+        return ResponseEntity.ok(libraryStatsService.stats(getUsername()));
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity counts() {
+        return ResponseEntity.ok(libraryCounterService.counts(getUsername()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        // O corpo é escrito fora da thread da requisição, sem o contexto de segurança
+        String username = getUsername();
+        StreamingResponseBody body = output -> libraryExportService.export(username, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("my-games" + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity detail(@PathVariable Long id) {
         MyGameDto dto = service.detail(id, getUsername());
@@ -51,11 +121,36 @@ public class MyGameController {
     }
 
 
+    // "Prefer: resolution=ignore-duplicates" devolve o registro existente em vez de 409;
+    // "resolution=merge-duplicates" também aplica o status informado ao registro existente
     @PostMapping
-    public ResponseEntity save(@RequestBody @Valid SaveMyGameDto data, UriComponentsBuilder builder) {
-        MyGameDto dto = service.save(data, getUsername());
-        var uri = builder.path("/my-games/{id}").buildAndExpand(dto.id()).toUri();
-        return ResponseEntity.created(uri).body(dto);
+    public ResponseEntity save(@RequestBody @Valid SaveMyGameDto data,
+                               @RequestHeader(value = "Prefer", required = false) String prefer,
+                               UriComponentsBuilder builder) {
+        String resolution = resolution(prefer);
+        if (resolution == null) {
+            MyGameDto dto = service.save(data, getUsername());
+            var uri = builder.path("/my-games/{id}").buildAndExpand(dto.id()).toUri();
+            return ResponseEntity.created(uri).body(dto);
+        }
+
+        UpsertMyGameResultDto result = service.upsert(data, resolution.equals(MERGE_DUPLICATES), getUsername());
+        if (result.created()) {
+            var uri = builder.path("/my-games/{id}").buildAndExpand(result.myGame().id()).toUri();
+            return ResponseEntity.created(uri).header("Preference-Applied", resolution).body(result.myGame());
+        }
+        return ResponseEntity.ok().header("Preference-Applied", resolution).body(result.myGame());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity importLibrary(@RequestParam MultipartFile file,
+                                        @RequestParam(name = "platform_id", required = false) Long platformId,
+                                        @RequestParam(name = "source_id", required = false) Long sourceId) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            LibraryImportResultDto result = libraryImportService.importLibrary(input, file.getOriginalFilename(),
+                    file.getContentType(), platformId, sourceId, getUsername());
+            return ResponseEntity.ok(result);
+        }
     }
 
     @PutMapping
@@ -64,6 +159,12 @@ public class MyGameController {
         return ResponseEntity.ok(dto);
     }
 
+    @PutMapping("/sync")
+    public ResponseEntity sync(@RequestBody @Valid LibrarySyncDto data) {
+        LibrarySyncResultDto result = librarySyncService.sync(data, getUsername());
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity delete(@PathVariable Long id) {
         service.delete(id, getUsername());
@@ -76,6 +177,27 @@ public class MyGameController {
         return ResponseEntity.ok(dto);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity updateStatus(@RequestBody @Valid BulkStatusDto data) {
+        BulkStatusResultDto result = service.updateStatus(data, getUsername());
+        return ResponseEntity.ok(result);
+    }
+
+    private String resolution(String prefer) {
+        if (prefer == null) {
+            return null;
+        }
+
+        String normalized = prefer.toLowerCase();
+        if (normalized.contains(MERGE_DUPLICATES)) {
+            return MERGE_DUPLICATES;
+        }
+        if (normalized.contains(IGNORE_DUPLICATES)) {
+            return IGNORE_DUPLICATES;
+        }
+        return null;
+    }
+
     private String getUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -0,0 +1,99 @@
+package io.github.ronaldobertolucci.mygames.csv;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) linha a linha: aspas permitem vírgulas e quebras de linha dentro
+ * do campo, e aspas duplicadas representam uma aspa. Só a linha atual fica em memória.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private long consumedLines;
+    private long line;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Campos da próxima linha, ou {@code null} ao fim do arquivo. Uma linha em branco
+     * devolve um único campo vazio.
+     */
+    public List<String> readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (!read) {
+                read = true;
+                line = consumedLines + 1;
+            }
+            if (c == '\n') {
+                consumedLines++;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                        continue;
+                    }
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new UnprocessableEntity("Unterminated quoted field at line " + line);
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Linha do arquivo em que começa a última linha CSV lida.
+     */
+    public long line() {
+        return line;
+    }
+
+    public static boolean isBlank(List<String> row) {
+        return row.size() == 1 && row.getFirst().isBlank();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
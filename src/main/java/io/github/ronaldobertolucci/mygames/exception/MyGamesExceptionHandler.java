@@ -16,6 +16,7 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 
 @RestControllerAdvice
 public class MyGamesExceptionHandler {
@@ -46,11 +47,21 @@ public class MyGamesExceptionHandler {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
+    @ExceptionHandler(MissingServletRequestPartException.class)
+    public ResponseEntity handle400(MissingServletRequestPartException ex) {
+        return ResponseEntity.badRequest().body(new ErrorValidation(ex.getRequestPartName(), ex.getMessage()));
+    }
+
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity handle400(InvalidTokenException ex) {
         return ResponseEntity.status(400).body(ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity handle400(InvalidCursorException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity handle401BadCredentials() {
         return ResponseEntity.status(401).build();
@@ -0,0 +1,15 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Resultado de uma carga em massa: linhas lidas e linhas efetivamente criadas em cada tabela.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record BulkLoadResultDto(long records,
+                                int companiesCreated,
+                                int gamesCreated,
+                                int genreLinksCreated,
+                                int themeLinksCreated) {
+}
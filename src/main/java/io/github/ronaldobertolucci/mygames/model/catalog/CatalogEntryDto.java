@@ -0,0 +1,8 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+public record CatalogEntryDto(
+        CatalogType type,
+        Long id,
+        String name
+) {
+}
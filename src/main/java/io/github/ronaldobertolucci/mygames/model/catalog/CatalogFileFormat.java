@@ -0,0 +1,37 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import java.util.Arrays;
+import java.util.List;
+
+public enum CatalogFileFormat {
+    CSV("text/csv", List.of(".csv")),
+    NDJSON("application/x-ndjson", List.of(".ndjson", ".jsonl"));
+
+    private final String mediaType;
+    private final List<String> extensions;
+
+    CatalogFileFormat(String mediaType, List<String> extensions) {
+        this.mediaType = mediaType;
+        this.extensions = extensions;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static CatalogFileFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim();
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.equalsIgnoreCase(type))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported catalog content type: " + contentType));
+    }
+
+    public static CatalogFileFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        return Arrays.stream(values())
+                .filter(format -> format.extensions.stream().anyMatch(name::endsWith))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported catalog file: " + fileName));
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Uma linha do arquivo de carga do catálogo. Companhia, gêneros e temas são referenciados pelo nome.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CatalogRecordDto(String title,
+                               String description,
+                               LocalDate releasedAt,
+                               String company,
+                               List<String> genres,
+                               List<String> themes) {
+}
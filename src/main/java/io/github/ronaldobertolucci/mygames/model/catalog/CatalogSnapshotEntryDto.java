@@ -0,0 +1,42 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Uma linha do snapshot do catálogo. Companhias, gêneros e temas só têm nome; jogos trazem as
+ * referências por id. Nos diffs, exclusões vêm só com tipo, id e {@code deleted}.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CatalogSnapshotEntryDto(
+        CatalogType type,
+        Long id,
+        String name,
+        String title,
+        String description,
+        LocalDate releasedAt,
+        Long companyId,
+        List<Long> genreIds,
+        List<Long> themeIds,
+        Boolean deleted
+) {
+
+    public static CatalogSnapshotEntryDto named(CatalogType type, Long id, String name) {
+        return new CatalogSnapshotEntryDto(type, id, name, null, null, null, null, null, null, null);
+    }
+
+    public static CatalogSnapshotEntryDto game(Long id, String title, String description, LocalDate releasedAt,
+                                               Long companyId, List<Long> genreIds, List<Long> themeIds) {
+        return new CatalogSnapshotEntryDto(CatalogType.GAME, id, null, title, description, releasedAt, companyId,
+                genreIds, themeIds, null);
+    }
+
+    public static CatalogSnapshotEntryDto deleted(CatalogType type, Long id) {
+        return new CatalogSnapshotEntryDto(type, id, null, null, null, null, null, null, null, true);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Resultado de uma sincronização: registros do arquivo e jogos inseridos, alterados,
+ * removidos e mantidos como estavam. {@code conflicts} conta os registros do arquivo que
+ * coincidem com jogos cadastrados pela API, que o feed não altera; {@code retained}, os jogos
+ * que sumiram do feed mas continuam no catálogo por estarem em alguma biblioteca.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CatalogSyncResultDto(long records, int inserted, int updated, int removed, long unchanged,
+                                   int conflicts, int retained) {
+
+    public static CatalogSyncResultDto unchanged(long records) {
+        return new CatalogSyncResultDto(records, 0, 0, 0, records, 0, 0);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+public enum CatalogSyncState {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
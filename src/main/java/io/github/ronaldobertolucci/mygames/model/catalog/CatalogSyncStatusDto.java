@@ -0,0 +1,38 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.LocalDateTime;
+
+/**
+ * Andamento da sincronização do catálogo. {@code step} descreve a etapa atual e
+ * {@code recordsRead} avança enquanto o arquivo é lido.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CatalogSyncStatusDto(CatalogSyncState state,
+                                   String step,
+                                   long recordsRead,
+                                   LocalDateTime startedAt,
+                                   LocalDateTime finishedAt,
+                                   CatalogSyncResultDto result,
+                                   String error) {
+
+    public static CatalogSyncStatusDto idle() {
+        return new CatalogSyncStatusDto(CatalogSyncState.IDLE, null, 0, null, null, null, null);
+    }
+
+    public static CatalogSyncStatusDto running(String step, long recordsRead, LocalDateTime startedAt) {
+        return new CatalogSyncStatusDto(CatalogSyncState.RUNNING, step, recordsRead, startedAt, null, null, null);
+    }
+
+    public CatalogSyncStatusDto completed(CatalogSyncResultDto result) {
+        return new CatalogSyncStatusDto(CatalogSyncState.COMPLETED, "done", recordsRead, startedAt,
+                LocalDateTime.now(), result, null);
+    }
+
+    public CatalogSyncStatusDto failed(String error) {
+        return new CatalogSyncStatusDto(CatalogSyncState.FAILED, step, recordsRead, startedAt,
+                LocalDateTime.now(), null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.ronaldobertolucci.mygames.model.catalog;
+
+public enum CatalogType {
+    GAME,
+    COMPANY,
+    GENRE,
+    THEME,
+    PLATFORM,
+    SOURCE
+}
@@ -0,0 +1,54 @@
+package io.github.ronaldobertolucci.mygames.model.export;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Exportação completa de my_games. Só a criação passa pelo JPA; claim, andamento e conclusão
+ * são gravados pelo worker direto na tabela.
+ */
+@Entity
+@Table(name = "export_jobs")
+@Getter
+@NoArgsConstructor
+public class ExportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private ExportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    private ExportJobState state;
+
+    private String requestedBy;
+
+    private long rowsWritten;
+
+    private Long totalRows;
+
+    private String fileName;
+
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant heartbeatAt;
+
+    private Instant finishedAt;
+
+    public ExportJob(ExportFormat format, String requestedBy) {
+        this.format = format;
+        this.state = ExportJobState.QUEUED;
+        this.requestedBy = requestedBy;
+        this.createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.ronaldobertolucci.mygames.model.export;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+
+/**
+ * Andamento de uma exportação. {@code totalRows} é conhecido assim que o job começa e
+ * {@code rowsWritten} avança enquanto o arquivo é gerado.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ExportJobDto(Long id,
+                           ExportFormat format,
+                           ExportJobState state,
+                           String requestedBy,
+                           long rowsWritten,
+                           Long totalRows,
+                           Instant createdAt,
+                           Instant startedAt,
+                           Instant finishedAt,
+                           String error) {
+
+    public ExportJobDto(ExportJob job) {
+        this(job.getId(), job.getFormat(), job.getState(), job.getRequestedBy(), job.getRowsWritten(),
+                job.getTotalRows(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+}
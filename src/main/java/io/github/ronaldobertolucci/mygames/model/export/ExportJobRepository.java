@@ -0,0 +1,8 @@
+package io.github.ronaldobertolucci.mygames.model.export;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+}
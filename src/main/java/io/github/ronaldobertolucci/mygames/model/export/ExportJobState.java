@@ -0,0 +1,9 @@
+package io.github.ronaldobertolucci.mygames.model.export;
+
+public enum ExportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED
+}
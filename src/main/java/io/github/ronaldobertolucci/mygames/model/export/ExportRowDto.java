@@ -0,0 +1,31 @@
+package io.github.ronaldobertolucci.mygames.model.export;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Linha da exportação completa: um registro de my_games com o usuário e os dados de catálogo.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record ExportRowDto(
+        Long id,
+        Long userId,
+        String username,
+        Long gameId,
+        String title,
+        LocalDate releasedAt,
+        String company,
+        List<String> genres,
+        List<String> themes,
+        String platform,
+        String store,
+        Status status,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,4 @@
+package io.github.ronaldobertolucci.mygames.model.facet;
+
+public record FacetCountDto(Long id, String name, int count) {
+}
@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.model.facet;
+
+import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import org.springframework.data.domain.Page;
+
+public record FacetedGamesDto(Page<GameDto> games, FacetsDto facets) {
+}
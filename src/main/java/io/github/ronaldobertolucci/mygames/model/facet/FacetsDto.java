@@ -0,0 +1,11 @@
+package io.github.ronaldobertolucci.mygames.model.facet;
+
+import java.util.List;
+
+public record FacetsDto(
+        List<FacetCountDto> genres,
+        List<FacetCountDto> themes,
+        List<FacetCountDto> companies,
+        List<YearCountDto> years
+) {
+}
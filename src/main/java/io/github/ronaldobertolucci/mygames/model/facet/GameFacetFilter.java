@@ -0,0 +1,16 @@
+package io.github.ronaldobertolucci.mygames.model.facet;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class GameFacetFilter {
+    private List<Long> genreIds;
+    private List<Long> themeIds;
+    private List<Long> companyIds;
+    private Integer yearFrom;
+    private Integer yearTo;
+}
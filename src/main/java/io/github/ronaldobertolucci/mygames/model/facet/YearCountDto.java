@@ -0,0 +1,4 @@
+package io.github.ronaldobertolucci.mygames.model.facet;
+
+public record YearCountDto(int year, int count) {
+}
@@ -0,0 +1,20 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record BulkGameThemesDto(
+        @NotEmpty(message = "ids dos jogos são obrigatórios")
+        @Size(max = 1000, message = "no máximo 1000 jogos por requisição")
+        List<@NotNull Long> gameIds,
+        @NotEmpty(message = "ids dos temas são obrigatórios")
+        @Size(max = 100, message = "no máximo 100 temas por requisição")
+        List<@NotNull Long> themeIds
+) {
+}
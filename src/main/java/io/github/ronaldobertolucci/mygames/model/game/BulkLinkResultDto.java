@@ -0,0 +1,15 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Resultado de uma associação em massa: pares gravados e pares que já existiam.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record BulkLinkResultDto(int requested, int applied, int skipped) {
+
+    public static BulkLinkResultDto of(int requested, int applied) {
+        return new BulkLinkResultDto(requested, applied, requested - applied);
+    }
+}
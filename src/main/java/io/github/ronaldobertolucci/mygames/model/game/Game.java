@@ -4,34 +4,50 @@ import io.github.ronaldobertolucci.mygames.model.company.Company;
 import io.github.ronaldobertolucci.mygames.model.genre.Genre;
 import io.github.ronaldobertolucci.mygames.model.theme.Theme;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "games")
+@NamedEntityGraph(name = Game.WITH_COMPANY, attributeNodes = @NamedAttributeNode("company"))
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = {"title", "company"})
 public class Game {
 
+    public static final String WITH_COMPANY = "Game.withCompany";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String title;
+    // Título sem acentos, indexado por trigramas para busca por trecho
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_key")
+    private String titleKey;
     private String description;
     @Column(name = "released_at")
     private LocalDate releasedAt;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Listagens buscam gêneros/temas de todos os jogos da página em uma única consulta
+    @BatchSize(size = 100)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "game_genre",
             joinColumns = @JoinColumn(name = "game_id"),
@@ -39,7 +55,8 @@ public class Game {
     )
     private Set<Genre> genres = new HashSet<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "game_theme",
             joinColumns = @JoinColumn(name = "game_id"),
@@ -49,6 +66,7 @@ public class Game {
 
     public void setTitle(String title) {
         this.title = title.toLowerCase().trim();
+        this.titleKey = toTitleKey(this.title);
     }
 
     public void setDescription(String description) {
@@ -59,4 +77,10 @@ public class Game {
 
         this.description = description.toLowerCase().trim();
     }
+
+    // Mudou a normalização? As chaves gravadas precisam de uma nova migration (como a V21)
+    public static String toTitleKey(String title) {
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase().trim();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+public record GameAssociationRow(Long gameId, Long associationId) {
+}
@@ -0,0 +1,6 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+import java.time.LocalDate;
+
+public record GameFacetRow(Long id, Long companyId, LocalDate releasedAt) {
+}
@@ -1,15 +1,139 @@
 package io.github.ronaldobertolucci.mygames.model.game;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
-    List<Game> findGamesByTitleContaining(String title);
+    @EntityGraph(Game.WITH_COMPANY)
+    List<Game> findGamesByTitleKeyContaining(String titleKey);
 
-    Page<Game> findGamesByTitleContaining(String title, Pageable pageable);
-}
\ No newline at end of file
+    @EntityGraph(Game.WITH_COMPANY)
+    Page<Game> findGamesByTitleKeyContaining(String titleKey, Pageable pageable);
+
+    @Override
+    @EntityGraph(Game.WITH_COMPANY)
+    List<Game> findAll();
+
+    @Override
+    @EntityGraph(Game.WITH_COMPANY)
+    Page<Game> findAll(Pageable pageable);
+
+    // Só a página, sem a consulta de contagem
+    @EntityGraph(Game.WITH_COMPANY)
+    List<Game> findAllBy(Pageable pageable);
+
+    // Estimativa do planejador; -1 enquanto a tabela não passou por ANALYZE
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'games'::regclass", nativeQuery = true)
+    long estimateCount();
+
+    @EntityGraph(Game.WITH_COMPANY)
+    Optional<Game> findDetailedById(Long id);
+
+    @EntityGraph(Game.WITH_COMPANY)
+    List<Game> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new io.github.ronaldobertolucci.mygames.model.game.GameTitleDto(g.id, g.title) FROM Game g")
+    List<GameTitleDto> findAllTitles();
+
+    @Query("SELECT new io.github.ronaldobertolucci.mygames.model.game.GameTitleDto(g.id, g.title) FROM Game g WHERE g.titleKey IN :titleKeys")
+    List<GameTitleDto> findTitlesByTitleKeyIn(Collection<String> titleKeys);
+
+    @Query("SELECT g.id FROM Game g WHERE g.company.id = :companyId")
+    List<Long> findIdsByCompanyId(Long companyId);
+
+    @Query("SELECT g.id FROM Game g WHERE g.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("SELECT new io.github.ronaldobertolucci.mygames.model.game.GameFacetRow(g.id, g.company.id, g.releasedAt) FROM Game g")
+    List<GameFacetRow> findAllFacetRows();
+
+    @Query("SELECT new io.github.ronaldobertolucci.mygames.model.game.GameAssociationRow(g.id, ge.id) FROM Game g JOIN g.genres ge")
+    List<GameAssociationRow> findAllGenreRows();
+
+    @Query("SELECT new io.github.ronaldobertolucci.mygames.model.game.GameAssociationRow(g.id, t.id) FROM Game g JOIN g.themes t")
+    List<GameAssociationRow> findAllThemeRows();
+
+    @Query(value = """
+        SELECT CAST(g.id AS bigint) FROM games g
+                CROSS JOIN LATERAL (
+                    SELECT websearch_to_tsquery('portuguese', :terms) || websearch_to_tsquery('simple', :terms) AS query
+                ) q
+                WHERE g.search_vector @@ q.query
+                ORDER BY ts_rank(g.search_vector, q.query) DESC, g.id""",
+            countQuery = """
+        SELECT count(*) FROM games g
+                WHERE g.search_vector @@ (websearch_to_tsquery('portuguese', :terms) || websearch_to_tsquery('simple', :terms))""",
+            nativeQuery = true)
+    Page<Long> searchIdsByRelevance(String terms, Pageable pageable);
+
+    // Comparação de linha: vira "Index Cond: ROW(title, id) > ROW(...)" em games_title_id_idx, uma faixa
+    // do índice a partir do cursor. Na forma com OR o Postgres só filtra, lendo o índice desde o início
+    @EntityGraph(Game.WITH_COMPANY)
+    @Query("""
+        SELECT g FROM Game g
+                WHERE (g.title, g.id) > (:title, :id)
+                ORDER BY g.title, g.id""")
+    List<Game> findGamesAfter(String title, Long id, Limit limit);
+
+    @EntityGraph(Game.WITH_COMPANY)
+    @Query("""
+        SELECT g FROM Game g
+                WHERE g.titleKey LIKE %:titleKey%
+                AND (g.title, g.id) > (:title, :id)
+                ORDER BY g.title, g.id""")
+    List<Game> findGamesByTitleKeyContainingAfter(String titleKey, String title, Long id, Limit limit);
+
+    // Associações avulsas gravadas direto na tabela de junção, sem carregar o jogo.
+    // O SELECT só produz linha quando jogo e gênero/tema existem; ON CONFLICT torna a inclusão idempotente.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO game_genre (game_id, genre_id)
+                SELECT g.id, ge.id FROM games g, genres ge
+                WHERE g.id = :gameId AND ge.id = :genreId
+                ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int addGenre(Long gameId, Long genreId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM game_genre WHERE game_id = :gameId AND genre_id = :genreId", nativeQuery = true)
+    int removeGenre(Long gameId, Long genreId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO game_theme (game_id, theme_id)
+                SELECT g.id, t.id FROM games g, themes t
+                WHERE g.id = :gameId AND t.id = :themeId
+                ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int addTheme(Long gameId, Long themeId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM game_theme WHERE game_id = :gameId AND theme_id = :themeId", nativeQuery = true)
+    int removeTheme(Long gameId, Long themeId);
+
+    // Todos os pares jogo × gênero/tema em uma única instrução; pares já existentes são ignorados
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO game_genre (game_id, genre_id)
+                SELECT g.id, ge.id FROM games g CROSS JOIN genres ge
+                WHERE g.id IN (:gameIds) AND ge.id IN (:genreIds)
+                ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int addGenres(Collection<Long> gameIds, Collection<Long> genreIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO game_theme (game_id, theme_id)
+                SELECT g.id, t.id FROM games g CROSS JOIN themes t
+                WHERE g.id IN (:gameIds) AND t.id IN (:themeIds)
+                ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int addThemes(Collection<Long> gameIds, Collection<Long> themeIds);
+}
@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+public record GameTitleDto(
+        Long id,
+        String title
+) {
+}
@@ -0,0 +1,24 @@
+package io.github.ronaldobertolucci.mygames.model.game;
+
+import jakarta.validation.constraints.Pattern;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Alteração parcial de um jogo: campos ausentes (ou nulos) permanecem como estão.
+ * Listas vazias de gêneros/temas removem todas as associações.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record PatchGameDto(
+        @Pattern(regexp = "(?s).*\\S.*", message = "Título do jogo não pode ser vazio")
+        String title,
+        String description,
+        LocalDate releasedAt,
+        Long companyId,
+        List<Long> genreIds,
+        List<Long> themeIds
+) {
+}
@@ -0,0 +1,39 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import io.github.ronaldobertolucci.mygames.validation.EnumNamePattern;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * Troca de status em massa na biblioteca do usuário: informa os ids dos registros ou um
+ * filtro com os mesmos critérios da listagem, nunca os dois.
+ */
+public record BulkStatusDto(
+        @Size(max = 1000, message = "no máximo 1000 jogos por requisição")
+        List<@NotNull Long> ids,
+        @Valid
+        Filter filter,
+        @NotNull
+        @EnumNamePattern(regexp = "NOT_PLAYED|PLAYING|COMPLETED|ABANDONED|ON_HOLD|WISHLIST")
+        Status status
+) {
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Filter(String title, Long sourceId, Long platformId, List<@NotNull Status> statuses) {
+
+        public MyGameFilter toMyGameFilter(String username) {
+            return MyGameFilter.builder()
+                    .username(username)
+                    .title(title)
+                    .sourceId(sourceId)
+                    .platformId(platformId)
+                    .statuses(statuses)
+                    .build();
+        }
+    }
+}
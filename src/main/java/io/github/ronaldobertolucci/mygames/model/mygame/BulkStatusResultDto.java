@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+/**
+ * Quantidade de registros que mudaram de status.
+ */
+public record BulkStatusResultDto(int updated) {
+}
@@ -0,0 +1,11 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Resultado da conferência dos contadores: usuários verificados e contadores corrigidos.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LibraryCountersReconcileResultDto(int users, int corrected) {
+}
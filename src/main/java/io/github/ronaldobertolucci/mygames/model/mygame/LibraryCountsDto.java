@@ -0,0 +1,19 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.Map;
+
+/**
+ * Totais da biblioteca lidos dos contadores mantidos a cada escrita. Plataformas e lojas vêm
+ * pelo id; todos os status aparecem, com zero quando não há jogos.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LibraryCountsDto(
+        long total,
+        Map<Status, Long> byStatus,
+        Map<Long, Long> byPlatform,
+        Map<Long, Long> bySource
+) {
+}
@@ -0,0 +1,11 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Registro da biblioteca reduzido às chaves e ao status, usado nos deltas da sincronização.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LibraryEntryDto(Long id, Long gameId, Long platformId, Long sourceId, Status status) {
+}
@@ -0,0 +1,8 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+/**
+ * Uma entrada da exportação de biblioteca de uma loja. Loja, plataforma e status são
+ * opcionais e informados pelo nome.
+ */
+public record LibraryImportLineDto(String title, String store, String platform, String status) {
+}
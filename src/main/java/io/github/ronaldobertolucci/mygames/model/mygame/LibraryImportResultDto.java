@@ -0,0 +1,14 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * Relatório da importação: linhas lidas, jogos incluídos na biblioteca, linhas que já
+ * estavam nela e as que não puderam ser associadas, com o motivo.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LibraryImportResultDto(int lines, int imported, int alreadyInLibrary, List<UnmatchedLineDto> unmatched) {
+}
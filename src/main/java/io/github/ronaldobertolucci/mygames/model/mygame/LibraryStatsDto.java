@@ -0,0 +1,23 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais da biblioteca por status, plataforma, loja e gênero. Todos os status aparecem, com
+ * zero quando não há jogos; gêneros contam jogos distintos, não registros.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record LibraryStatsDto(
+        long total,
+        Map<Status, Long> byStatus,
+        List<Count> byPlatform,
+        List<Count> bySource,
+        List<Count> byGenre
+) {
+    public record Count(Long id, String name, long count) {
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Estado completo desejado da biblioteca: o que não estiver na lista é removido.
+ */
+public record LibrarySyncDto(
+        @NotNull(message = "lista de jogos é obrigatória")
+        @Size(max = 10000, message = "no máximo 10000 jogos por biblioteca")
+        List<@NotNull @Valid SaveMyGameDto> games
+) {
+}
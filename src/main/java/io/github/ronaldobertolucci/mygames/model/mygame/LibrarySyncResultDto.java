@@ -0,0 +1,14 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import java.util.List;
+
+/**
+ * Delta aplicado pela sincronização; registros iguais ao desejado só entram na contagem.
+ */
+public record LibrarySyncResultDto(
+        List<LibraryEntryDto> inserted,
+        List<LibraryEntryDto> updated,
+        List<LibraryEntryDto> deleted,
+        int unchanged
+) {
+}
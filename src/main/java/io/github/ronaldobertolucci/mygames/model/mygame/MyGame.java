@@ -10,33 +10,64 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "my_games")
+@NamedEntityGraph(name = MyGame.WITH_CATALOG, attributeNodes = {
+        @NamedAttributeNode(value = "game", subgraph = "game"),
+        @NamedAttributeNode("platform"),
+        @NamedAttributeNode("source")
+}, subgraphs = @NamedSubgraph(name = "game", attributeNodes = @NamedAttributeNode("company")))
+@NamedEntityGraph(name = MyGame.DETAIL, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "game", subgraph = "game"),
+        @NamedAttributeNode("platform"),
+        @NamedAttributeNode("source")
+}, subgraphs = @NamedSubgraph(name = "game", attributeNodes = @NamedAttributeNode("company")))
 @Getter
 @Setter
 @NoArgsConstructor
 @EqualsAndHashCode(of = {"user", "game", "platform", "source"})
 public class MyGame {
+
+    public static final String WITH_CATALOG = "MyGame.withCatalog";
+    public static final String DETAIL = "MyGame.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id")
     private Game game;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "platform_id")
     private Platform platform;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "source_id")
     private Source source;
 
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    // Mantidos pelos triggers de my_games (V16), nunca escritos pela aplicação
+    @Column(insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    @Column(insertable = false, updatable = false)
+    private Long changeVersion;
+
+    // Cópia de games.title mantida por trigger (V20), chave da paginação por cursor
+    @Column(insertable = false, updatable = false)
+    private String gameTitle;
 }
\ No newline at end of file
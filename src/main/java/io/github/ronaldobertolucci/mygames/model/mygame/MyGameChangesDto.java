@@ -0,0 +1,17 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * Alterações da biblioteca posteriores à versão do cliente. {@code version} é a versão a enviar
+ * no próximo pedido; com {@code hasMore} ainda há alterações depois dela. Com {@code reset}, a
+ * versão do cliente é anterior às exclusões ainda guardadas: {@code upserted} traz a biblioteca
+ * inteira e a cópia local deve ser substituída por ela.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record MyGameChangesDto(long version, boolean hasMore, boolean reset, List<MyGameDto> upserted,
+                               List<Long> deleted) {
+}
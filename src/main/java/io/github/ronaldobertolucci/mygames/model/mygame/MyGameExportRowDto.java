@@ -0,0 +1,24 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+
+/**
+ * Linha da exportação da biblioteca. Os nomes de título, loja, plataforma e status são os
+ * mesmos aceitos pela importação, então o arquivo exportado pode ser importado de volta.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record MyGameExportRowDto(
+        Long id,
+        Long gameId,
+        String title,
+        String company,
+        String platform,
+        String store,
+        Status status,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,37 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+public interface MyGameProjectionRepository {
+    /**
+     * Lista meus jogos projetando direto em {@link MyGameDto}, sem carregar entidades no contexto de persistência.
+     */
+    Page<MyGameDto> findDtos(Specification<MyGame> spec, Pageable pageable);
+
+    /**
+     * Como {@link #findDtos(Specification, Pageable)}, mas o total da página vem de {@code total},
+     * chamado só quando não dá para deduzi-lo do conteúdo.
+     */
+    Page<MyGameDto> findDtos(Specification<MyGame> spec, Pageable pageable, LongSupplier total);
+
+    /**
+     * Lista até {@code limit} jogos posteriores ao cursor na ordem (título do jogo, id), sem consulta de contagem.
+     * Com a especificação restrita a um usuário por {@link MyGameSpecification#byUser}, a ordem vem do índice
+     * (user_id, game_title, id).
+     */
+    List<MyGameDto> findDtosAfter(Specification<MyGame> spec, KeysetCursor after, int limit);
+
+    /**
+     * Troca o status dos registros do usuário em uma única instrução UPDATE, restrita aos
+     * {@code ids} informados ou aos critérios do filtro (o username do filtro é ignorado:
+     * o dono é sempre {@code userId}). Registros que já estão no status não contam.
+     */
+    int updateStatus(Long userId, Collection<Long> ids, MyGameFilter filter, Status status);
+}
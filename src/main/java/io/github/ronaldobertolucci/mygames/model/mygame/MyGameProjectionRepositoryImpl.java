@@ -0,0 +1,197 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreDto;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+class MyGameProjectionRepositoryImpl implements MyGameProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<MyGameDto> findDtos(Specification<MyGame> spec, Pageable pageable) {
+        return findDtos(spec, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Page<MyGameDto> findDtos(Specification<MyGame> spec, Pageable pageable, LongSupplier total) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MyGameRow> query = cb.createQuery(MyGameRow.class);
+        Root<MyGame> root = query.from(MyGame.class);
+        selectRow(query, root, cb);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<MyGameRow> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<MyGameDto> content = toDtos(typedQuery.getResultList());
+        return PageableExecutionUtils.getPage(content, pageable, total);
+    }
+
+    @Override
+    public List<MyGameDto> findDtosAfter(Specification<MyGame> spec, KeysetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MyGameRow> query = cb.createQuery(MyGameRow.class);
+        Root<MyGame> root = query.from(MyGame.class);
+        selectRow(query, root, cb);
+
+        // Colunas de my_games só: (user_id, game_title, id) e (game_title, id) servem a ordem.
+        // O ">=" redundante vira condição de faixa no índice; o OR só descarta empates de título
+        Path<String> title = root.get("gameTitle");
+        Path<Long> id = root.get("id");
+        Predicate seek = cb.and(
+                cb.greaterThanOrEqualTo(title, after.title()),
+                cb.or(
+                        cb.greaterThan(title, after.title()),
+                        cb.and(cb.equal(title, after.title()), cb.greaterThan(id, after.id()))));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.where(predicate == null ? seek : cb.and(predicate, seek));
+        query.orderBy(cb.asc(title), cb.asc(id));
+
+        List<MyGameRow> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        return toDtos(rows);
+    }
+
+    @Override
+    public int updateStatus(Long userId, Collection<Long> ids, MyGameFilter filter, Status status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<MyGame> update = cb.createCriteriaUpdate(MyGame.class);
+        Root<MyGame> root = update.from(MyGame.class);
+        update.set(root.<Status>get("status"), status);
+
+        // Só colunas de my_games: UPDATE não aceita join, o título vira subconsulta em games
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("user").get("id"), userId));
+        predicates.add(cb.notEqual(root.get("status"), status));
+
+        if (ids != null) {
+            predicates.add(root.get("id").in(ids));
+        }
+
+        if (filter != null) {
+            if (filter.getTitle() != null && !filter.getTitle().isBlank()) {
+                String titleKey = EscapeCharacter.DEFAULT.escape(Game.toTitleKey(filter.getTitle()));
+                Subquery<Long> games = update.subquery(Long.class);
+                Root<Game> game = games.from(Game.class);
+                games.select(game.get("id")).where(cb.like(game.get("titleKey"), "%" + titleKey + "%",
+                        EscapeCharacter.DEFAULT.getEscapeCharacter()));
+                predicates.add(root.get("game").get("id").in(games));
+            }
+
+            if (filter.getSourceId() != null) {
+                predicates.add(cb.equal(root.get("source").get("id"), filter.getSourceId()));
+            }
+
+            if (filter.getPlatformId() != null) {
+                predicates.add(cb.equal(root.get("platform").get("id"), filter.getPlatformId()));
+            }
+
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatuses()));
+            }
+        }
+
+        update.where(predicates.toArray(new Predicate[0]));
+
+        // Mesmo efeito de @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private Join<MyGame, Game> selectRow(CriteriaQuery<MyGameRow> query, Root<MyGame> root, CriteriaBuilder cb) {
+        Join<MyGame, Game> game = root.join("game");
+        Join<Game, Company> company = game.join("company");
+        Join<MyGame, Platform> platform = root.join("platform");
+        Join<MyGame, Source> source = root.join("source");
+
+        query.select(cb.construct(MyGameRow.class,
+                root.get("id"), root.get("user").get("id"),
+                game.get("id"), game.get("title"), game.get("description"), game.get("releasedAt"),
+                company.get("id"), company.get("name"),
+                platform.get("id"), platform.get("name"),
+                source.get("id"), source.get("name"),
+                root.get("status")));
+        return game;
+    }
+
+    private long count(Specification<MyGame> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<MyGame> root = query.from(MyGame.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<MyGameDto> toDtos(List<MyGameRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> gameIds = new HashSet<>();
+        rows.forEach(row -> gameIds.add(row.gameId()));
+
+        Map<Long, List<GenreDto>> genres = new HashMap<>();
+        for (Object[] tuple : findNamesByGame("genres", gameIds)) {
+            genres.computeIfAbsent((Long) tuple[0], id -> new ArrayList<>())
+                    .add(new GenreDto((Long) tuple[1], (String) tuple[2]));
+        }
+
+        Map<Long, List<ThemeDto>> themes = new HashMap<>();
+        for (Object[] tuple : findNamesByGame("themes", gameIds)) {
+            themes.computeIfAbsent((Long) tuple[0], id -> new ArrayList<>())
+                    .add(new ThemeDto((Long) tuple[1], (String) tuple[2]));
+        }
+
+        return rows.stream()
+                .map(row -> row.toDto(genres.getOrDefault(row.gameId(), List.of()),
+                        themes.getOrDefault(row.gameId(), List.of())))
+                .toList();
+    }
+
+    private List<Object[]> findNamesByGame(String association, Collection<Long> gameIds) {
+        return entityManager.createQuery(
+                        "SELECT g.id, a.id, a.name FROM Game g JOIN g." + association + " a WHERE g.id IN :ids ORDER BY a.name",
+                        Object[].class)
+                .setParameter("ids", gameIds)
+                .getResultList();
+    }
+}
@@ -1,8 +1,11 @@
 package io.github.ronaldobertolucci.mygames.model.mygame;
 
 import io.github.ronaldobertolucci.mygames.model.user.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -10,24 +13,59 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MyGameRepository extends JpaRepository<MyGame, Long>, JpaSpecificationExecutor<MyGame> {
+public interface MyGameRepository extends JpaRepository<MyGame, Long>, JpaSpecificationExecutor<MyGame>,
+        MyGameProjectionRepository {
+    @EntityGraph(MyGame.WITH_CATALOG)
     List<MyGame> findByUser(User user);
 
+    @EntityGraph(MyGame.WITH_CATALOG)
     Page<MyGame> findByUser(User user, Pageable pageable);
 
+    @Override
+    @EntityGraph(MyGame.WITH_CATALOG)
+    List<MyGame> findAll();
+
+    @Override
+    @EntityGraph(MyGame.WITH_CATALOG)
+    Page<MyGame> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(MyGame.WITH_CATALOG)
+    Page<MyGame> findAll(Specification<MyGame> spec, Pageable pageable);
+
+    @EntityGraph(MyGame.DETAIL)
+    Optional<MyGame> findDetailedById(Long id);
+
+    @EntityGraph(MyGame.WITH_CATALOG)
     @Query("""
         SELECT m FROM MyGame m
                 INNER JOIN m.game g
                 INNER JOIN m.user u
-                WHERE u.username = :username AND g.title LIKE %:title%""")
-    List<MyGame> findMyGamesByUsernameAndGameTitleContaining(@Param("username") String username, @Param("title") String title);
+                WHERE u.username = :username AND g.titleKey LIKE %:titleKey%""")
+    List<MyGame> findMyGamesByUsernameAndGameTitleKeyContaining(@Param("username") String username, @Param("titleKey") String titleKey);
 
+    @EntityGraph(MyGame.WITH_CATALOG)
     @Query("""
         SELECT m FROM MyGame m
                 INNER JOIN m.game g
                 INNER JOIN m.user u
-                WHERE u.username = :username AND g.title LIKE %:title%""")
-    Page<MyGame> findMyGamesByUsernameAndGameTitleContaining(String username, String title, Pageable pageable);
+                WHERE u.username = :username AND g.titleKey LIKE %:titleKey%""")
+    Page<MyGame> findMyGamesByUsernameAndGameTitleKeyContaining(String username, String titleKey, Pageable pageable);
+
+    // Só id e versão: o índice (user_id, change_version) responde sem carregar o registro inteiro
+    @Query("""
+        SELECT m.id, m.changeVersion FROM MyGame m
+                WHERE m.user.id = :userId AND m.changeVersion > :since
+                ORDER BY m.changeVersion""")
+    List<Object[]> findChangedSince(Long userId, Long since, Limit limit);
+
+    // Id do usuário e versão da biblioteca, mantida por trigger a cada escrita em my_games (0 enquanto vazia)
+    @Query(value = """
+        SELECT u.id, coalesce(lv.version, 0) FROM users u
+                LEFT JOIN library_versions lv ON lv.user_id = u.id
+                WHERE u.username = :username""", nativeQuery = true)
+    List<Object[]> findLibraryVersion(@Param("username") String username);
 }
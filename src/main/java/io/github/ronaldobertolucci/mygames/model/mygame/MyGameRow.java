@@ -0,0 +1,38 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.company.CompanyDto;
+import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreDto;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformDto;
+import io.github.ronaldobertolucci.mygames.model.source.SourceDto;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Linha plana de my_games com os dados de catálogo necessários para montar um {@link MyGameDto}
+ * sem hidratar entidades.
+ */
+public record MyGameRow(
+        Long id,
+        Long userId,
+        Long gameId,
+        String title,
+        String description,
+        LocalDate releasedAt,
+        Long companyId,
+        String companyName,
+        Long platformId,
+        String platformName,
+        Long sourceId,
+        String sourceName,
+        Status status
+) {
+    public MyGameDto toDto(List<GenreDto> genres, List<ThemeDto> themes) {
+        GameDto game = new GameDto(gameId, title, description, releasedAt,
+                new CompanyDto(companyId, companyName), genres, themes);
+        return new MyGameDto(id, userId, game, new PlatformDto(platformId, platformName),
+                new SourceDto(sourceId, sourceName), status);
+    }
+}
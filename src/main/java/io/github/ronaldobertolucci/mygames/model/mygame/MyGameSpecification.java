@@ -1,41 +1,63 @@
 package io.github.ronaldobertolucci.mygames.model.mygame;
 
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class MyGameSpecification {
-    
+
     public static Specification<MyGame> byFilter(MyGameFilter filter) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
-            
+
             // Username é obrigatório
             predicates.add(cb.equal(root.get("user").get("username"), filter.getUsername()));
-            
-            // Filtros opcionais
-            if (filter.getTitle() != null && !filter.getTitle().isBlank()) {
-                predicates.add(cb.like(
-                    cb.lower(root.get("game").get("title")), 
-                    "%" + filter.getTitle().toLowerCase() + "%"
-                ));
-            }
-            
-            if (filter.getSourceId() != null) {
-                predicates.add(cb.equal(root.get("source").get("id"), filter.getSourceId()));
-            }
-            
-            if (filter.getPlatformId() != null) {
-                predicates.add(cb.equal(root.get("platform").get("id"), filter.getPlatformId()));
-            }
-
-            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
-                predicates.add(root.get("status").in(filter.getStatuses()));
-            }
-            
+            addOptional(predicates, filter, root, cb);
+
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Como {@link #byFilter(MyGameFilter)}, mas pelo id do dono: compara my_games.user_id direto,
+     * sem juntar users, para que os índices iniciados por user_id atendam a consulta.
+     */
+    public static Specification<MyGame> byUser(Long userId, MyGameFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            addOptional(predicates, filter, root, cb);
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void addOptional(List<Predicate> predicates, MyGameFilter filter, Root<MyGame> root, CriteriaBuilder cb) {
+        if (filter.getTitle() != null && !filter.getTitle().isBlank()) {
+            String titleKey = EscapeCharacter.DEFAULT.escape(Game.toTitleKey(filter.getTitle()));
+            predicates.add(cb.like(
+                root.get("game").get("titleKey"),
+                "%" + titleKey + "%",
+                EscapeCharacter.DEFAULT.getEscapeCharacter()
+            ));
+        }
+
+        if (filter.getSourceId() != null) {
+            predicates.add(cb.equal(root.get("source").get("id"), filter.getSourceId()));
+        }
+
+        if (filter.getPlatformId() != null) {
+            predicates.add(cb.equal(root.get("platform").get("id"), filter.getPlatformId()));
+        }
+
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            predicates.add(root.get("status").in(filter.getStatuses()));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Registro excluído de my_games, gravado pelo trigger de exclusão com a versão da biblioteca
+ * em que a exclusão aconteceu.
+ */
+@Entity
+@Table(name = "my_game_tombstones")
+@Getter
+@NoArgsConstructor
+public class MyGameTombstone {
+
+    @Id
+    private Long myGameId;
+
+    private Long userId;
+
+    private Long changeVersion;
+
+    private Instant deletedAt;
+}
@@ -0,0 +1,19 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MyGameTombstoneRepository extends JpaRepository<MyGameTombstone, Long> {
+    List<MyGameTombstone> findByUserIdAndChangeVersionGreaterThanOrderByChangeVersion(Long userId, Long since, Limit limit);
+
+    // Maior versão de exclusão já apagada pela retenção (0 enquanto nenhuma foi)
+    @Query(value = "SELECT coalesce(max(pruned_version), 0) FROM library_versions WHERE user_id = :userId",
+            nativeQuery = true)
+    long findPrunedVersion(@Param("userId") Long userId);
+}
@@ -0,0 +1,4 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+public record UnmatchedLineDto(long line, String title, String reason) {
+}
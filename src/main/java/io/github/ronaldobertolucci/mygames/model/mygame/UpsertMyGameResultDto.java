@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.model.mygame;
+
+/**
+ * Registro gravado pelo upsert e se ele foi criado agora ou já existia na biblioteca.
+ */
+public record UpsertMyGameResultDto(MyGameDto myGame, boolean created) {
+}
@@ -0,0 +1,26 @@
+package io.github.ronaldobertolucci.mygames.model.pagination;
+
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+import java.util.function.Function;
+
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {
+    /**
+     * Monta a página a partir de até {@code size + 1} itens; o item excedente só indica que há próxima página.
+     */
+    public static <T> CursorPage<T> of(List<T> items, int size, Function<T, KeysetCursor> cursorOf) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, size, null);
+        }
+
+        List<T> content = items.subList(0, size);
+        return new CursorPage<>(content, size, cursorOf.apply(content.getLast()).encode());
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.ronaldobertolucci.mygames.model.pagination;
+
+import io.github.ronaldobertolucci.mygames.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Posição de paginação por cursor: último (título, id) entregue ao cliente.
+ * Trafega como texto opaco em base64 url-safe; a primeira página é pedida com {@value #START}.
+ */
+public record KeysetCursor(String title, Long id) {
+
+    /**
+     * Posição anterior a qualquer registro: títulos nunca são vazios e ids começam em 1.
+     */
+    public static final KeysetCursor FIRST = new KeysetCursor("", 0L);
+
+    /**
+     * Valor do parâmetro que inicia a paginação por cursor. Nunca é produzido por {@link #encode()}:
+     * o texto codificado sempre começa pelo id.
+     */
+    public static final String START = "first";
+
+    public String encode() {
+        String raw = id + ":" + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return o cursor decodificado ou {@link #FIRST} para {@value #START}
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+        if (cursor.equals(START)) {
+            return FIRST;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Decodifica o cursor de uma listagem que também aceita {@code sort}. A ordem da paginação por
+     * cursor é fixa em (título, id), então pedir outra ordem junto com o cursor é erro, não é ignorado.
+     */
+    public static KeysetCursor decode(String cursor, List<String> sort) {
+        if (sort != null && !sort.isEmpty()) {
+            throw new InvalidCursorException("Paginação por cursor não aceita sort");
+        }
+        return decode(cursor);
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.ronaldobertolucci.mygames.model.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String email);
     boolean existsByUsername(String email);
+
+    // Só a página, sem a consulta de contagem
+    List<User> findAllBy(Pageable pageable);
 }
\ No newline at end of file
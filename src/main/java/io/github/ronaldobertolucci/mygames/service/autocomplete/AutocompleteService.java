@@ -0,0 +1,130 @@
+package io.github.ronaldobertolucci.mygames.service.autocomplete;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Autocompletar em memória sobre os nomes do catálogo, sem consultar o banco a cada tecla.
+ * Carregado na subida da aplicação e mantido pelos eventos dos serviços de catálogo.
+ * <p>
+ * Carga e eventos usam o mesmo monitor: um evento que chega durante a carga espera o índice
+ * novo e é aplicado sobre ele, em vez de se perder no índice que está sendo substituído.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    private final Map<CatalogType, PrefixIndex> indexes = new ConcurrentHashMap<>();
+
+    public AutocompleteService() {
+        for (CatalogType type : CatalogType.values()) {
+            indexes.put(type, new PrefixIndex());
+        }
+    }
+
+    public List<CatalogEntryDto> suggest(String prefix, Set<CatalogType> types, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        Set<CatalogType> searched = types == null || types.isEmpty() ? EnumSet.allOf(CatalogType.class) : types;
+        List<Suggestion> candidates = new ArrayList<>();
+        for (CatalogType type : searched) {
+            indexes.get(type).search(prefix, limit)
+                    .forEach(entry -> candidates.add(new Suggestion(type, entry)));
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparing(suggestion -> suggestion.entry().key()))
+                .limit(limit)
+                .map(suggestion -> new CatalogEntryDto(suggestion.type(), suggestion.entry().id(), suggestion.entry().name()))
+                .toList();
+    }
+
+    // Cada índice é montado do zero e trocado inteiro: nomes excluídos ou renomeados numa carga em
+    // massa não sobram nas sugestões
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        loadGames();
+        replace(CatalogType.COMPANY, companyRepository.findAll(), Company::getId, Company::getName);
+        replace(CatalogType.GENRE, genreRepository.findAll(), Genre::getId, Genre::getName);
+        replace(CatalogType.THEME, themeRepository.findAll(), Theme::getId, Theme::getName);
+        replace(CatalogType.PLATFORM, platformRepository.findAll(), Platform::getId, Platform::getName);
+        replace(CatalogType.SOURCE, sourceRepository.findAll(), Source::getId, Source::getName);
+        logger.info("Autocomplete index loaded with {} games", indexes.get(CatalogType.GAME).size());
+    }
+
+    // Jogos de uma companhia excluída chegam como exclusões de jogo, publicadas antes da companhia
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        PrefixIndex index = indexes.get(event.type());
+        if (event.isRemoval()) {
+            index.remove(event.id());
+        } else {
+            index.put(event.id(), event.name());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        load();
+    }
+
+    private <T> void replace(CatalogType type, List<T> items, Function<T, Long> idOf, Function<T, String> nameOf) {
+        PrefixIndex index = new PrefixIndex();
+        items.forEach(item -> index.put(idOf.apply(item), nameOf.apply(item)));
+        indexes.put(type, index);
+    }
+
+    private synchronized void loadGames() {
+        PrefixIndex games = new PrefixIndex();
+        gameRepository.findAllTitles().forEach(game -> games.put(game.id(), game.title()));
+        indexes.put(CatalogType.GAME, games);
+    }
+
+    private record Suggestion(CatalogType type, PrefixIndex.Entry entry) {
+    }
+}
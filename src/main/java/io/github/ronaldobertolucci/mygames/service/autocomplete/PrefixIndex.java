@@ -0,0 +1,61 @@
+package io.github.ronaldobertolucci.mygames.service.autocomplete;
+
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice ordenado de nomes normalizados para busca por prefixo.
+ * Leituras não bloqueiam; escritas são serializadas para manter chave e id consistentes.
+ */
+class PrefixIndex {
+
+    // Separa o nome do id na chave, garantindo unicidade sem alterar a ordem alfabética
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+
+    record Entry(String key, Long id, String name) {
+    }
+
+    synchronized void put(Long id, String name) {
+        String key = normalize(name) + SEPARATOR + id;
+        String previous = keysById.put(id, key);
+        if (previous != null && !previous.equals(key)) {
+            entries.remove(previous);
+        }
+        entries.put(key, new Entry(key, id, name));
+    }
+
+    synchronized void remove(Long id) {
+        String key = keysById.remove(id);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    List<Entry> search(String prefix, int limit) {
+        String from = normalize(prefix);
+        List<Entry> result = new ArrayList<>(limit);
+        for (Entry entry : entries.tailMap(from, true).values()) {
+            if (result.size() == limit || !entry.key().startsWith(from)) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    int size() {
+        return keysById.size();
+    }
+
+    static String normalize(String name) {
+        return Game.toTitleKey(name);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+/**
+ * Publicado ao fim de uma carga ou sincronização em massa. As linhas são gravadas direto no
+ * banco, sem um evento por registro, então os índices em memória precisam ser recarregados.
+ */
+public record CatalogBulkChangedEvent() {
+}
@@ -0,0 +1,105 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.BulkLoadResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Carga em massa do catálogo: os registros são transmitidos por COPY para uma tabela temporária
+ * e dela mesclados em companies, games, game_genre e game_theme com um comando por tabela.
+ * O arquivo nunca é carregado inteiro, então a memória usada não depende do seu tamanho.
+ * <p>
+ * Jogos já existentes (mesmo título e companhia) são mantidos; só ganham os gêneros e temas
+ * que ainda não tinham. Gêneros e temas desconhecidos são ignorados. Os jogos inseridos gravam
+ * o content_hash do registro, como na sincronização, para que o feed possa atualizá-los e
+ * removê-los depois.
+ */
+@Service
+public class CatalogBulkLoadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogBulkLoadService.class);
+
+    private static final String MERGE_COMPANIES = """
+            INSERT INTO companies (name)
+            SELECT DISTINCT company FROM catalog_staging
+            ON CONFLICT DO NOTHING""";
+
+    // Títulos repetidos no arquivo ficam com a primeira ocorrência. O hash de um jogo existente
+    // não muda: ele descreve o que está gravado, não o que o arquivo traz
+    private static final String MERGE_GAMES = """
+            INSERT INTO games (title, title_key, description, released_at, company_id, content_hash)
+            SELECT DISTINCT ON (s.title, c.id) s.title, s.title_key, s.description, s.released_at, c.id, s.content_hash
+            FROM catalog_staging s
+            JOIN companies c ON c.name = s.company
+            ORDER BY s.title, c.id, s.line
+            ON CONFLICT DO NOTHING""";
+
+    private static final String MERGE_GENRES = """
+            INSERT INTO game_genre (game_id, genre_id)
+            SELECT DISTINCT g.id, ge.id
+            FROM catalog_staging s
+            JOIN companies c ON c.name = s.company
+            JOIN games g ON g.title = s.title AND g.company_id = c.id
+            CROSS JOIN LATERAL unnest(s.genres) AS n(name)
+            JOIN genres ge ON ge.name = n.name
+            ON CONFLICT DO NOTHING""";
+
+    private static final String MERGE_THEMES = """
+            INSERT INTO game_theme (game_id, theme_id)
+            SELECT DISTINCT g.id, t.id
+            FROM catalog_staging s
+            JOIN companies c ON c.name = s.company
+            JOIN games g ON g.title = s.title AND g.company_id = c.id
+            CROSS JOIN LATERAL unnest(s.themes) AS n(name)
+            JOIN themes t ON t.name = n.name
+            ON CONFLICT DO NOTHING""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BulkLoadResultDto load(InputStream input, CatalogFileFormat format) {
+        entityManager.flush();
+        BulkLoadResultDto result = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> load(connection, input, format));
+        entityManager.clear();
+
+        logger.info("Catalog bulk load: {}", result);
+        eventPublisher.publishEvent(new CatalogBulkChangedEvent());
+        return result;
+    }
+
+    private BulkLoadResultDto load(Connection connection, InputStream input, CatalogFileFormat format) throws SQLException {
+        long records = CatalogStaging.load(connection, input, format, jsonMapper.reader(),
+                read -> logger.info("Catalog bulk load: {} records read", read));
+
+        try (Statement statement = connection.createStatement()) {
+            return new BulkLoadResultDto(
+                    records,
+                    statement.executeUpdate(MERGE_COMPANIES),
+                    statement.executeUpdate(MERGE_GAMES),
+                    statement.executeUpdate(MERGE_GENRES),
+                    statement.executeUpdate(MERGE_THEMES));
+        }
+    }
+}
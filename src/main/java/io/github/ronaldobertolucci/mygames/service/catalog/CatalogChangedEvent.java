@@ -0,0 +1,22 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+
+/**
+ * Publicado pelos serviços de catálogo a cada inclusão, alteração ou exclusão.
+ * Em exclusões o nome é {@code null}.
+ */
+public record CatalogChangedEvent(CatalogType type, Long id, String name) {
+
+    public static CatalogChangedEvent saved(CatalogType type, Long id, String name) {
+        return new CatalogChangedEvent(type, id, name);
+    }
+
+    public static CatalogChangedEvent removed(CatalogType type, Long id) {
+        return new CatalogChangedEvent(type, id, null);
+    }
+
+    public boolean isRemoval() {
+        return name == null;
+    }
+}
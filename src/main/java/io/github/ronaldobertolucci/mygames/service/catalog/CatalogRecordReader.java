@@ -0,0 +1,146 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvReader;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogRecordDto;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Lê o arquivo de carga registro a registro, sem manter mais que a linha atual em memória.
+ * <p>
+ * CSV exige cabeçalho com as colunas {@code title} e {@code company}; {@code description},
+ * {@code released_at}, {@code genres} e {@code themes} são opcionais, com gêneros e temas
+ * separados por {@code |}. NDJSON traz um objeto por linha com os mesmos campos.
+ */
+class CatalogRecordReader implements Closeable {
+
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private final BufferedReader reader;
+    private final CsvReader csv;
+    private final CatalogFileFormat format;
+    private final ObjectReader jsonReader;
+    private Map<String, Integer> columns;
+    private long line;
+
+    CatalogRecordReader(InputStream input, CatalogFileFormat format, ObjectReader jsonReader) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.csv = new CsvReader(reader);
+        this.format = format;
+        this.jsonReader = jsonReader.forType(CatalogRecordDto.class);
+    }
+
+    /**
+     * Próximo registro do arquivo, ou {@code null} ao fim dele. Linhas em branco são ignoradas.
+     */
+    CatalogRecordDto next() throws IOException {
+        return format == CatalogFileFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    long line() {
+        return format == CatalogFileFormat.CSV ? csv.line() : line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private CatalogRecordDto nextJson() throws IOException {
+        String json;
+        do {
+            json = reader.readLine();
+            if (json == null) {
+                return null;
+            }
+            line++;
+        } while (json.isBlank());
+
+        try {
+            return validate(jsonReader.readValue(json));
+        } catch (JacksonException ex) {
+            throw invalid(ex.getOriginalMessage());
+        }
+    }
+
+    private CatalogRecordDto nextCsv() throws IOException {
+        if (columns == null) {
+            List<String> header = csv.readRow();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            if (!columns.containsKey("title") || !columns.containsKey("company")) {
+                throw invalid("header must have the title and company columns");
+            }
+        }
+
+        List<String> row;
+        do {
+            row = csv.readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (CsvReader.isBlank(row));
+
+        return validate(new CatalogRecordDto(
+                field(row, "title"),
+                field(row, "description"),
+                date(field(row, "released_at")),
+                field(row, "company"),
+                list(field(row, "genres")),
+                list(field(row, "themes"))));
+    }
+
+    private String field(List<String> row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size() || row.get(index).isBlank()) {
+            return null;
+        }
+        return row.get(index);
+    }
+
+    private LocalDate date(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw invalid("invalid released_at " + value);
+        }
+    }
+
+    private List<String> list(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.asList(value.split(LIST_SEPARATOR));
+    }
+
+    private CatalogRecordDto validate(CatalogRecordDto record) {
+        if (record.title() == null || record.title().isBlank()) {
+            throw invalid("title is required");
+        }
+        if (record.company() == null || record.company().isBlank()) {
+            throw invalid("company is required");
+        }
+        return record;
+    }
+
+    private UnprocessableEntity invalid(String reason) {
+        return new UnprocessableEntity("Invalid catalog record at line " + line() + ": " + reason);
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import java.nio.file.Path;
+
+/**
+ * Arquivo NDJSON comprimido com gzip: um snapshot completo ou o diff até {@code version}.
+ */
+public record CatalogSnapshotFile(long version, Path file) {
+}
@@ -0,0 +1,442 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSnapshotEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.service.game.GameChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameLinksChangedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots versionados do catálogo (companhias, gêneros, temas e jogos) para clientes offline.
+ * <p>
+ * Cada versão é um arquivo NDJSON comprimido com gzip no disco local, ordenado por tipo e id.
+ * Escritas no catálogo agendam uma nova geração (agrupando as alterações próximas), e uma geração
+ * com o mesmo conteúdo da última não cria versão. O diff entre uma versão antiga e a atual é
+ * calculado percorrendo os dois arquivos juntos e fica guardado ao lado deles.
+ * <p>
+ * O número da versão vem de uma sequence do banco, então não se repete depois de um deploy que
+ * perdeu o diretório nem entre instâncias; uma instância que não tem a versão pedida responde
+ * como versão fora da retenção. Só a geração é serializada: o snapshot mais recente é lido e os
+ * diffs são montados fora do lock, e a limpeza não apaga arquivos entregues há menos de
+ * {@code catalog.snapshot.prune-grace}, que ainda podem estar sendo enviados.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("catalog-(\\d+)\\.ndjson\\.gz");
+    private static final Pattern DIFF_NAME = Pattern.compile("catalog-(\\d+)-(\\d+)\\.diff\\.ndjson\\.gz");
+
+    private static final int FETCH_SIZE = 1000;
+
+    // Nunca abaixo das versões já no disco: o banco pode ter sido recriado com o diretório mantido
+    private static final String NEXT_VERSION =
+            "SELECT setval('catalog_snapshot_version_seq', greatest(nextval('catalog_snapshot_version_seq'), ?))";
+
+    // Ordem dos tipos no arquivo: os referenciados vêm antes dos jogos que os referenciam
+    private static final List<CatalogType> TYPES = List.of(
+            CatalogType.COMPANY, CatalogType.GENRE, CatalogType.THEME, CatalogType.GAME);
+
+    private static final String SELECT_GAMES = """
+            SELECT g.id, g.title, g.description, g.released_at, g.company_id,
+                   ARRAY(SELECT gg.genre_id FROM game_genre gg WHERE gg.game_id = g.id ORDER BY gg.genre_id) AS genre_ids,
+                   ARRAY(SELECT gt.theme_id FROM game_theme gt WHERE gt.game_id = g.id ORDER BY gt.theme_id) AS theme_ids
+            FROM games g
+            ORDER BY g.id""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${catalog.snapshot.dir}")
+    private Path dir;
+
+    @Value("${catalog.snapshot.retention:10}")
+    private int retention;
+
+    @Value("${catalog.snapshot.debounce-seconds:30}")
+    private long debounceSeconds;
+
+    @Value("${catalog.snapshot.prune-grace:PT10M}")
+    private Duration pruneGrace;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Object lock = new Object();
+
+    // Arquivos entregues (ou em montagem) e quando; também o monitor da decisão de apagar
+    private final Map<Path, Instant> held = new HashMap<>();
+
+    // Digest do conteúdo descomprimido do último snapshot, para não gerar versão sem mudança
+    private byte[] latestDigest;
+
+    /**
+     * Snapshot mais recente; se ainda não houver nenhum, gera o primeiro.
+     */
+    public CatalogSnapshotFile latest() {
+        while (true) {
+            Optional<CatalogSnapshotFile> latest = findLatest();
+            if (latest.isEmpty()) {
+                return generate();
+            }
+            // Apagado entre a listagem e a marcação: uma versão mais nova já existe
+            if (hold(latest.get().file())) {
+                return latest.get();
+            }
+        }
+    }
+
+    /**
+     * Diff da versão {@code from} até a mais recente, ou vazio se {@code from} já é a mais recente.
+     * Versões que não existem mais no disco (fora da retenção) não têm diff: o cliente baixa o
+     * snapshot completo.
+     */
+    public Optional<CatalogSnapshotFile> diff(long from) {
+        CatalogSnapshotFile latest = latest();
+        if (from == latest.version()) {
+            return Optional.empty();
+        }
+
+        Path source = snapshotPath(from);
+        if (from > latest.version() || !hold(source)) {
+            throw new EntityNotFoundException("Catalog snapshot " + from + " is not available");
+        }
+
+        // Dois pedidos do mesmo diff ao mesmo tempo montam o mesmo conteúdo; vale o último a mover
+        Path target = dir.resolve("catalog-" + from + "-" + latest.version() + ".diff.ndjson.gz");
+        if (!hold(target)) {
+            writeAtomically(target, output -> writeDiff(source, latest.file(), output));
+        }
+        return Optional.of(new CatalogSnapshotFile(latest.version(), target));
+    }
+
+    /**
+     * Gera um snapshot do catálogo atual. Se o conteúdo for igual ao do último, devolve o último.
+     */
+    public CatalogSnapshotFile generate() {
+        synchronized (lock) {
+            try {
+                Files.createDirectories(dir);
+                Optional<CatalogSnapshotFile> latest = findLatest();
+                if (latestDigest == null && latest.isPresent()) {
+                    latestDigest = digest(latest.get().file());
+                }
+
+                Path temp = Files.createTempFile(dir, "catalog-", ".tmp");
+                MessageDigest digest = sha256();
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new DigestOutputStream(
+                        new GZIPOutputStream(Files.newOutputStream(temp)), digest), StandardCharsets.UTF_8))) {
+                    writeCatalog(writer);
+                } catch (IOException | RuntimeException ex) {
+                    Files.deleteIfExists(temp);
+                    throw ex;
+                }
+
+                byte[] contentDigest = digest.digest();
+                if (latest.isPresent() && Arrays.equals(contentDigest, latestDigest)) {
+                    Files.delete(temp);
+                    hold(latest.get().file());
+                    return latest.get();
+                }
+
+                long version = jdbcTemplate.queryForObject(NEXT_VERSION, Long.class,
+                        latest.map(CatalogSnapshotFile::version).orElse(0L) + 1);
+                Path target = snapshotPath(version);
+                hold(target);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                latestDigest = contentDigest;
+                prune(version);
+                logger.info("Catalog snapshot {} written to {}", version, target);
+                return new CatalogSnapshotFile(version, target);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${catalog.snapshot.cron:-}")
+    public void scheduledGenerate() {
+        generate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (TYPES.contains(event.type())) {
+            scheduleGenerate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        scheduleGenerate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameLinksChanged(GameLinksChangedEvent event) {
+        scheduleGenerate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        scheduleGenerate();
+    }
+
+    // Alterações dentro da janela viram uma única geração, disparada depois da primeira delas
+    private void scheduleGenerate() {
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+
+        scheduler.schedule(() -> {
+            pending.set(false);
+            try {
+                generate();
+            } catch (RuntimeException ex) {
+                logger.error("Catalog snapshot generation failed", ex);
+            }
+        }, debounceSeconds, TimeUnit.SECONDS);
+    }
+
+    // Leitura em REPEATABLE READ: as quatro consultas enxergam o mesmo estado do catálogo
+    private void writeCatalog(Writer writer) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transaction.executeWithoutResult(status -> {
+            stream("SELECT id, name FROM companies ORDER BY id", rs -> write(writer,
+                    CatalogSnapshotEntryDto.named(CatalogType.COMPANY, rs.getLong("id"), rs.getString("name"))));
+            stream("SELECT id, name FROM genres ORDER BY id", rs -> write(writer,
+                    CatalogSnapshotEntryDto.named(CatalogType.GENRE, rs.getLong("id"), rs.getString("name"))));
+            stream("SELECT id, name FROM themes ORDER BY id", rs -> write(writer,
+                    CatalogSnapshotEntryDto.named(CatalogType.THEME, rs.getLong("id"), rs.getString("name"))));
+            stream(SELECT_GAMES, rs -> {
+                Date releasedAt = rs.getDate("released_at");
+                write(writer, CatalogSnapshotEntryDto.game(rs.getLong("id"), rs.getString("title"),
+                        rs.getString("description"), releasedAt == null ? null : releasedAt.toLocalDate(),
+                        rs.getLong("company_id"), ids(rs.getArray("genre_ids")), ids(rs.getArray("theme_ids"))));
+            });
+        });
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        };
+        jdbcTemplate.query(creator, handler);
+    }
+
+    private List<Long> ids(Array array) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = array.getResultSet()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(2));
+            }
+        }
+        return ids;
+    }
+
+    private void write(Writer writer, CatalogSnapshotEntryDto entry) {
+        try {
+            writer.write(jsonMapper.writeValueAsString(entry));
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Os dois snapshots estão na mesma ordem (tipo, id), então basta um passo de merge: chave só
+     * no antigo é exclusão, só no novo é inclusão e, nos dois, linha diferente é alteração.
+     */
+    private void writeDiff(Path from, Path to, Writer writer) throws IOException {
+        try (BufferedReader previous = gzipReader(from); BufferedReader current = gzipReader(to)) {
+            String oldLine = previous.readLine();
+            String newLine = current.readLine();
+            while (oldLine != null || newLine != null) {
+                int cmp = oldLine == null ? 1 : newLine == null ? -1 : key(oldLine).compareTo(key(newLine));
+                if (cmp < 0) {
+                    Key removed = key(oldLine);
+                    write(writer, CatalogSnapshotEntryDto.deleted(removed.type(), removed.id()));
+                    oldLine = previous.readLine();
+                } else if (cmp > 0) {
+                    writer.write(newLine);
+                    writer.write('\n');
+                    newLine = current.readLine();
+                } else {
+                    if (!oldLine.equals(newLine)) {
+                        writer.write(newLine);
+                        writer.write('\n');
+                    }
+                    oldLine = previous.readLine();
+                    newLine = current.readLine();
+                }
+            }
+        }
+    }
+
+    private Key key(String line) {
+        CatalogSnapshotEntryDto entry = jsonMapper.readValue(line, CatalogSnapshotEntryDto.class);
+        return new Key(entry.type(), entry.id());
+    }
+
+    private void writeAtomically(Path target, WriterAction action) {
+        try {
+            Path temp = Files.createTempFile(dir, "catalog-", ".tmp");
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                action.write(writer);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(temp);
+                throw ex;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Marca {@code file} como entregue agora e diz se ele existe. A marcação vem antes da
+     * verificação, no mesmo monitor da limpeza: um arquivo que existia aqui não é apagado
+     * enquanto a marcação valer.
+     */
+    private boolean hold(Path file) {
+        synchronized (held) {
+            held.put(file, Instant.now());
+            return Files.exists(file);
+        }
+    }
+
+    // Mantém as últimas versões; diffs só valem enquanto apontam para a versão mais recente.
+    // Arquivos entregues há pouco ficam para a limpeza de uma próxima geração
+    private void prune(long latestVersion) throws IOException {
+        synchronized (held) {
+            Instant cutoff = Instant.now().minus(pruneGrace);
+            held.values().removeIf(heldAt -> heldAt.isBefore(cutoff));
+
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    Matcher snapshot = SNAPSHOT_NAME.matcher(name);
+                    Matcher diff = DIFF_NAME.matcher(name);
+                    if (((snapshot.matches() && Long.parseLong(snapshot.group(1)) <= latestVersion - retention)
+                            || (diff.matches() && Long.parseLong(diff.group(2)) != latestVersion))
+                            && !held.containsKey(file)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private Optional<CatalogSnapshotFile> findLatest() {
+        if (!Files.isDirectory(dir)) {
+            return Optional.empty();
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .map(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .max(Long::compare)
+                    .map(version -> new CatalogSnapshotFile(version, snapshotPath(version)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Path snapshotPath(long version) {
+        return dir.resolve("catalog-" + version + ".ndjson.gz");
+    }
+
+    private BufferedReader gzipReader(Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+    }
+
+    private byte[] digest(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record Key(CatalogType type, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byType = Integer.compare(TYPES.indexOf(type), TYPES.indexOf(other.type));
+            return byType != 0 ? byType : Long.compare(id, other.id);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WriterAction {
+        void write(Writer writer) throws IOException;
+    }
+}
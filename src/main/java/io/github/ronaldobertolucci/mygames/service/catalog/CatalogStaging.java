@@ -0,0 +1,187 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogRecordDto;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Tabela temporária {@code catalog_staging}, preenchida por COPY a partir do arquivo do catálogo,
+ * usada pela carga em massa e pela sincronização para mesclar tudo com comandos set-based.
+ * <p>
+ * Cada linha leva o hash do registro normalizado, que a sincronização compara com o gravado
+ * em games para saber o que mudou.
+ */
+class CatalogStaging {
+
+    // Intervalo de linhas entre avisos de progresso
+    static final int PROGRESS_INTERVAL = 10_000;
+
+    // Apagada no commit; o DROP cobre uma segunda carga na mesma transação
+    private static final String CREATE = """
+            DROP TABLE IF EXISTS catalog_staging;
+            CREATE TEMP TABLE catalog_staging (
+                line bigint,
+                title text,
+                title_key text,
+                description text,
+                released_at date,
+                company text,
+                genres text[],
+                themes text[],
+                content_hash text
+            ) ON COMMIT DROP""";
+
+    private static final String COPY = """
+            COPY catalog_staging (line, title, title_key, description, released_at, company, genres, themes, content_hash)
+            FROM STDIN (FORMAT csv)""";
+
+    private static final char HASH_SEPARATOR = '\u001f';
+
+    private CatalogStaging() {
+    }
+
+    /**
+     * Cria a tabela e copia para ela todos os registros do arquivo, devolvendo quantos foram lidos.
+     */
+    static long load(Connection connection, InputStream input, CatalogFileFormat format,
+                     ObjectReader jsonReader, LongConsumer progress) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE);
+            long records = copy(connection.unwrap(PGConnection.class), input, format, jsonReader, progress);
+            statement.execute("ANALYZE catalog_staging");
+            return records;
+        }
+    }
+
+    private static long copy(PGConnection connection, InputStream input, CatalogFileFormat format,
+                             ObjectReader jsonReader, LongConsumer progress) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection, COPY);
+        try (CatalogRecordReader reader = new CatalogRecordReader(input, format, jsonReader)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8));
+            MessageDigest digest = sha256();
+            long records = 0;
+            CatalogRecordDto record;
+            while ((record = reader.next()) != null) {
+                writeRow(writer, reader.line(), Row.of(record), digest);
+                if (++records % PROGRESS_INTERVAL == 0) {
+                    progress.accept(records);
+                }
+            }
+            writer.flush();
+            copy.endCopy();
+            progress.accept(records);
+            return records;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            // Erro no meio do arquivo: a cópia precisa ser abortada para liberar a conexão
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeRow(Writer writer, long line, Row row, MessageDigest digest) throws IOException {
+        writer.write(Long.toString(line));
+        writeField(writer, row.title());
+        writeField(writer, Game.toTitleKey(row.title()));
+        writeField(writer, row.description());
+        writeField(writer, row.releasedAt());
+        writeField(writer, row.company());
+        writeField(writer, array(row.genres()));
+        writeField(writer, array(row.themes()));
+        writeField(writer, row.hash(digest));
+        writer.write('\n');
+    }
+
+    // No COPY em CSV, campo vazio sem aspas é NULL e entre aspas é texto vazio
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value != null) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static String array(List<String> names) {
+        StringBuilder array = new StringBuilder("{");
+        for (String name : names) {
+            if (array.length() > 1) {
+                array.append(',');
+            }
+            array.append('"').append(name.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return array.append('}').toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Registro com a mesma normalização das entidades: textos em minúsculas e sem espaços nas
+     * pontas, gêneros e temas sem repetição e em ordem, para que o hash não dependa da ordem do arquivo.
+     */
+    private record Row(String title, String description, String releasedAt, String company,
+                       List<String> genres, List<String> themes) {
+
+        static Row of(CatalogRecordDto record) {
+            return new Row(
+                    normalize(record.title()),
+                    record.description() == null ? null : normalize(record.description()),
+                    record.releasedAt() == null ? null : record.releasedAt().toString(),
+                    normalize(record.company()),
+                    names(record.genres()),
+                    names(record.themes()));
+        }
+
+        String hash(MessageDigest digest) {
+            StringBuilder content = new StringBuilder()
+                    .append(title).append(HASH_SEPARATOR)
+                    .append(Objects.toString(description, "")).append(HASH_SEPARATOR)
+                    .append(Objects.toString(releasedAt, "")).append(HASH_SEPARATOR)
+                    .append(company).append(HASH_SEPARATOR)
+                    .append(String.join(",", genres)).append(HASH_SEPARATOR)
+                    .append(String.join(",", themes));
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private static List<String> names(List<String> names) {
+            if (names == null) {
+                return List.of();
+            }
+
+            return names.stream()
+                    .filter(Objects::nonNull)
+                    .map(Row::normalize)
+                    .filter(name -> !name.isEmpty())
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+
+        private static String normalize(String value) {
+            return value.toLowerCase().trim();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncStatusDto;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sincronização incremental do catálogo com o arquivo do fornecedor.
+ * <p>
+ * O arquivo é copiado para a tabela temporária com o hash de cada registro, e o diff contra
+ * games é feito pela chave (título, companhia): só registros novos ou com hash diferente são
+ * gravados, com {@code ON CONFLICT DO UPDATE}, e jogos vindos do feed que sumiram dele são removidos,
+ * exceto os que estão em alguma biblioteca: a exclusão levaria junto os registros de my_games.
+ * Jogos cadastrados pela API (sem hash) nunca são alterados pelo feed, só contados como conflito.
+ * Se o arquivo for idêntico ao da última sincronização, nada é lido do banco.
+ */
+@Service
+public class CatalogSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSyncService.class);
+
+    // Registro repetido no arquivo: vale a primeira ocorrência
+    private static final String DEDUPLICATE = """
+            DELETE FROM catalog_staging s
+            USING catalog_staging d
+            WHERE d.title = s.title AND d.company = s.company AND d.line < s.line""";
+
+    private static final String MERGE_COMPANIES = """
+            INSERT INTO companies (name)
+            SELECT DISTINCT company FROM catalog_staging
+            ON CONFLICT DO NOTHING""";
+
+    private static final String CREATE_CHANGED = """
+            DROP TABLE IF EXISTS catalog_changed;
+            CREATE TEMP TABLE catalog_changed (id bigint PRIMARY KEY, inserted boolean) ON COMMIT DROP""";
+
+    // Registros com o mesmo hash nem chegam ao INSERT, então reexecutar um feed igual não gera escrita.
+    // Jogos da API ficam de fora nos dois pontos: no diff e no conflito com um cadastro concorrente
+    private static final String UPSERT_GAMES = """
+            WITH upserted AS (
+                INSERT INTO games (title, title_key, description, released_at, company_id, content_hash)
+                SELECT s.title, s.title_key, s.description, s.released_at, c.id, s.content_hash
+                FROM catalog_staging s
+                JOIN companies c ON c.name = s.company
+                LEFT JOIN games g ON g.title = s.title AND g.company_id = c.id
+                WHERE g.id IS NULL OR (g.content_hash IS NOT NULL AND g.content_hash <> s.content_hash)
+                ON CONFLICT (title, company_id) DO UPDATE
+                SET title_key = EXCLUDED.title_key,
+                    description = EXCLUDED.description,
+                    released_at = EXCLUDED.released_at,
+                    content_hash = EXCLUDED.content_hash
+                WHERE games.content_hash IS NOT NULL AND games.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+                RETURNING id, xmax = 0 AS inserted
+            )
+            INSERT INTO catalog_changed SELECT id, inserted FROM upserted""";
+
+    private static final String COUNT_CONFLICTS = """
+            SELECT count(*) FROM catalog_staging s
+            JOIN companies c ON c.name = s.company
+            JOIN games g ON g.title = s.title AND g.company_id = c.id
+            WHERE g.content_hash IS NULL""";
+
+    private static final String DELETE_CHANGED_GENRES = """
+            DELETE FROM game_genre gg USING catalog_changed ch WHERE gg.game_id = ch.id""";
+
+    private static final String DELETE_CHANGED_THEMES = """
+            DELETE FROM game_theme gt USING catalog_changed ch WHERE gt.game_id = ch.id""";
+
+    private static final String INSERT_CHANGED_GENRES = """
+            INSERT INTO game_genre (game_id, genre_id)
+            SELECT DISTINCT g.id, ge.id
+            FROM catalog_changed ch
+            JOIN games g ON g.id = ch.id
+            JOIN companies c ON c.id = g.company_id
+            JOIN catalog_staging s ON s.title = g.title AND s.company = c.name
+            CROSS JOIN LATERAL unnest(s.genres) AS n(name)
+            JOIN genres ge ON ge.name = n.name
+            ON CONFLICT DO NOTHING""";
+
+    private static final String INSERT_CHANGED_THEMES = """
+            INSERT INTO game_theme (game_id, theme_id)
+            SELECT DISTINCT g.id, t.id
+            FROM catalog_changed ch
+            JOIN games g ON g.id = ch.id
+            JOIN companies c ON c.id = g.company_id
+            JOIN catalog_staging s ON s.title = g.title AND s.company = c.name
+            CROSS JOIN LATERAL unnest(s.themes) AS n(name)
+            JOIN themes t ON t.name = n.name
+            ON CONFLICT DO NOTHING""";
+
+    // Só jogos que vieram do feed (com hash) são removidos; os cadastrados pela API ficam
+    private static final String CREATE_REMOVED = """
+            DROP TABLE IF EXISTS catalog_removed;
+            CREATE TEMP TABLE catalog_removed ON COMMIT DROP AS
+            SELECT g.id FROM games g
+            WHERE g.content_hash IS NOT NULL
+            AND NOT EXISTS (
+                SELECT 1 FROM catalog_staging s
+                JOIN companies c ON c.name = s.company
+                WHERE s.title = g.title AND c.id = g.company_id
+            )""";
+
+    // Trava os jogos antes de conferir as bibliotecas: quem os adicionar depois espera o commit,
+    // e a conferência seguinte, com snapshot novo, já enxerga as inclusões concluídas até aqui
+    private static final String LOCK_REMOVED = """
+            SELECT id FROM games WHERE id IN (SELECT id FROM catalog_removed) ORDER BY id FOR UPDATE""";
+
+    private static final String RETAIN_IN_LIBRARIES = """
+            DELETE FROM catalog_removed r WHERE EXISTS (SELECT 1 FROM my_games m WHERE m.game_id = r.id)""";
+
+    private static final String DELETE_REMOVED_GENRES = """
+            DELETE FROM game_genre WHERE game_id IN (SELECT id FROM catalog_removed)""";
+
+    private static final String DELETE_REMOVED_THEMES = """
+            DELETE FROM game_theme WHERE game_id IN (SELECT id FROM catalog_removed)""";
+
+    private static final String DELETE_REMOVED = """
+            DELETE FROM games WHERE id IN (SELECT id FROM catalog_removed)""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.sync.file:}")
+    private String feedFile;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CatalogSyncStatusDto status = CatalogSyncStatusDto.idle();
+
+    // Digest do último arquivo sincronizado com sucesso
+    private volatile byte[] lastFeedDigest;
+    private volatile long lastFeedRecords;
+
+    public CatalogSyncStatusDto status() {
+        return status;
+    }
+
+    /**
+     * Dispara a sincronização do arquivo configurado em segundo plano. Se já houver uma
+     * em andamento, apenas devolve o andamento dela.
+     */
+    public CatalogSyncStatusDto start() {
+        if (feedFile.isBlank()) {
+            throw new UnprocessableEntity("Catalog feed file is not configured");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return status;
+        }
+
+        Path file = Path.of(feedFile);
+        status = CatalogSyncStatusDto.running("queued", 0, LocalDateTime.now());
+        executor.execute(() -> {
+            try {
+                sync(file);
+            } catch (RuntimeException ex) {
+                logger.error("Catalog sync from {} failed", file, ex);
+            } finally {
+                running.set(false);
+            }
+        });
+        return status;
+    }
+
+    @Scheduled(cron = "${catalog.sync.cron:-}")
+    public void scheduledSync() {
+        start();
+    }
+
+    public CatalogSyncResultDto sync(Path file) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        status = CatalogSyncStatusDto.running("checking feed", 0, startedAt);
+        try {
+            byte[] feedDigest = digest(file);
+            if (Arrays.equals(feedDigest, lastFeedDigest)) {
+                CatalogSyncResultDto result = CatalogSyncResultDto.unchanged(lastFeedRecords);
+                status = CatalogSyncStatusDto.running("checking feed", lastFeedRecords, startedAt).completed(result);
+                logger.info("Catalog feed {} unchanged since last sync", file);
+                return result;
+            }
+
+            CatalogSyncResultDto result = transactionTemplate.execute(tx -> {
+                entityManager.flush();
+                CatalogSyncResultDto merged = entityManager.unwrap(Session.class)
+                        .doReturningWork(connection -> merge(connection, file, startedAt));
+                entityManager.clear();
+                if (merged.inserted() + merged.updated() + merged.removed() > 0) {
+                    eventPublisher.publishEvent(new CatalogBulkChangedEvent());
+                }
+                return merged;
+            });
+
+            lastFeedDigest = feedDigest;
+            lastFeedRecords = result.records();
+            status = status.completed(result);
+            logger.info("Catalog sync from {}: {}", file, result);
+            return result;
+        } catch (RuntimeException ex) {
+            status = status.failed(ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private CatalogSyncResultDto merge(Connection connection, Path file, LocalDateTime startedAt) throws SQLException {
+        CatalogFileFormat format = CatalogFileFormat.fromFileName(file.getFileName().toString());
+        status = CatalogSyncStatusDto.running("reading feed", 0, startedAt);
+        long read;
+        try (InputStream input = Files.newInputStream(file)) {
+            read = CatalogStaging.load(connection, input, format, jsonMapper.reader(),
+                    records -> status = CatalogSyncStatusDto.running("reading feed", records, startedAt));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // Um arquivo vazio ou truncado apagaria todo o catálogo vindo do feed
+        if (read == 0) {
+            throw new UnprocessableEntity("Catalog feed " + file + " has no records");
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            status = CatalogSyncStatusDto.running("merging games", read, startedAt);
+            long records = read - statement.executeUpdate(DEDUPLICATE);
+            statement.executeUpdate(MERGE_COMPANIES);
+            statement.execute(CREATE_CHANGED);
+            statement.executeUpdate(UPSERT_GAMES);
+            int inserted = count(statement, "SELECT count(*) FROM catalog_changed WHERE inserted");
+            int updated = count(statement, "SELECT count(*) FROM catalog_changed WHERE NOT inserted");
+            int conflicts = count(statement, COUNT_CONFLICTS);
+            if (conflicts > 0) {
+                logger.warn("Catalog feed {} has {} records matching games registered through the API", file, conflicts);
+            }
+
+            status = CatalogSyncStatusDto.running("merging genres and themes", read, startedAt);
+            statement.executeUpdate(DELETE_CHANGED_GENRES);
+            statement.executeUpdate(DELETE_CHANGED_THEMES);
+            statement.executeUpdate(INSERT_CHANGED_GENRES);
+            statement.executeUpdate(INSERT_CHANGED_THEMES);
+
+            status = CatalogSyncStatusDto.running("removing games", read, startedAt);
+            statement.execute(CREATE_REMOVED);
+            statement.executeQuery(LOCK_REMOVED).close();
+            int retained = statement.executeUpdate(RETAIN_IN_LIBRARIES);
+            if (retained > 0) {
+                logger.warn("Catalog feed {} no longer lists {} games kept because they are in libraries", file, retained);
+            }
+            statement.executeUpdate(DELETE_REMOVED_GENRES);
+            statement.executeUpdate(DELETE_REMOVED_THEMES);
+            int removed = statement.executeUpdate(DELETE_REMOVED);
+
+            return new CatalogSyncResultDto(records, inserted, updated, removed,
+                    records - inserted - updated - conflicts, conflicts, retained);
+        }
+    }
+
+    private int count(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    private byte[] digest(Path file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+                input.transferTo(OutputStream.nullOutputStream());
+            }
+            return digest.digest();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,7 +1,11 @@
 package io.github.ronaldobertolucci.mygames.service.company;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.company.*;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,6 +19,12 @@ public class CompanyService {
     @Autowired
     private CompanyRepository repository;
 
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<CompanyDto> findByNameContaining(String name, Pageable pageable) {
         Page<Company> companies = repository.findCompaniesByNameContaining(name, pageable);
         return companies.map(CompanyDto::new);
@@ -44,6 +54,7 @@ public class CompanyService {
     public CompanyDto save(SaveCompanyDto dto) {
         Company company = new Company(dto);
         repository.save(company);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.COMPANY, company.getId(), company.getName()));
         return new CompanyDto(company);
     }
 
@@ -51,13 +62,19 @@ public class CompanyService {
     public CompanyDto update(UpdateCompanyDto dto) {
         Company company = repository.getReferenceById(dto.id());
         company.update(dto);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.COMPANY, company.getId(), company.getName()));
         return new CompanyDto(company);
     }
 
     @Transactional
     public void delete(Long id) {
         Company company = repository.getReferenceById(id);
+        // Os jogos saem em cascata pelo banco; os ids são lidos antes para que os índices em
+        // memória removam cada um, em vez de recarregar o catálogo inteiro
+        List<Long> gameIds = gameRepository.findIdsByCompanyId(id);
         repository.delete(company);
+        gameIds.forEach(gameId -> eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.GAME, gameId)));
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.COMPANY, id));
     }
 
 }
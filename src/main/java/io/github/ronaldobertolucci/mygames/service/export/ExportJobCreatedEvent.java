@@ -0,0 +1,4 @@
+package io.github.ronaldobertolucci.mygames.service.export;
+
+public record ExportJobCreatedEvent(Long id) {
+}
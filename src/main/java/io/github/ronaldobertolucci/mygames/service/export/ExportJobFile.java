@@ -0,0 +1,11 @@
+package io.github.ronaldobertolucci.mygames.service.export;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+
+import java.nio.file.Path;
+
+/**
+ * Arquivo gzip gerado por uma exportação.
+ */
+public record ExportJobFile(ExportFormat format, Path file) {
+}
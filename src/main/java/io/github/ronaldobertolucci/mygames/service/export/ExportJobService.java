@@ -0,0 +1,513 @@
+package io.github.ronaldobertolucci.mygames.service.export;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvWriter;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.export.*;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.postgresql.PGConnection;
+import org.postgresql.largeobject.LargeObject;
+import org.postgresql.largeobject.LargeObjectManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportações completas de my_games com os dados de catálogo, para análise.
+ * <p>
+ * O pedido só grava o job na fila (export_jobs). Os workers, num pool limitado, pegam jobs com
+ * {@code FOR UPDATE SKIP LOCKED}, então várias instâncias podem consumir a mesma fila sem pegar
+ * o mesmo job. Cada job lê my_games por um cursor numa transação somente leitura e grava o
+ * arquivo NDJSON ou CSV comprimido com gzip no disco, publicando o andamento na tabela.
+ * <p>
+ * Ao concluir, o arquivo é copiado para um large object do banco (file_oid) na mesma transação
+ * que marca o job como concluído. O diretório local é só cache: o download numa instância que
+ * não gerou o arquivo o baixa do banco para o diretório antes de enviá-lo.
+ * <p>
+ * O heartbeat é renovado por agendamento, independente do ritmo da leitura. Cada job pego
+ * recebe um token, conferido em toda gravação: se o heartbeat atrasar e outra instância retomar
+ * o job, a primeira para sem sobrescrever andamento, arquivo ou resultado.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    // Linhas entre duas gravações de andamento
+    private static final int PROGRESS_INTERVAL = 5000;
+
+    // Job RUNNING sem heartbeat há mais tempo que isso é de uma instância que caiu
+    private static final Duration STALE_AFTER = Duration.ofMinutes(5);
+
+    // Bem abaixo de STALE_AFTER: algumas renovações podem falhar sem o job ser retomado
+    private static final long HEARTBEAT_SECONDS = 60;
+
+    private static final List<String> CSV_HEADER = List.of("id", "user_id", "username", "game_id", "title",
+            "released_at", "company", "genres", "themes", "platform", "store", "status", "created_at", "updated_at");
+
+    private static final String CLAIM = """
+            UPDATE export_jobs
+            SET state = 'RUNNING', started_at = now(), heartbeat_at = now(), rows_written = 0, error = NULL,
+                claim_token = ?
+            WHERE id = (
+                SELECT id FROM export_jobs
+                WHERE state = 'QUEUED' OR (state = 'RUNNING' AND heartbeat_at < now() - make_interval(secs => ?))
+                ORDER BY id
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, format""";
+
+    private static final String HEARTBEAT = """
+            UPDATE export_jobs SET heartbeat_at = now() WHERE id = ? AND claim_token = ? AND state = 'RUNNING'""";
+
+    private static final String PROGRESS = """
+            UPDATE export_jobs SET rows_written = ?, total_rows = ?, heartbeat_at = now()
+            WHERE id = ? AND claim_token = ? AND state = 'RUNNING'""";
+
+    // O large object só é criado se o job ainda for deste token
+    private static final String COMPLETE = """
+            UPDATE export_jobs SET state = 'COMPLETED', rows_written = ?, file_name = ?, file_oid = lo_create(0),
+                finished_at = now()
+            WHERE id = ? AND claim_token = ? AND state = 'RUNNING'
+            RETURNING file_oid""";
+
+    private static final String FAIL = """
+            UPDATE export_jobs SET state = 'FAILED', error = ?, finished_at = now()
+            WHERE id = ? AND claim_token = ? AND state = 'RUNNING'""";
+
+    private static final String EXPIRE = """
+            UPDATE export_jobs SET state = 'EXPIRED'
+            WHERE state = 'COMPLETED' AND finished_at < now() - make_interval(hours => ?)
+            RETURNING file_oid""";
+
+    private static final String FIND_FILE_OID = "SELECT file_oid FROM export_jobs WHERE id = ?";
+
+    private static final String CACHED_FILE = "export-\\d+\\..+\\.gz";
+
+    // Arquivos em cache de jobs que não expiraram; os demais (expirados ou removidos) são apagados
+    private static final String KEPT_FILES = """
+            SELECT file_name FROM export_jobs WHERE file_name = ANY(?) AND state <> 'EXPIRED'""";
+
+    // Ordem da chave primária: o cursor percorre o índice sem ordenar a tabela
+    private static final String SELECT_ROWS = """
+            SELECT m.id, m.user_id, u.username, g.id AS game_id, g.title, g.released_at, c.name AS company,
+                   ARRAY(SELECT ge.name FROM game_genre gg JOIN genres ge ON ge.id = gg.genre_id
+                         WHERE gg.game_id = g.id ORDER BY ge.name) AS genres,
+                   ARRAY(SELECT t.name FROM game_theme gt JOIN themes t ON t.id = gt.theme_id
+                         WHERE gt.game_id = g.id ORDER BY t.name) AS themes,
+                   p.name AS platform, s.name AS store, m.status, m.created_at, m.updated_at
+            FROM my_games m
+            JOIN users u ON u.id = m.user_id
+            JOIN games g ON g.id = m.game_id
+            LEFT JOIN companies c ON c.id = g.company_id
+            JOIN platforms p ON p.id = m.platform_id
+            JOIN sources s ON s.id = m.source_id
+            ORDER BY m.id""";
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${export.jobs.dir}")
+    private Path dir;
+
+    @Value("${export.jobs.workers:2}")
+    private int workers;
+
+    @Value("${export.jobs.retention-hours:72}")
+    private int retentionHours;
+
+    private ThreadPoolExecutor executor;
+
+    // Jobs em execução nesta instância, para a renovação do heartbeat
+    private final Map<Long, Claim> claims = new ConcurrentHashMap<>();
+
+    // Andamento e conclusão precisam ficar visíveis enquanto a transação de leitura segue aberta
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Fila do tamanho do pool: disparos além disso são descartados, já que cada worker
+        // consome a fila até esvaziá-la
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workers), new ThreadPoolExecutor.DiscardPolicy());
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public ExportJobDto create(ExportFormat format, String username) {
+        ExportJob job = exportJobRepository.save(new ExportJob(format, username));
+        eventPublisher.publishEvent(new ExportJobCreatedEvent(job.getId()));
+        return new ExportJobDto(job);
+    }
+
+    @Transactional(readOnly = true)
+    public ExportJobDto status(Long id) {
+        return new ExportJobDto(find(id));
+    }
+
+    /**
+     * Arquivo gerado pelo job, que precisa estar concluído.
+     */
+    @Transactional(readOnly = true)
+    public ExportJobFile file(Long id) {
+        ExportJob job = find(id);
+        if (job.getState() != ExportJobState.COMPLETED) {
+            throw new UnprocessableEntity("Export job " + id + " is " + job.getState());
+        }
+
+        Path file = dir.resolve(job.getFileName());
+        if (!Files.exists(file)) {
+            download(id, file);
+        }
+        return new ExportJobFile(job.getFormat(), file);
+    }
+
+    // Gerado em outra instância (ou cache apagado): o arquivo vem do large object do job.
+    // Dois downloads ao mesmo tempo gravam o mesmo conteúdo; vale o último a mover
+    private void download(Long id, Path file) {
+        Long oid = jdbcTemplate.queryForObject(FIND_FILE_OID, Long.class, id);
+        if (oid == null) {
+            throw new EntityNotFoundException("Export file for job " + id + " is not available");
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Path temp = null;
+            try (LargeObject object = connection.unwrap(PGConnection.class).getLargeObjectAPI()
+                    .open(oid, LargeObjectManager.READ)) {
+                Files.createDirectories(dir);
+                temp = Files.createTempFile(dir, "export-" + id + "-", ".tmp");
+                try (InputStream input = object.getInputStream()) {
+                    Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                deleteQuietly(temp);
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreated(ExportJobCreatedEvent event) {
+        dispatch();
+    }
+
+    // Recolhe jobs criados em outras instâncias ou abandonados, e expira arquivos antigos
+    @Scheduled(fixedDelayString = "${export.jobs.poll-delay:PT1M}", initialDelayString = "${export.jobs.poll-delay:PT1M}")
+    public void poll() {
+        expire();
+        dispatch();
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_SECONDS, initialDelay = HEARTBEAT_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (Claim claim : claims.values()) {
+            try {
+                if (!update(HEARTBEAT, claim.id(), claim.token())) {
+                    claim.lost().set(true);
+                }
+            } catch (RuntimeException ex) {
+                // A próxima renovação tenta de novo; só o token decide se o job foi perdido
+                logger.warn("Could not renew heartbeat of export job {}", claim.id(), ex);
+            }
+        }
+    }
+
+    private void dispatch() {
+        executor.execute(() -> {
+            try {
+                while (runNext()) {
+                    // Consome a fila até não haver job disponível
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Export worker failed", ex);
+            }
+        });
+    }
+
+    /**
+     * Pega o próximo job da fila e o executa na thread atual. Devolve {@code false} se não
+     * havia job disponível.
+     */
+    public boolean runNext() {
+        UUID token = UUID.randomUUID();
+        List<Map<String, Object>> claimed = writeTransaction.execute(status ->
+                jdbcTemplate.queryForList(CLAIM, token, STALE_AFTER.toSeconds()));
+        if (claimed.isEmpty()) {
+            return false;
+        }
+
+        Claim claim = new Claim(((Number) claimed.getFirst().get("id")).longValue(), token, new AtomicBoolean());
+        claims.put(claim.id(), claim);
+        try {
+            run(claim, ExportFormat.valueOf((String) claimed.getFirst().get("format")));
+        } finally {
+            claims.remove(claim.id(), claim);
+        }
+        return true;
+    }
+
+    private void run(Claim claim, ExportFormat format) {
+        long id = claim.id();
+        Path target = dir.resolve("export-" + id + format.getExtension() + ".gz");
+        Path temp = null;
+        try {
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, "export-" + id + "-", ".tmp");
+            long rows;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                rows = write(claim, format, writer);
+            }
+
+            // O arquivo só vai para o banco e substitui o destino se o job ainda for desta instância,
+            // na mesma transação
+            Path file = temp;
+            boolean completed = writeTransaction.execute(status -> {
+                List<Long> oid = jdbcTemplate.queryForList(COMPLETE, Long.class, rows, target.getFileName().toString(),
+                        id, claim.token());
+                if (oid.isEmpty()) {
+                    return false;
+                }
+                store(oid.getFirst(), file);
+                try {
+                    Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return true;
+            });
+            if (!completed) {
+                throw new ClaimLostException();
+            }
+            logger.info("Export job {}: {} rows written to {}", id, rows, target);
+        } catch (ClaimLostException ex) {
+            logger.warn("Export job {} was taken over by another worker; discarding this run", id);
+            deleteQuietly(temp);
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Export job {} failed", id, ex);
+            deleteQuietly(temp);
+            update(FAIL, String.valueOf(ex.getMessage()), id, claim.token());
+        }
+    }
+
+    // Contagem e linhas vêm do mesmo snapshot (REPEATABLE READ), então o total bate com o arquivo
+    private long write(Claim claim, ExportFormat format, Writer writer) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return transaction.execute(status -> {
+            long total = jdbcTemplate.queryForObject("SELECT count(*) FROM my_games", Long.class);
+            progress(claim, 0, total);
+
+            RowWriter rows = rowWriter(format, writer);
+            long[] written = {0};
+            PreparedStatementCreator creator = connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ROWS);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            };
+            jdbcTemplate.query(creator, rs -> {
+                if (claim.lost().get()) {
+                    throw new ClaimLostException();
+                }
+                rows.write(row(rs));
+                if (++written[0] % PROGRESS_INTERVAL == 0) {
+                    progress(claim, written[0], total);
+                }
+            });
+            return written[0];
+        });
+    }
+
+    private RowWriter rowWriter(ExportFormat format, Writer writer) {
+        return switch (format) {
+            case NDJSON -> row -> {
+                try {
+                    writer.write(jsonMapper.writeValueAsString(row));
+                    writer.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            };
+            case CSV -> {
+                CsvWriter csv = new CsvWriter(writer);
+                writeCsv(csv, CSV_HEADER);
+                yield row -> writeCsv(csv, Arrays.asList(row.id(), row.userId(), row.username(), row.gameId(),
+                        row.title(), row.releasedAt(), row.company(), String.join("|", row.genres()),
+                        String.join("|", row.themes()), row.platform(), row.store(), row.status(),
+                        row.createdAt(), row.updatedAt()));
+            }
+        };
+    }
+
+    private void writeCsv(CsvWriter csv, List<?> fields) {
+        try {
+            csv.writeRow(fields);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ExportRowDto row(ResultSet rs) throws SQLException {
+        Date releasedAt = rs.getDate("released_at");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new ExportRowDto(rs.getLong("id"), rs.getLong("user_id"), rs.getString("username"),
+                rs.getLong("game_id"), rs.getString("title"), releasedAt == null ? null : releasedAt.toLocalDate(),
+                rs.getString("company"), names(rs.getArray("genres")), names(rs.getArray("themes")),
+                rs.getString("platform"), rs.getString("store"), Status.valueOf(rs.getString("status")),
+                createdAt == null ? null : createdAt.toInstant(), updatedAt == null ? null : updatedAt.toInstant());
+    }
+
+    private List<String> names(Array array) throws SQLException {
+        return List.of((String[]) array.getArray());
+    }
+
+    private void store(long oid, Path file) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (LargeObject object = connection.unwrap(PGConnection.class).getLargeObjectAPI()
+                    .open(oid, LargeObjectManager.WRITE);
+                 OutputStream output = object.getOutputStream()) {
+                Files.copy(file, output);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
+    }
+
+    // Os large objects são apagados por quem expira os jobs; o cache local, por cada instância
+    private void expire() {
+        writeTransaction.executeWithoutResult(status -> {
+            for (Long oid : jdbcTemplate.queryForList(EXPIRE, Long.class, retentionHours)) {
+                if (oid != null) {
+                    jdbcTemplate.queryForObject("SELECT lo_unlink(?::oid)", Integer.class, oid);
+                }
+            }
+        });
+
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> cached;
+        try (Stream<Path> files = Files.list(dir)) {
+            cached = files.filter(file -> file.getFileName().toString().matches(CACHED_FILE)).toList();
+        } catch (IOException ex) {
+            logger.warn("Could not list export directory {}", dir, ex);
+            return;
+        }
+
+        // Listados antes da consulta: um arquivo que acabou de ser gerado tem job RUNNING ou COMPLETED
+        Set<String> kept = Set.copyOf(jdbcTemplate.queryForList(KEPT_FILES, String.class,
+                new SqlArrayValue("varchar", cached.stream().map(file -> file.getFileName().toString()).toArray())));
+        for (Path file : cached) {
+            if (!kept.contains(file.getFileName().toString())) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void progress(Claim claim, long written, long total) {
+        if (!update(PROGRESS, written, total, claim.id(), claim.token())) {
+            throw new ClaimLostException();
+        }
+    }
+
+    // Devolve false se nenhuma linha foi alterada: o job não está mais com o token informado
+    private boolean update(String sql, Object... args) {
+        return writeTransaction.execute(status -> jdbcTemplate.update(sql, args)) > 0;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Could not delete export file {}", file, ex);
+        }
+    }
+
+    private ExportJob find(Long id) {
+        return exportJobRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Export job " + id + " not found"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Claim(long id, UUID token, AtomicBoolean lost) {
+    }
+
+    // O job passou para outra instância: não há o que gravar como falha
+    private static class ClaimLostException extends RuntimeException {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ExportRowDto row);
+    }
+}
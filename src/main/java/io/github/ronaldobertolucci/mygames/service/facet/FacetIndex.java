@@ -0,0 +1,282 @@
+package io.github.ronaldobertolucci.mygames.service.facet;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.facet.GameFacetFilter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps comprimidos de ids de jogos por gênero, tema, companhia e ano de lançamento.
+ * <p>
+ * Valores da mesma faceta são combinados com OU e facetas diferentes com E. A contagem de
+ * cada faceta ignora o filtro da própria faceta, para que o cliente veja quantos jogos
+ * ganharia ao marcar outro valor.
+ */
+class FacetIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> genres = new HashMap<>();
+    private final Map<Long, RoaringBitmap> themes = new HashMap<>();
+    private final Map<Long, RoaringBitmap> companies = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> years = new TreeMap<>();
+
+    // Facetas atuais de cada jogo, para retirá-lo dos bitmaps antigos quando ele muda
+    private final Map<Integer, GameFacets> gamesById = new HashMap<>();
+
+    record GameFacets(Long companyId, Set<Long> genreIds, Set<Long> themeIds, Integer year) {
+
+        static GameFacets of(Long companyId, Set<Long> genreIds, Set<Long> themeIds, LocalDate releasedAt) {
+            return new GameFacets(companyId, Set.copyOf(genreIds), Set.copyOf(themeIds),
+                    releasedAt == null ? null : releasedAt.getYear());
+        }
+    }
+
+    record Result(List<Long> ids,
+                  int total,
+                  Map<Long, Integer> genreCounts,
+                  Map<Long, Integer> themeCounts,
+                  Map<Long, Integer> companyCounts,
+                  Map<Integer, Integer> yearCounts) {
+    }
+
+    void put(Long id, GameFacets facets) {
+        lock.writeLock().lock();
+        try {
+            int game = toGame(id);
+            removeGame(game);
+            addGame(game, facets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Associa ou desassocia os gêneros/temas de todos os jogos informados que estão no índice.
+     */
+    void link(CatalogType type, Set<Long> gameIds, Set<Long> linkedIds, boolean linked) {
+        lock.writeLock().lock();
+        try {
+            for (Long gameId : gameIds) {
+                int game = toGame(gameId);
+                GameFacets current = gamesById.get(game);
+                if (current == null) {
+                    continue;
+                }
+
+                Set<Long> genreIds = new HashSet<>(current.genreIds());
+                Set<Long> themeIds = new HashSet<>(current.themeIds());
+                Set<Long> changed = type == CatalogType.GENRE ? genreIds : themeIds;
+                if (linked) {
+                    changed.addAll(linkedIds);
+                } else {
+                    changed.removeAll(linkedIds);
+                }
+
+                removeGame(game);
+                addGame(game, new GameFacets(current.companyId(), Set.copyOf(genreIds), Set.copyOf(themeIds), current.year()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeGame(toGame(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Associações com o gênero/tema são apagadas em cascata pelo banco. O id também sai das facetas
+    // guardadas de cada jogo: senão o próximo link do jogo recriaria o bitmap do gênero apagado
+    void removeGenre(Long genreId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap games = genres.remove(genreId);
+            if (games != null) {
+                games.forEach((int game) -> gamesById.computeIfPresent(game, (ignored, facets) -> new GameFacets(
+                        facets.companyId(), without(facets.genreIds(), genreId), facets.themeIds(), facets.year())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeTheme(Long themeId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap games = themes.remove(themeId);
+            if (games != null) {
+                games.forEach((int game) -> gamesById.computeIfPresent(game, (ignored, facets) -> new GameFacets(
+                        facets.companyId(), facets.genreIds(), without(facets.themeIds(), themeId), facets.year())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Jogos da companhia são apagados em cascata pelo banco
+    void removeCompany(Long companyId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap games = companies.get(companyId);
+            if (games != null) {
+                games.clone().forEach((int game) -> removeGame(game));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Result query(GameFacetFilter filter, long offset, int size) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap genreMatch = union(genres, filter.getGenreIds());
+            RoaringBitmap themeMatch = union(themes, filter.getThemeIds());
+            RoaringBitmap companyMatch = union(companies, filter.getCompanyIds());
+            RoaringBitmap yearMatch = yearRange(filter.getYearFrom(), filter.getYearTo());
+
+            RoaringBitmap matched = intersect(genreMatch, themeMatch, companyMatch, yearMatch);
+            return new Result(
+                    page(matched, offset, size),
+                    matched.getCardinality(),
+                    counts(genres, intersect(themeMatch, companyMatch, yearMatch)),
+                    counts(themes, intersect(genreMatch, companyMatch, yearMatch)),
+                    counts(companies, intersect(genreMatch, themeMatch, yearMatch)),
+                    counts(years, intersect(genreMatch, themeMatch, companyMatch)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addGame(int game, GameFacets facets) {
+        all.add(game);
+        gamesById.put(game, facets);
+        add(companies, facets.companyId(), game);
+        facets.genreIds().forEach(genreId -> add(genres, genreId, game));
+        facets.themeIds().forEach(themeId -> add(themes, themeId, game));
+        if (facets.year() != null) {
+            add(years, facets.year(), game);
+        }
+    }
+
+    private void removeGame(int game) {
+        GameFacets previous = gamesById.remove(game);
+        if (previous == null) {
+            return;
+        }
+
+        all.remove(game);
+        remove(companies, previous.companyId(), game);
+        previous.genreIds().forEach(genreId -> remove(genres, genreId, game));
+        previous.themeIds().forEach(themeId -> remove(themes, themeId, game));
+        if (previous.year() != null) {
+            remove(years, previous.year(), game);
+        }
+    }
+
+    private RoaringBitmap union(Map<Long, RoaringBitmap> bitmaps, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+
+        RoaringBitmap[] selected = ids.stream()
+                .map(id -> bitmaps.getOrDefault(id, new RoaringBitmap()))
+                .toArray(RoaringBitmap[]::new);
+        return FastAggregation.or(selected);
+    }
+
+    private RoaringBitmap yearRange(Integer from, Integer to) {
+        if (from == null && to == null) {
+            return null;
+        }
+
+        int first = from == null ? Integer.MIN_VALUE : from;
+        int last = to == null ? Integer.MAX_VALUE : to;
+        if (first > last) {
+            return new RoaringBitmap();
+        }
+        return FastAggregation.or(years.subMap(first, true, last, true).values().iterator());
+    }
+
+    // Filtros ausentes (null) não restringem o resultado
+    private RoaringBitmap intersect(RoaringBitmap... filters) {
+        RoaringBitmap result = all.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private <K> Map<K, Integer> counts(Map<K, RoaringBitmap> bitmaps, RoaringBitmap base) {
+        Map<K, Integer> counts = new HashMap<>();
+        bitmaps.forEach((key, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(base, bitmap);
+            if (count > 0) {
+                counts.put(key, count);
+            }
+        });
+        return counts;
+    }
+
+    private List<Long> page(RoaringBitmap matched, long offset, int size) {
+        if (offset >= matched.getCardinality()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(size);
+        PeekableIntIterator iterator = matched.getIntIterator();
+        iterator.advanceIfNeeded(matched.select((int) offset));
+        while (iterator.hasNext() && ids.size() < size) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    private static <K> void add(Map<K, RoaringBitmap> bitmaps, K key, int game) {
+        bitmaps.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(game);
+    }
+
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int game) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            return;
+        }
+
+        bitmap.remove(game);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private static Set<Long> without(Set<Long> ids, Long id) {
+        Set<Long> remaining = new HashSet<>(ids);
+        remaining.remove(id);
+        return Set.copyOf(remaining);
+    }
+
+    // Bitmaps guardam inteiros; ids de jogos estão longe de passar de 2^31
+    private static int toGame(Long id) {
+        return Math.toIntExact(id);
+    }
+}
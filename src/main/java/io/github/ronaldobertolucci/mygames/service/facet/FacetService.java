@@ -0,0 +1,162 @@
+package io.github.ronaldobertolucci.mygames.service.facet;
+
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.facet.*;
+import io.github.ronaldobertolucci.mygames.model.game.*;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameLinksChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Filtro do catálogo por gênero, tema, companhia e ano, com as contagens de cada faceta.
+ * Os filtros são resolvidos em memória; o banco só é consultado para montar a página e os nomes.
+ */
+@Service
+public class FacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetService.class);
+
+    // Quantidade máxima de valores devolvidos por faceta, dos mais frequentes para os menos
+    private static final int FACET_LIMIT = 50;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    // Trocado inteiro pela carga; carga e eventos usam o mesmo monitor, então um evento que chega
+    // durante a carga é aplicado ao índice novo e não se perde com o antigo
+    private volatile FacetIndex index = new FacetIndex();
+
+    /**
+     * Jogos que atendem ao filtro, em ordem de id, com as contagens por faceta.
+     */
+    @Transactional(readOnly = true)
+    public FacetedGamesDto search(GameFacetFilter filter, Pageable pageable) {
+        Pageable byId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        FacetIndex.Result result = index.query(filter, byId.getOffset(), byId.getPageSize());
+
+        Map<Long, Game> games = gameRepository.findByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        List<GameDto> content = result.ids().stream()
+                .map(games::get)
+                .filter(Objects::nonNull)
+                .map(GameDto::new)
+                .toList();
+        Page<GameDto> page = new PageImpl<>(content, byId, result.total());
+
+        FacetsDto facets = new FacetsDto(
+                counts(result.genreCounts(), genreRepository::findAllById, Genre::getId, Genre::getName),
+                counts(result.themeCounts(), themeRepository::findAllById, Theme::getId, Theme::getName),
+                counts(result.companyCounts(), companyRepository::findAllById, Company::getId, Company::getName),
+                result.yearCounts().entrySet().stream()
+                        .map(year -> new YearCountDto(year.getKey(), year.getValue()))
+                        .sorted(Comparator.comparingInt(YearCountDto::year))
+                        .toList());
+        return new FacetedGamesDto(page, facets);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Map<Long, Set<Long>> genreIds = groupByGame(gameRepository.findAllGenreRows());
+        Map<Long, Set<Long>> themeIds = groupByGame(gameRepository.findAllThemeRows());
+
+        FacetIndex games = new FacetIndex();
+        for (GameFacetRow row : gameRepository.findAllFacetRows()) {
+            games.put(row.id(), FacetIndex.GameFacets.of(
+                    row.companyId(),
+                    genreIds.getOrDefault(row.id(), Set.of()),
+                    themeIds.getOrDefault(row.id(), Set.of()),
+                    row.releasedAt()));
+        }
+        index = games;
+        logger.info("Facet index loaded with {} games", games.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGameChanged(GameChangedEvent event) {
+        if (event.isRemoval()) {
+            index.remove(event.id());
+            return;
+        }
+
+        index.put(event.id(), FacetIndex.GameFacets.of(event.companyId(), event.genreIds(), event.themeIds(), event.releasedAt()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGameLinksChanged(GameLinksChangedEvent event) {
+        index.link(event.type(), event.gameIds(), event.linkedIds(), event.linked());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isRemoval()) {
+            return;
+        }
+
+        switch (event.type()) {
+            case GENRE -> index.removeGenre(event.id());
+            case THEME -> index.removeTheme(event.id());
+            case COMPANY -> index.removeCompany(event.id());
+            default -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        load();
+    }
+
+    private <T> List<FacetCountDto> counts(Map<Long, Integer> counts,
+                                           Function<List<Long>, List<T>> findAllById,
+                                           Function<T, Long> idOf,
+                                           Function<T, String> nameOf) {
+        List<Long> top = counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FACET_LIMIT)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        Map<Long, String> names = findAllById.apply(top).stream()
+                .collect(Collectors.toMap(idOf, nameOf));
+        return top.stream()
+                .filter(names::containsKey)
+                .map(id -> new FacetCountDto(id, names.get(id), counts.get(id)))
+                .toList();
+    }
+
+    private Map<Long, Set<Long>> groupByGame(List<GameAssociationRow> rows) {
+        return rows.stream().collect(Collectors.groupingBy(GameAssociationRow::gameId,
+                Collectors.mapping(GameAssociationRow::associationId, Collectors.toSet())));
+    }
+}
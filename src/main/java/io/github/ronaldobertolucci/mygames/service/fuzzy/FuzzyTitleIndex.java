@@ -0,0 +1,393 @@
+package io.github.ronaldobertolucci.mygames.service.fuzzy;
+
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para busca de títulos tolerante a erros de digitação.
+ * <p>
+ * A aproximação é feita sobre o vocabulário (palavras distintas dos títulos), que é bem menor
+ * que o catálogo: um índice de trigramas gera as palavras candidatas e a distância de Levenshtein
+ * limitada confirma cada uma. Os títulos vêm da interseção das listas das palavras encontradas
+ * para cada palavra da busca, somando as distâncias.
+ */
+class FuzzyTitleIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Abaixo disso não compensa reconstruir o índice para descartar títulos removidos
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    // Candidatos da busca por palavras conferidos contra o título inteiro
+    private static final int WHOLE_TITLE_CANDIDATES = 20;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Vocabulário: palavra -> id, trigrama -> palavras, palavra -> títulos
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, IntList> termsByGram = new HashMap<>();
+    private final List<IntList> docsByTerm = new ArrayList<>();
+
+    private final Map<Long, Integer> docsById = new HashMap<>();
+    private long[] ids = new long[16];
+    private String[] keys = new String[16];
+    private String[] titles = new String[16];
+    private int docCount;
+    private int removedCount;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    void put(Long id, String title) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            addDoc(id, title);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<TitleMatch> search(String query, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int maxDistance = maxDistance(key.length());
+        String[] queryTerms = key.split(" ");
+        List<Candidate> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Scratch scratch = this.scratch.get();
+            scratch.ensureCapacity(docCount, terms.size());
+            IntList touched = new IntList();
+
+            for (int position = 0; position < queryTerms.length; position++) {
+                String queryTerm = queryTerms[position];
+                int termDistance = Math.min(maxDistance, maxDistance(queryTerm.length()));
+                for (TermMatch term : matchTerms(queryTerm, termDistance, scratch.termCounts)) {
+                    IntList docs = docsByTerm.get(term.termId());
+                    for (int i = 0; i < docs.size; i++) {
+                        int doc = docs.values[i];
+                        // Termos chegam em ordem de distância: o primeiro encontro é o melhor para esta palavra
+                        if (scratch.matched[doc] != position) {
+                            continue;
+                        }
+                        scratch.matched[doc] = position + 1;
+                        scratch.distances[doc] += term.distance();
+                        if (position == 0) {
+                            touched.add(doc);
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < touched.size; i++) {
+                int doc = touched.values[i];
+                boolean all = scratch.matched[doc] == queryTerms.length;
+                int distance = scratch.distances[doc];
+                scratch.matched[doc] = 0;
+                scratch.distances[doc] = 0;
+                if (all && distance <= maxDistance && keys[doc] != null) {
+                    matches.add(new Candidate(ids[doc], titles[doc], distance, Math.abs(keys[doc].length() - key.length())));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Candidate::distance)
+                        .thenComparingInt(Candidate::lengthDifference)
+                        .thenComparing(Candidate::title)
+                        .thenComparing(Candidate::id))
+                .limit(limit)
+                .map(candidate -> new TitleMatch(candidate.id(), candidate.title(), candidate.distance()))
+                .toList();
+    }
+
+    /**
+     * Títulos a até {@link #maxDistance(int)} edições do texto inteiro, e não só das palavras
+     * buscadas: "portal" não encontra "portal 2". Os números precisam ser os mesmos, já que
+     * continuações ("witcher 2", "witcher 3") ficam a uma edição umas das outras.
+     */
+    List<TitleMatch> searchWholeTitle(String query, int limit) {
+        String key = normalize(query);
+        int maxDistance = maxDistance(key.length());
+        List<String> numbers = numbers(key);
+        return search(query, WHOLE_TITLE_CANDIDATES).stream()
+                .map(match -> {
+                    String candidate = normalize(match.title());
+                    int distance = numbers(candidate).equals(numbers) ? levenshtein(key, candidate, maxDistance) : maxDistance + 1;
+                    return new TitleMatch(match.id(), match.title(), distance);
+                })
+                .filter(match -> match.distance() <= maxDistance)
+                .sorted(Comparator.comparingInt(TitleMatch::distance)
+                        .thenComparing(TitleMatch::title)
+                        .thenComparing(TitleMatch::id))
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<String> numbers(String key) {
+        return Arrays.stream(key.split(" "))
+                .filter(term -> !term.isEmpty() && term.chars().allMatch(Character::isDigit))
+                .toList();
+    }
+
+    /**
+     * Palavras do vocabulário a até {@code maxDistance} edições, ordenadas pela distância.
+     * Cada edição altera no máximo três trigramas, então palavras que compartilham menos
+     * trigramas que isso com a busca nem chegam a ser comparadas.
+     */
+    private List<TermMatch> matchTerms(String queryTerm, int maxDistance, int[] counts) {
+        Integer exact = termIds.get(queryTerm);
+        if (maxDistance == 0) {
+            return exact == null ? List.of() : List.of(new TermMatch(exact, 0));
+        }
+
+        Set<String> grams = grams(queryTerm);
+        int threshold = Math.max(1, grams.size() - GRAM * maxDistance);
+        IntList touched = new IntList();
+        for (String gram : grams) {
+            IntList termsWithGram = termsByGram.get(gram);
+            if (termsWithGram == null) {
+                continue;
+            }
+            for (int i = 0; i < termsWithGram.size; i++) {
+                int term = termsWithGram.values[i];
+                if (counts[term]++ == 0) {
+                    touched.add(term);
+                }
+            }
+        }
+
+        List<TermMatch> matches = new ArrayList<>();
+        for (int i = 0; i < touched.size; i++) {
+            int term = touched.values[i];
+            int shared = counts[term];
+            counts[term] = 0;
+            if (shared < threshold) {
+                continue;
+            }
+
+            int distance = levenshtein(queryTerm, terms.get(term), maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new TermMatch(term, distance));
+            }
+        }
+        matches.sort(Comparator.comparingInt(TermMatch::distance));
+        return matches;
+    }
+
+    /**
+     * Distância tolerada conforme o tamanho do texto, como o modo AUTO do Lucene:
+     * textos curtos demais ficam sem tolerância para não casar com metade do catálogo.
+     */
+    static int maxDistance(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        return SEPARATORS.matcher(Game.toTitleKey(title)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Levenshtein restrito à faixa diagonal de largura {@code max}; devolve {@code max + 1}
+     * assim que a distância passa do limite.
+     */
+    static int levenshtein(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+
+        int over = max + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j <= max ? j : over;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[0] = i <= max ? i : over;
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+
+            int rowMin = current[0];
+            char c = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], over);
+    }
+
+    static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        String padded = " " + term + " ";
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private void addDoc(Long id, String title) {
+        String key = normalize(title);
+        if (docCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+        }
+
+        int doc = docCount++;
+        ids[doc] = id;
+        keys[doc] = key;
+        titles[doc] = title;
+        docsById.put(id, doc);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        for (String term : new HashSet<>(Arrays.asList(key.split(" ")))) {
+            docsByTerm.get(termId(term)).add(doc);
+        }
+    }
+
+    private int termId(String term) {
+        Integer existing = termIds.get(term);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = terms.size();
+        terms.add(term);
+        termIds.put(term, id);
+        docsByTerm.add(new IntList());
+        for (String gram : grams(term)) {
+            termsByGram.computeIfAbsent(gram, ignored -> new IntList()).add(id);
+        }
+        return id;
+    }
+
+    // As listas de títulos continuam apontando para o documento até a próxima compactação
+    private void removeDoc(Long id) {
+        Integer doc = docsById.remove(id);
+        if (doc != null) {
+            keys[doc] = null;
+            titles[doc] = null;
+            removedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (removedCount < COMPACT_THRESHOLD || removedCount < docCount / 2) {
+            return;
+        }
+
+        long[] liveIds = ids;
+        String[] liveTitles = titles;
+        int count = docCount;
+
+        termIds.clear();
+        terms.clear();
+        termsByGram.clear();
+        docsByTerm.clear();
+        docsById.clear();
+        ids = new long[Math.max(16, count - removedCount)];
+        keys = new String[ids.length];
+        titles = new String[ids.length];
+        docCount = 0;
+        removedCount = 0;
+        for (int doc = 0; doc < count; doc++) {
+            if (liveTitles[doc] != null) {
+                addDoc(liveIds[doc], liveTitles[doc]);
+            }
+        }
+    }
+
+    private record TermMatch(int termId, int distance) {
+    }
+
+    private record Candidate(Long id, String title, int distance, int lengthDifference) {
+    }
+
+    // Contadores reaproveitados entre buscas da mesma thread; zerados ao fim de cada busca
+    private static class Scratch {
+        private int[] matched = new int[0];
+        private int[] distances = new int[0];
+        private int[] termCounts = new int[0];
+
+        void ensureCapacity(int docs, int terms) {
+            if (matched.length < docs) {
+                int capacity = Math.max(docs, matched.length * 2);
+                matched = Arrays.copyOf(matched, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+            }
+            if (termCounts.length < terms) {
+                termCounts = Arrays.copyOf(termCounts, Math.max(terms, termCounts.length * 2));
+            }
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.ronaldobertolucci.mygames.service.fuzzy;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Busca aproximada de títulos em memória, para que erros de digitação não caiam em
+ * varreduras de similaridade no banco. Mantida pelos mesmos eventos do autocompletar, e, como
+ * lá, carga e eventos usam o mesmo monitor para que nenhum evento se perca durante a carga.
+ */
+@Service
+public class FuzzyTitleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuzzyTitleService.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private volatile FuzzyTitleIndex index = new FuzzyTitleIndex();
+
+    public List<TitleMatch> match(String title, int limit) {
+        return index.search(title, limit);
+    }
+
+    /**
+     * Como {@link #match(String, int)}, mas a distância é a do título inteiro: palavras a mais
+     * no catálogo contam como edições, e títulos com números diferentes não se aproximam.
+     */
+    public List<TitleMatch> matchWholeTitle(String title, int limit) {
+        return index.searchWholeTitle(title, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        FuzzyTitleIndex games = new FuzzyTitleIndex();
+        gameRepository.findAllTitles().forEach(game -> games.put(game.id(), game.title()));
+        index = games;
+        logger.info("Fuzzy title index loaded with {} games", games.size());
+    }
+
+    // Jogos de uma companhia excluída chegam como exclusões de jogo
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() != CatalogType.GAME) {
+            return;
+        }
+
+        if (event.isRemoval()) {
+            index.remove(event.id());
+        } else {
+            index.put(event.id(), event.name());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        load();
+    }
+}
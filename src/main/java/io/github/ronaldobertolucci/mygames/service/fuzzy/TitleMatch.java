@@ -0,0 +1,7 @@
+package io.github.ronaldobertolucci.mygames.service.fuzzy;
+
+/**
+ * Título do catálogo próximo ao texto buscado, com a distância de edição encontrada.
+ */
+public record TitleMatch(Long id, String title, int distance) {
+}
@@ -0,0 +1,33 @@
+package io.github.ronaldobertolucci.mygames.service.game;
+
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publicado pelo {@link GameService} sempre que um jogo ou suas associações mudam.
+ * Em exclusões apenas o id é preenchido.
+ */
+public record GameChangedEvent(Long id, Long companyId, Set<Long> genreIds, Set<Long> themeIds, LocalDate releasedAt) {
+
+    public static GameChangedEvent of(Game game) {
+        return new GameChangedEvent(
+                game.getId(),
+                game.getCompany().getId(),
+                game.getGenres().stream().map(Genre::getId).collect(Collectors.toUnmodifiableSet()),
+                game.getThemes().stream().map(Theme::getId).collect(Collectors.toUnmodifiableSet()),
+                game.getReleasedAt());
+    }
+
+    public static GameChangedEvent removed(Long id) {
+        return new GameChangedEvent(id, null, Set.of(), Set.of(), null);
+    }
+
+    public boolean isRemoval() {
+        return companyId == null;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.ronaldobertolucci.mygames.service.game;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+
+import java.util.Set;
+
+/**
+ * Publicado quando gêneros ({@link CatalogType#GENRE}) ou temas ({@link CatalogType#THEME})
+ * são associados ou desassociados de jogos sem passar pela entidade {@code Game}.
+ * Vale para todos os pares de {@code gameIds} × {@code linkedIds}.
+ */
+public record GameLinksChangedEvent(CatalogType type, Set<Long> gameIds, Set<Long> linkedIds, boolean linked) {
+
+    public static GameLinksChangedEvent linked(CatalogType type, Long gameId, Long linkedId) {
+        return new GameLinksChangedEvent(type, Set.of(gameId), Set.of(linkedId), true);
+    }
+
+    public static GameLinksChangedEvent unlinked(CatalogType type, Long gameId, Long linkedId) {
+        return new GameLinksChangedEvent(type, Set.of(gameId), Set.of(linkedId), false);
+    }
+}
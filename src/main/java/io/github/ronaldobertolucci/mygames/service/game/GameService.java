@@ -1,27 +1,51 @@
 package io.github.ronaldobertolucci.mygames.service.game;
 
 import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.company.Company;
 import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
 import io.github.ronaldobertolucci.mygames.model.game.*;
 import io.github.ronaldobertolucci.mygames.model.genre.Genre;
 import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.pagination.CursorPage;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.theme.Theme;
 import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.FuzzyTitleService;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.TitleMatch;
+import io.github.ronaldobertolucci.mygames.service.pagination.PageCountCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class GameService {
 
+    // Resultados aproximados além disso dificilmente são o jogo procurado
+    private static final int MAX_FUZZY_MATCHES = 100;
+
     @Autowired
     private GameRepository gameRepository;
 
@@ -34,28 +58,95 @@ public class GameService {
     @Autowired
     private ThemeRepository themeRepository;
 
+    @Autowired
+    private FuzzyTitleService fuzzyTitleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PageCountCache pageCountCache;
+
+    @Value("${pagination.count.estimate-games:false}")
+    private boolean estimateTotal;
+
+    @Transactional(readOnly = true)
     public Page<GameDto> findByTitleContaining(String title, Pageable pageable) {
-        Page<Game> games = gameRepository.findGamesByTitleContaining(title, pageable);
+        Page<Game> games = gameRepository.findGamesByTitleKeyContaining(Game.toTitleKey(title), pageable);
         return games.map(GameDto::new);
     }
 
+    @Transactional(readOnly = true)
     public List<GameDto> findByTitleContaining(String title) {
-        List<Game> games = gameRepository.findGamesByTitleContaining(title);
+        List<Game> games = gameRepository.findGamesByTitleKeyContaining(Game.toTitleKey(title));
         return games.stream().map(GameDto::new).toList();
     }
 
+    @Transactional(readOnly = true)
     public Page<GameDto> findAll(Pageable pageable) {
-        Page<Game> games = gameRepository.findAll(pageable);
-        return games.map(GameDto::new);
+        long version = pageCountCache.version(PageCountCache.GAMES);
+        List<GameDto> games = gameRepository.findAllBy(pageable).stream().map(GameDto::new).toList();
+        return PageableExecutionUtils.getPage(games, pageable,
+                () -> pageCountCache.count(PageCountCache.GAMES, null, null, version, this::countAll));
     }
 
+    @Transactional(readOnly = true)
     public List<GameDto> findAll() {
         List<Game> games = gameRepository.findAll();
         return games.stream().map(GameDto::new).toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<GameDto> findByTitleContainingAfter(String title, KeysetCursor cursor, int size) {
+        List<Game> games = gameRepository.findGamesByTitleKeyContainingAfter(Game.toTitleKey(title), cursor.title(), cursor.id(), Limit.of(size + 1));
+        return toCursorPage(games, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<GameDto> findAllAfter(KeysetCursor cursor, int size) {
+        List<Game> games = gameRepository.findGamesAfter(cursor.title(), cursor.id(), Limit.of(size + 1));
+        return toCursorPage(games, size);
+    }
+
+    /**
+     * Busca textual em título e descrição, ordenada por relevância ({@code ts_rank}).
+     */
+    @Transactional(readOnly = true)
+    public Page<GameDto> search(String terms, Pageable pageable) {
+        Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> ids = gameRepository.searchIdsByRelevance(terms, byRelevance);
+
+        Map<Long, Game> games = gameRepository.findByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        return ids.map(id -> new GameDto(games.get(id)));
+    }
+
+    /**
+     * Busca tolerante a erros de digitação, ordenada pela distância de edição até o título.
+     */
+    @Transactional(readOnly = true)
+    public Page<GameDto> findByTitleFuzzy(String title, Pageable pageable) {
+        Pageable byDistance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<TitleMatch> matches = fuzzyTitleService.match(title, MAX_FUZZY_MATCHES);
+        List<Long> ids = matches.stream()
+                .skip(byDistance.getOffset())
+                .limit(byDistance.getPageSize())
+                .map(TitleMatch::id)
+                .toList();
+
+        Map<Long, Game> games = gameRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        List<GameDto> content = ids.stream()
+                .map(games::get)
+                .filter(Objects::nonNull)
+                .map(GameDto::new)
+                .toList();
+        return new PageImpl<>(content, byDistance, matches.size());
+    }
+
+    @Transactional(readOnly = true)
     public GameDto detail(Long id) {
-        Game game = gameRepository.getReferenceById(id);
+        Game game = gameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
         return new GameDto(game);
     }
 
@@ -71,6 +162,7 @@ public class GameService {
         setThemes(dto.themeIds(), game);
 
         gameRepository.save(game);
+        publishSaved(game);
 
         return new GameDto(game);
     }
@@ -85,6 +177,33 @@ public class GameService {
         setCompany(dto.companyId(), game);
         setGenres(dto.genreIds(), game);
         setThemes(dto.themeIds(), game);
+        publishSaved(game);
+
+        return new GameDto(game);
+    }
+
+    @Transactional
+    public GameDto patch(Long id, PatchGameDto dto) {
+        Game game = gameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
+        if (dto.title() != null) {
+            game.setTitle(dto.title());
+        }
+        if (dto.description() != null) {
+            game.setDescription(dto.description());
+        }
+        if (dto.releasedAt() != null) {
+            game.setReleasedAt(dto.releasedAt());
+        }
+        if (dto.companyId() != null) {
+            setCompany(dto.companyId(), game);
+        }
+        if (dto.genreIds() != null) {
+            setGenres(dto.genreIds(), game);
+        }
+        if (dto.themeIds() != null) {
+            setThemes(dto.themeIds(), game);
+        }
+        publishSaved(game);
 
         return new GameDto(game);
     }
@@ -93,86 +212,148 @@ public class GameService {
     public void delete(Long id) {
         Game game = gameRepository.getReferenceById(id);
         gameRepository.delete(game);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.GAME, id));
+        eventPublisher.publishEvent(GameChangedEvent.removed(id));
     }
 
     @Transactional
-    public GameDto addGenre(Long gameId, Long genreId) {
-        Game game = gameRepository.getReferenceById(gameId);
-        Genre genre = genreRepository.getReferenceById(genreId);
-        game.getGenres().add(genre);
-        return new GameDto(game);
+    public void addGenre(Long gameId, Long genreId) {
+        if (gameRepository.addGenre(gameId, genreId) == 0) {
+            requireExists(gameId, genreRepository, genreId);
+        }
+        eventPublisher.publishEvent(GameLinksChangedEvent.linked(CatalogType.GENRE, gameId, genreId));
     }
 
     @Transactional
-    public GameDto removeGenre(Long gameId, Long genreId) {
-        Game game = gameRepository.getReferenceById(gameId);
-        Genre genre = genreRepository.getReferenceById(genreId);
-        game.getGenres().remove(genre);
-        return new GameDto(game);
+    public void removeGenre(Long gameId, Long genreId) {
+        if (gameRepository.removeGenre(gameId, genreId) == 0) {
+            requireExists(gameId, genreRepository, genreId);
+        }
+        eventPublisher.publishEvent(GameLinksChangedEvent.unlinked(CatalogType.GENRE, gameId, genreId));
     }
 
     @Transactional
-    public GameDto addTheme(Long gameId, Long themeId) {
-        Game game = gameRepository.getReferenceById(gameId);
-        Theme theme = themeRepository.getReferenceById(themeId);
-        game.getThemes().add(theme);
-        return new GameDto(game);
+    public void addTheme(Long gameId, Long themeId) {
+        if (gameRepository.addTheme(gameId, themeId) == 0) {
+            requireExists(gameId, themeRepository, themeId);
+        }
+        eventPublisher.publishEvent(GameLinksChangedEvent.linked(CatalogType.THEME, gameId, themeId));
     }
 
     @Transactional
-    public GameDto removeTheme(Long gameId, Long themeId) {
-        Game game = gameRepository.getReferenceById(gameId);
-        Theme theme = themeRepository.getReferenceById(themeId);
-        game.getThemes().remove(theme);
-        return new GameDto(game);
+    public void removeTheme(Long gameId, Long themeId) {
+        if (gameRepository.removeTheme(gameId, themeId) == 0) {
+            requireExists(gameId, themeRepository, themeId);
+        }
+        eventPublisher.publishEvent(GameLinksChangedEvent.unlinked(CatalogType.THEME, gameId, themeId));
     }
 
-    private void setThemes(List<Long> themeIds, Game game) {
-        if (themeIds == null || themeIds.isEmpty()) {
-            game.setThemes(new HashSet<>());
-            return;
-        }
+    @Transactional
+    public BulkLinkResultDto addGenres(BulkGameGenresDto dto) {
+        Set<Long> gameIds = new HashSet<>(dto.gameIds());
+        Set<Long> genreIds = new HashSet<>(dto.genreIds());
+        requireAllGames(gameIds);
+        findAllReferenced(genreRepository, dto.genreIds(), Genre::getId);
 
-        try {
-            Set<Theme> themes = new HashSet<>();
-            for (Long themeId : themeIds) {
-                Theme theme = themeRepository.getReferenceById(themeId);
-                theme.toString(); // força o carregamento
-                themes.add(theme);
-            }
-            game.setThemes(themes);
-        } catch (EntityNotFoundException ex) {
+        int applied = gameRepository.addGenres(gameIds, genreIds);
+        eventPublisher.publishEvent(new GameLinksChangedEvent(CatalogType.GENRE, gameIds, genreIds, true));
+        return BulkLinkResultDto.of(gameIds.size() * genreIds.size(), applied);
+    }
+
+    @Transactional
+    public BulkLinkResultDto addThemes(BulkGameThemesDto dto) {
+        Set<Long> gameIds = new HashSet<>(dto.gameIds());
+        Set<Long> themeIds = new HashSet<>(dto.themeIds());
+        requireAllGames(gameIds);
+        findAllReferenced(themeRepository, dto.themeIds(), Theme::getId);
+
+        int applied = gameRepository.addThemes(gameIds, themeIds);
+        eventPublisher.publishEvent(new GameLinksChangedEvent(CatalogType.THEME, gameIds, themeIds, true));
+        return BulkLinkResultDto.of(gameIds.size() * themeIds.size(), applied);
+    }
+
+    private CursorPage<GameDto> toCursorPage(List<Game> games, int size) {
+        List<GameDto> dtos = games.stream().map(GameDto::new).toList();
+        return CursorPage.of(dtos, size, game -> new KeysetCursor(game.title(), game.id()));
+    }
+
+    private void requireAllGames(Set<Long> gameIds) {
+        if (gameRepository.findExistingIds(gameIds).size() != gameIds.size()) {
             throw new UnprocessableEntity("One or more referenced resources do not exist");
         }
     }
 
-    private void setGenres(List<Long> genreIds, Game game) {
-        if (genreIds == null || genreIds.isEmpty()) {
-            game.setGenres(new HashSet<>());
-            return;
+    // Nenhuma linha alterada: ou a associação já estava como pedida, ou um dos lados não existe
+    private void requireExists(Long gameId, JpaRepository<?, Long> linkedRepository, Long linkedId) {
+        if (!gameRepository.existsById(gameId) || !linkedRepository.existsById(linkedId)) {
+            throw new EntityNotFoundException();
         }
+    }
+
+    // Exclusão de companhia apaga os jogos dela em cascata. Também no rollback, que pode ter sido
+    // precedido de uma contagem com as linhas que não chegaram a existir
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogType.GAME || event.isRemoval() && event.type() == CatalogType.COMPANY) {
+            pageCountCache.invalidate(PageCountCache.GAMES);
+        }
+    }
 
-        try {
-            Set<Genre> genres = new HashSet<>();
-            for (Long genreId : genreIds) {
-                Genre genre = genreRepository.getReferenceById(genreId);
-                genre.toString(); // força o carregamento
-                genres.add(genre);
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCatalogBulkChanged(CatalogBulkChangedEvent event) {
+        pageCountCache.invalidate(PageCountCache.GAMES);
+    }
+
+    private long countAll() {
+        if (estimateTotal) {
+            long estimate = gameRepository.estimateCount();
+            if (estimate >= 0) {
+                return estimate;
             }
-            game.setGenres(genres);
-        } catch (EntityNotFoundException ex) {
-            throw new UnprocessableEntity("One or more referenced resources do not exist");
         }
+        return gameRepository.count();
+    }
+
+    private void publishSaved(Game game) {
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.GAME, game.getId(), game.getTitle()));
+        eventPublisher.publishEvent(GameChangedEvent.of(game));
+    }
+
+    private void setThemes(List<Long> themeIds, Game game) {
+        replaceContents(game.getThemes(), findAllReferenced(themeRepository, themeIds, Theme::getId));
+    }
+
+    private void setGenres(List<Long> genreIds, Game game) {
+        replaceContents(game.getGenres(), findAllReferenced(genreRepository, genreIds, Genre::getId));
+    }
+
+    // Altera a coleção gerenciada em vez de trocá-la, para que o Hibernate grave só as linhas
+    // incluídas ou removidas da tabela de associação em vez de recriá-la inteira
+    private static <T> void replaceContents(Set<T> current, Set<T> desired) {
+        current.retainAll(desired);
+        current.addAll(desired);
     }
 
     private void setCompany(Long companyId, Game game) {
-        try {
-            Company company = companyRepository.getReferenceById(companyId);
-            company.toString(); // força o carregamento
-            game.setCompany(company);
-        } catch (EntityNotFoundException ex) {
+        Company company = companyRepository.findById(companyId)
+                .orElseThrow(() -> new UnprocessableEntity("One or more referenced resources do not exist"));
+        game.setCompany(company);
+    }
+
+    // Uma única consulta por tipo de entidade; ids que não voltaram do banco resultam em 422
+    private <T> Set<T> findAllReferenced(JpaRepository<T, Long> repository, List<Long> ids, Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Long> missing = new HashSet<>(ids);
+        List<T> found = repository.findAllById(missing);
+        found.stream().map(idOf).forEach(missing::remove);
+        if (!missing.isEmpty()) {
             throw new UnprocessableEntity("One or more referenced resources do not exist");
         }
+
+        return new HashSet<>(found);
     }
 
 }
@@ -1,8 +1,11 @@
 package io.github.ronaldobertolucci.mygames.service.genre;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.genre.*;
 import io.github.ronaldobertolucci.mygames.model.genre.*;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,6 +19,9 @@ public class GenreService {
     @Autowired
     private GenreRepository repository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<GenreDto> findByNameContaining(String name, Pageable pageable) {
         Page<Genre> genres = repository.findGenresByNameContaining(name, pageable);
         return genres.map(GenreDto::new);
@@ -45,6 +51,7 @@ public class GenreService {
     public GenreDto save(SaveGenreDto dto) {
         Genre genre = new Genre(dto);
         repository.save(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.GENRE, genre.getId(), genre.getName()));
         return new GenreDto(genre);
     }
 
@@ -52,6 +59,7 @@ public class GenreService {
     public GenreDto update(UpdateGenreDto dto) {
         Genre genre = repository.getReferenceById(dto.id());
         genre.update(dto);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.GENRE, genre.getId(), genre.getName()));
         return new GenreDto(genre);
     }
 
@@ -59,6 +67,7 @@ public class GenreService {
     public void delete(Long id) {
         Genre genre = repository.getReferenceById(id);
         repository.delete(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.GENRE, id));
     }
 
 }
@@ -0,0 +1,148 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryCountersReconcileResultDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryCountsDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores da biblioteca (user_library_counters).
+ * <p>
+ * Os contadores são mantidos pelos triggers de my_games na mesma transação de cada escrita, então
+ * valem para todos os caminhos: JPA, atualização em lote, upsert, sincronização, importação e
+ * cascatas. A leitura é uma busca pela chave primária. A conferência recalcula os contadores de
+ * cada usuário a partir de my_games e corrige os que divergirem.
+ */
+@Service
+public class LibraryCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibraryCounterService.class);
+
+    private static final int USER_BATCH_SIZE = 500;
+
+    private static final String SELECT = """
+            SELECT dimension, key, count FROM user_library_counters
+            WHERE user_id = (SELECT id FROM users WHERE username = ?)""";
+
+    // O trigger de versão bloqueia esta linha em toda escrita do usuário: com ela bloqueada,
+    // nenhuma escrita concorrente altera my_games entre a contagem e a correção
+    private static final String LOCK_LIBRARY = "SELECT version FROM library_versions WHERE user_id = ? FOR UPDATE";
+
+    private static final String RECONCILE = """
+            WITH actual AS (
+                SELECT CASE
+                           WHEN GROUPING(status) = 0 THEN 'STATUS'
+                           WHEN GROUPING(platform_id) = 0 THEN 'PLATFORM'
+                           WHEN GROUPING(source_id) = 0 THEN 'SOURCE'
+                           ELSE 'TOTAL'
+                       END AS dimension,
+                       coalesce(status, platform_id::text, source_id::text, '') AS key,
+                       count(*) AS count
+                FROM my_games
+                WHERE user_id = ?
+                GROUP BY GROUPING SETS ((status), (platform_id), (source_id), ())
+                HAVING count(*) > 0
+            ),
+            expected AS (
+                SELECT coalesce(a.dimension, c.dimension) AS dimension, coalesce(a.key, c.key) AS key,
+                       coalesce(a.count, 0) AS count
+                FROM actual a
+                FULL JOIN (SELECT dimension, key FROM user_library_counters WHERE user_id = ?) c
+                    ON c.dimension = a.dimension AND c.key = a.key
+            )
+            INSERT INTO user_library_counters (user_id, dimension, key, count)
+            SELECT ?, dimension, key, count FROM expected
+            ON CONFLICT (user_id, dimension, key) DO UPDATE SET count = EXCLUDED.count
+            WHERE user_library_counters.count <> EXCLUDED.count""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
+    public LibraryCountsDto counts(String username) {
+        long[] total = {0};
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<Long, Long> byPlatform = new LinkedHashMap<>();
+        Map<Long, Long> bySource = new LinkedHashMap<>();
+
+        jdbcTemplate.query(SELECT, rs -> {
+            long count = rs.getLong("count");
+            String key = rs.getString("key");
+            switch (rs.getString("dimension")) {
+                case "TOTAL" -> total[0] = count;
+                case "STATUS" -> byStatus.put(Status.valueOf(key), count);
+                case "PLATFORM" -> putIfPositive(byPlatform, Long.valueOf(key), count);
+                case "SOURCE" -> putIfPositive(bySource, Long.valueOf(key), count);
+                default -> throw new IllegalStateException("Unknown counter dimension " + rs.getString("dimension"));
+            }
+        }, username);
+
+        return new LibraryCountsDto(total[0], byStatus, byPlatform, bySource);
+    }
+
+    /**
+     * Confere os contadores de todos os usuários, um usuário por transação.
+     */
+    public LibraryCountersReconcileResultDto reconcile() {
+        int users = 0;
+        int corrected = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?", Long.class,
+                    after, USER_BATCH_SIZE);
+            for (Long id : ids) {
+                corrected += reconcile(id);
+                users++;
+                after = id;
+            }
+        } while (ids.size() == USER_BATCH_SIZE);
+
+        LibraryCountersReconcileResultDto result = new LibraryCountersReconcileResultDto(users, corrected);
+        if (corrected > 0) {
+            logger.warn("Library counters reconciled with drift: {}", result);
+        } else {
+            logger.info("Library counters reconciled: {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Recalcula os contadores de um usuário e devolve quantos foram corrigidos.
+     */
+    public int reconcile(Long userId) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList(LOCK_LIBRARY, Long.class, userId);
+            return jdbcTemplate.update(RECONCILE, userId, userId, userId);
+        });
+    }
+
+    @Scheduled(cron = "${library.counters.reconcile.cron:-}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    private void putIfPositive(Map<Long, Long> counts, Long id, long count) {
+        if (count > 0) {
+            counts.put(id, count);
+        }
+    }
+}
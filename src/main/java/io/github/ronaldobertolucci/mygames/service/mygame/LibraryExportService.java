@@ -0,0 +1,118 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvWriter;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import io.github.ronaldobertolucci.mygames.model.mygame.MyGameExportRowDto;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exportação da biblioteca do usuário em NDJSON ou CSV.
+ * <p>
+ * As linhas vêm de um cursor só de avanço, lido em blocos de {@link #FETCH_SIZE} por uma sessão
+ * sem estado (sem contexto de persistência) na conexão da transação somente leitura, e cada
+ * linha é escrita na saída assim que lida. A memória usada não depende do tamanho da biblioteca.
+ * <p>
+ * O filtro é o id do usuário e a ordem é a cópia do título em my_games: o índice
+ * (user_id, game_title, id) entrega as linhas já ordenadas, sem ordenar a biblioteca inteira
+ * antes da primeira linha sair.
+ */
+@Service
+public class LibraryExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final List<String> CSV_HEADER = List.of("id", "game_id", "title", "company", "platform",
+            "store", "status", "created_at", "updated_at");
+
+    private static final String EXPORT = """
+            SELECT new io.github.ronaldobertolucci.mygames.model.mygame.MyGameExportRowDto(
+                m.id, g.id, m.gameTitle, c.name, p.name, s.name, m.status, m.createdAt, m.updatedAt)
+            FROM MyGame m
+            JOIN m.game g
+            LEFT JOIN g.company c
+            JOIN m.platform p
+            JOIN m.source s
+            WHERE m.user.id = :userId
+            ORDER BY m.gameTitle, m.id""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    /**
+     * Escreve a biblioteca de {@code username} em {@code output}, ordenada por título. A saída
+     * não é fechada.
+     */
+    @Transactional(readOnly = true)
+    public void export(String username, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        RowWriter rows = switch (format) {
+            case NDJSON -> row -> {
+                writer.write(jsonMapper.writeValueAsString(row));
+                writer.write('\n');
+            };
+            case CSV -> csv(new CsvWriter(writer));
+        };
+
+        User user = userRepository.findByUsername(username);
+        if (user != null) {
+            try {
+                Session session = entityManager.unwrap(Session.class);
+                session.doWork(connection -> export(session.getSessionFactory(), connection, user.getId(), rows));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        }
+        writer.flush();
+    }
+
+    private void export(SessionFactory sessionFactory, Connection connection, Long userId, RowWriter writer) {
+        try (StatelessSession session = sessionFactory.withStatelessOptions().connection(connection).openStatelessSession();
+             ScrollableResults<MyGameExportRowDto> rows = session
+                     .createSelectionQuery(EXPORT, MyGameExportRowDto.class)
+                     .setParameter("userId", userId)
+                     .setReadOnly(true)
+                     .setFetchSize(FETCH_SIZE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                writer.write(rows.get());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private RowWriter csv(CsvWriter writer) throws IOException {
+        writer.writeRow(CSV_HEADER);
+        return row -> writer.writeRow(Arrays.asList(row.id(), row.gameId(), row.title(), row.company(),
+                row.platform(), row.store(), row.status(), row.createdAt(), row.updatedAt()));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(MyGameExportRowDto row) throws IOException;
+    }
+}
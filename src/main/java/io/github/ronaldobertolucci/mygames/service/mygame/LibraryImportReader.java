@@ -0,0 +1,144 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvReader;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryImportLineDto;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Lê exportações de biblioteca em CSV (com cabeçalho) ou JSON (lista de objetos).
+ * <p>
+ * As lojas usam nomes de coluna diferentes, então o título é aceito como {@code title},
+ * {@code name} ou {@code game}, e a loja como {@code store}, {@code source} ou {@code launcher}.
+ */
+class LibraryImportReader {
+
+    static final int MAX_LINES = 5000;
+
+    private static final Map<String, List<String>> COLUMNS = Map.of(
+            "title", List.of("title", "name", "game"),
+            "store", List.of("store", "source", "launcher"),
+            "platform", List.of("platform"),
+            "status", List.of("status"));
+
+    private LibraryImportReader() {
+    }
+
+    record Line(long number, LibraryImportLineDto entry) {
+    }
+
+    static List<Line> read(InputStream input, String fileName, String contentType, ObjectReader jsonReader) throws IOException {
+        List<Line> lines = isJson(fileName, contentType) ? readJson(input, jsonReader) : readCsv(input);
+        if (lines.size() > MAX_LINES) {
+            throw new UnprocessableEntity("Library export has more than " + MAX_LINES + " games");
+        }
+        return lines;
+    }
+
+    private static boolean isJson(String fileName, String contentType) {
+        if (fileName != null && !fileName.isBlank()) {
+            String name = fileName.toLowerCase();
+            if (name.endsWith(".json")) {
+                return true;
+            }
+            if (name.endsWith(".csv")) {
+                return false;
+            }
+        }
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            return true;
+        }
+        if (contentType != null && contentType.toLowerCase().contains("csv")) {
+            return false;
+        }
+        throw new UnprocessableEntity("Library export must be a .csv or .json file");
+    }
+
+    // JSON não tem linhas: o número é a posição do objeto na lista. Os objetos são lidos um a um,
+    // então uma lista acima do limite para de ser lida no primeiro objeto excedente
+    private static List<Line> readJson(InputStream input, ObjectReader jsonReader) {
+        // Cada objeto é lido no meio da lista: o que vem depois dele não é erro
+        ObjectReader entryReader = jsonReader.forType(LibraryImportLineDto.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        try (JsonParser parser = entryReader.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new UnprocessableEntity("Invalid library export: expected a list of objects");
+            }
+
+            List<Line> lines = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && lines.size() <= MAX_LINES) {
+                if (token == null) {
+                    throw new UnprocessableEntity("Invalid library export: unexpected end of input");
+                }
+                LibraryImportLineDto entry = token == JsonToken.VALUE_NULL ? null : entryReader.readValue(parser);
+                lines.add(new Line(lines.size() + 1, entry));
+            }
+            if (lines.size() <= MAX_LINES && parser.nextToken() != null) {
+                throw new UnprocessableEntity("Invalid library export: unexpected content after the list");
+            }
+            return lines;
+        } catch (JacksonException ex) {
+            throw new UnprocessableEntity("Invalid library export: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static List<Line> readCsv(InputStream input) throws IOException {
+        try (CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRow();
+            if (header == null) {
+                return List.of();
+            }
+
+            Map<String, Integer> columns = columns(header);
+            if (!columns.containsKey("title")) {
+                throw new UnprocessableEntity("Library export header must have a title column");
+            }
+
+            List<Line> lines = new ArrayList<>();
+            List<String> row;
+            while ((row = csv.readRow()) != null && lines.size() <= MAX_LINES) {
+                if (CsvReader.isBlank(row)) {
+                    continue;
+                }
+                lines.add(new Line(csv.line(), new LibraryImportLineDto(
+                        field(row, columns, "title"),
+                        field(row, columns, "store"),
+                        field(row, columns, "platform"),
+                        field(row, columns, "status"))));
+            }
+            return lines;
+        }
+    }
+
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase();
+            for (Map.Entry<String, List<String>> column : COLUMNS.entrySet()) {
+                if (column.getValue().contains(name)) {
+                    columns.putIfAbsent(column.getKey(), i);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size() || row.get(index).isBlank()) {
+            return null;
+        }
+        return row.get(index).trim();
+    }
+}
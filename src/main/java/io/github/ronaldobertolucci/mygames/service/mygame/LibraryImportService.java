@@ -0,0 +1,278 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.game.GameTitleDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryImportLineDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryImportResultDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import io.github.ronaldobertolucci.mygames.model.mygame.UnmatchedLineDto;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.FuzzyTitleService;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.TitleMatch;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Importação da biblioteca a partir da exportação de uma loja (Steam, GOG, Epic...).
+ * <p>
+ * Os títulos são associados aos jogos do catálogo em paralelo: primeiro pela title_key exata,
+ * depois pela busca aproximada em memória sobre o título inteiro; lojas e plataformas são
+ * resolvidas pelo nome. As linhas associadas entram em
+ * my_games com um INSERT em lote, e as demais voltam no relatório com o motivo.
+ */
+@Service
+public class LibraryImportService {
+
+    // Lojas de PC não informam plataforma na exportação
+    private static final String DEFAULT_PLATFORM = "pc";
+
+    private static final int BATCH_SIZE = 500;
+
+    // Candidatos aproximados a até esta diferença de distância do melhor não são escolhidos
+    private static final int NEAR_TIE = 1;
+
+    private static final String INSERT = """
+            INSERT INTO my_games (user_id, game_id, platform_id, source_id, status)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING""";
+
+    @Autowired
+    private FuzzyTitleService fuzzyTitleService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    // A associação é só CPU sobre o índice em memória: um pool próprio não disputa com o pool comum
+    private final ForkJoinPool matchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Importa a exportação para a biblioteca do usuário. {@code platformId} e {@code sourceId}
+     * valem para as linhas que não informam plataforma ou loja.
+     */
+    @Transactional
+    public LibraryImportResultDto importLibrary(InputStream input, String fileName, String contentType,
+                                                Long platformId, Long sourceId, String username) {
+        List<LibraryImportReader.Line> lines;
+        try {
+            lines = LibraryImportReader.read(input, fileName, contentType, jsonMapper.reader());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        User user = userRepository.findByUsername(username);
+        Defaults defaults = new Defaults(
+                platformId == null ? null : platformRepository.findById(platformId).map(Platform::getId).orElseThrow(LibraryImportService::missingReference),
+                sourceId == null ? null : sourceRepository.findById(sourceId).map(Source::getId).orElseThrow(LibraryImportService::missingReference),
+                NameLookup.of(platformRepository.findAll(), Platform::getId, Platform::getName),
+                NameLookup.of(sourceRepository.findAll(), Source::getId, Source::getName),
+                exactTitles(lines));
+
+        List<Resolution> resolutions = matchPool.submit(() -> lines.parallelStream()
+                .map(line -> resolve(line, defaults))
+                .toList()).join();
+
+        // Chave da biblioteca: o mesmo jogo repetido na exportação entra uma vez
+        Map<List<Long>, Resolution> matched = new LinkedHashMap<>();
+        List<UnmatchedLineDto> unmatched = new ArrayList<>();
+        for (Resolution resolution : resolutions) {
+            if (resolution.reason() != null) {
+                unmatched.add(new UnmatchedLineDto(resolution.line(), resolution.title(), resolution.reason()));
+            } else {
+                matched.putIfAbsent(List.of(resolution.gameId(), resolution.platformId(), resolution.sourceId()), resolution);
+            }
+        }
+
+        int imported = insert(user.getId(), matched.values());
+        int matchedLines = resolutions.size() - unmatched.size();
+        return new LibraryImportResultDto(lines.size(), imported, matchedLines - imported, unmatched);
+    }
+
+    /**
+     * Jogos do catálogo por title_key, só para as chaves presentes na exportação.
+     */
+    private Map<String, List<Long>> exactTitles(List<LibraryImportReader.Line> lines) {
+        List<String> keys = lines.stream()
+                .map(LibraryImportReader.Line::entry)
+                .filter(entry -> entry != null && entry.title() != null && !entry.title().isBlank())
+                .map(entry -> Game.toTitleKey(entry.title()))
+                .distinct()
+                .toList();
+
+        Map<String, List<Long>> ids = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            List<String> batch = keys.subList(from, Math.min(keys.size(), from + BATCH_SIZE));
+            for (GameTitleDto game : gameRepository.findTitlesByTitleKeyIn(batch)) {
+                ids.computeIfAbsent(Game.toTitleKey(game.title()), key -> new ArrayList<>()).add(game.id());
+            }
+        }
+        return ids;
+    }
+
+    private int insert(Long userId, Collection<Resolution> rows) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT, rows, BATCH_SIZE, (statement, row) -> {
+            statement.setLong(1, userId);
+            statement.setLong(2, row.gameId());
+            statement.setLong(3, row.platformId());
+            statement.setLong(4, row.sourceId());
+            statement.setString(5, row.status().name());
+        });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).filter(count -> count > 0).sum();
+    }
+
+    private Resolution resolve(LibraryImportReader.Line line, Defaults defaults) {
+        LibraryImportLineDto entry = line.entry();
+        String title = entry == null ? null : entry.title();
+        if (title == null || title.isBlank()) {
+            return Resolution.unmatched(line, title, "title is required");
+        }
+
+        Status status = status(entry.status());
+        if (status == null) {
+            return Resolution.unmatched(line, title, "unknown status " + entry.status());
+        }
+
+        Long platformId = entry.platform() != null ? defaults.platforms().find(entry.platform())
+                : defaults.platformId() != null ? defaults.platformId()
+                : defaults.platforms().find(DEFAULT_PLATFORM);
+        if (platformId == null) {
+            return Resolution.unmatched(line, title, "unknown platform " + Objects.toString(entry.platform(), DEFAULT_PLATFORM));
+        }
+
+        Long sourceId = entry.store() != null ? defaults.sources().find(entry.store()) : defaults.sourceId();
+        if (sourceId == null) {
+            return Resolution.unmatched(line, title, entry.store() == null ? "store is required" : "unknown store " + entry.store());
+        }
+
+        // O mesmo título em companhias diferentes não tem como ser decidido pelo nome
+        List<Long> exact = defaults.exactTitles().getOrDefault(Game.toTitleKey(title), List.of());
+        if (exact.size() > 1) {
+            return Resolution.unmatched(line, title, "ambiguous title");
+        }
+        if (exact.size() == 1) {
+            return new Resolution(line.number(), title, exact.getFirst(), platformId, sourceId, status, null);
+        }
+
+        // Sem chave igual, só um candidato claramente mais próximo que os demais é importado
+        List<TitleMatch> matches = fuzzyTitleService.matchWholeTitle(title, 2);
+        if (matches.isEmpty()) {
+            return Resolution.unmatched(line, title, "game not found");
+        }
+        if (matches.size() > 1 && matches.get(1).distance() - matches.getFirst().distance() <= NEAR_TIE) {
+            return Resolution.unmatched(line, title, "ambiguous title");
+        }
+
+        return new Resolution(line.number(), title, matches.getFirst().id(), platformId, sourceId, status, null);
+    }
+
+    private Status status(String name) {
+        if (name == null) {
+            return Status.NOT_PLAYED;
+        }
+
+        String normalized = name.trim().toUpperCase().replace(' ', '_');
+        return Arrays.stream(Status.values())
+                .filter(status -> status.name().equals(normalized))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static UnprocessableEntity missingReference() {
+        return new UnprocessableEntity("One or more referenced resources do not exist");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matchPool.shutdown();
+    }
+
+    private record Defaults(Long platformId, Long sourceId, NameLookup platforms, NameLookup sources,
+                            Map<String, List<Long>> exactTitles) {
+    }
+
+    private record Resolution(long line, String title, Long gameId, Long platformId, Long sourceId,
+                              Status status, String reason) {
+
+        static Resolution unmatched(LibraryImportReader.Line line, String title, String reason) {
+            return new Resolution(line.number(), title, null, null, null, null, reason);
+        }
+    }
+
+    /**
+     * Nomes de lojas e plataformas comparados sem acentos, caixa e pontuação. Se não houver
+     * nome igual, vale o único cadastrado que começa com o informado ou vice-versa
+     * ("epic" encontra "Epic Games Store", "gog.com" encontra "GOG").
+     */
+    private static class NameLookup {
+
+        private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+        private final Map<String, Long> ids = new HashMap<>();
+
+        static <T> NameLookup of(List<T> items, Function<T, Long> idOf, Function<T, String> nameOf) {
+            NameLookup lookup = new NameLookup();
+            for (T item : items) {
+                String key = key(nameOf.apply(item));
+                if (!key.isEmpty()) {
+                    lookup.ids.putIfAbsent(key, idOf.apply(item));
+                }
+            }
+            return lookup;
+        }
+
+        Long find(String name) {
+            String key = key(name);
+            if (key.isEmpty()) {
+                return null;
+            }
+
+            Long exact = ids.get(key);
+            if (exact != null) {
+                return exact;
+            }
+
+            List<Long> partial = ids.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(key) || key.startsWith(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .toList();
+            return partial.size() == 1 ? partial.getFirst() : null;
+        }
+
+        private static String key(String name) {
+            return NON_ALPHANUMERIC.matcher(Game.toTitleKey(name)).replaceAll("");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryStatsDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estatísticas da biblioteca calculadas no banco.
+ * <p>
+ * Uma única consulta: os registros do usuário são lidos uma vez (índice (user_id, status) com as
+ * demais colunas incluídas), agrupados por status, plataforma e loja com GROUPING SETS, e o
+ * mesmo conjunto é juntado a game_genre para a contagem por gênero.
+ */
+@Service
+public class LibraryStatsService {
+
+    private static final String STATS = """
+            WITH library AS MATERIALIZED (
+                SELECT m.game_id, m.status, m.platform_id, m.source_id
+                FROM my_games m
+                WHERE m.user_id = (SELECT id FROM users WHERE username = ?)
+            ),
+            counts AS (
+                SELECT CASE
+                           WHEN GROUPING(status) = 0 THEN 'STATUS'
+                           WHEN GROUPING(platform_id) = 0 THEN 'PLATFORM'
+                           WHEN GROUPING(source_id) = 0 THEN 'SOURCE'
+                           ELSE 'TOTAL'
+                       END AS dimension,
+                       status, coalesce(platform_id, source_id) AS id, count(*) AS total
+                FROM library
+                GROUP BY GROUPING SETS ((status), (platform_id), (source_id), ())
+            )
+            SELECT c.dimension, c.status, c.id, coalesce(p.name, s.name) AS name, c.total
+            FROM counts c
+            LEFT JOIN platforms p ON c.dimension = 'PLATFORM' AND p.id = c.id
+            LEFT JOIN sources s ON c.dimension = 'SOURCE' AND s.id = c.id
+            UNION ALL
+            SELECT 'GENRE', NULL, ge.id, ge.name, count(DISTINCT l.game_id)
+            FROM library l
+            JOIN game_genre gg ON gg.game_id = l.game_id
+            JOIN genres ge ON ge.id = gg.genre_id
+            GROUP BY ge.id, ge.name
+            ORDER BY 1, 5 DESC, 4""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public LibraryStatsDto stats(String username) {
+        long[] total = {0};
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            byStatus.put(status, 0L);
+        }
+        List<LibraryStatsDto.Count> byPlatform = new ArrayList<>();
+        List<LibraryStatsDto.Count> bySource = new ArrayList<>();
+        List<LibraryStatsDto.Count> byGenre = new ArrayList<>();
+
+        jdbcTemplate.query(STATS, rs -> {
+            long count = rs.getLong("total");
+            switch (rs.getString("dimension")) {
+                case "TOTAL" -> total[0] = count;
+                case "STATUS" -> byStatus.put(Status.valueOf(rs.getString("status")), count);
+                case "PLATFORM" -> byPlatform.add(new LibraryStatsDto.Count(rs.getLong("id"), rs.getString("name"), count));
+                case "SOURCE" -> bySource.add(new LibraryStatsDto.Count(rs.getLong("id"), rs.getString("name"), count));
+                case "GENRE" -> byGenre.add(new LibraryStatsDto.Count(rs.getLong("id"), rs.getString("name"), count));
+                default -> throw new IllegalStateException("Unknown stats dimension " + rs.getString("dimension"));
+            }
+        }, username);
+
+        return new LibraryStatsDto(total[0], byStatus, byPlatform, bySource, byGenre);
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sincronização da biblioteca com o estado completo mantido pelo cliente.
+ * <p>
+ * Desejado e gravado são ordenados pela chave (jogo, plataforma, loja) e percorridos juntos,
+ * como um merge: chave só no desejado é inclusão, só no gravado é remoção, nos dois com status
+ * diferente é atualização. Cada tipo de alteração vira uma única instrução sobre arrays, então
+ * uma biblioteca de 2.000 jogos com 3 mudanças custa no máximo três escritas.
+ * <p>
+ * A linha do usuário em library_versions é bloqueada antes da leitura do gravado. Toda escrita
+ * em my_games passa por ela (trigger de versão), então uma inclusão concorrente espera o fim
+ * da sincronização em vez de entrar entre a leitura e o INSERT e virar conflito de chave.
+ */
+@Service
+public class LibrarySyncService {
+
+    private static final Comparator<LibraryEntryDto> BY_KEY = Comparator
+            .comparing(LibraryEntryDto::gameId)
+            .thenComparing(LibraryEntryDto::platformId)
+            .thenComparing(LibraryEntryDto::sourceId);
+
+    // Biblioteca vazia ainda não tem linha de versão: é criada com a versão 0, a mesma lida na falta dela
+    private static final String CREATE_VERSION = """
+            INSERT INTO library_versions (user_id, version) VALUES (?, 0)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String LOCK_LIBRARY = "SELECT version FROM library_versions WHERE user_id = ? FOR UPDATE";
+
+    private static final String SELECT = """
+            SELECT id, game_id, platform_id, source_id, status FROM my_games
+            WHERE user_id = ?
+            ORDER BY game_id, platform_id, source_id""";
+
+    // Os JOINs descartam referências inexistentes: menos linhas que o pedido indica jogo, plataforma ou loja inválidos
+    private static final String INSERT = """
+            INSERT INTO my_games (user_id, game_id, platform_id, source_id, status)
+            SELECT ?, d.game_id, d.platform_id, d.source_id, d.status
+            FROM unnest(?, ?, ?, ?) AS d(game_id, platform_id, source_id, status)
+            JOIN games g ON g.id = d.game_id
+            JOIN platforms p ON p.id = d.platform_id
+            JOIN sources s ON s.id = d.source_id
+            RETURNING id, game_id, platform_id, source_id, status""";
+
+    private static final String UPDATE = """
+            UPDATE my_games m SET status = d.status
+            FROM unnest(?, ?) AS d(id, status)
+            WHERE m.id = d.id AND m.user_id = ?""";
+
+    private static final String DELETE = "DELETE FROM my_games WHERE id = ANY(?) AND user_id = ?";
+
+    private static final RowMapper<LibraryEntryDto> ENTRY = (rs, row) -> new LibraryEntryDto(
+            rs.getLong("id"), rs.getLong("game_id"), rs.getLong("platform_id"), rs.getLong("source_id"),
+            Status.valueOf(rs.getString("status")));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aplica à biblioteca do usuário apenas a diferença para {@code dto}. Entradas sem status
+     * entram como NOT_PLAYED e, se já existirem, mantêm o status gravado. Chaves repetidas
+     * valem pela última ocorrência.
+     */
+    @Transactional
+    public LibrarySyncResultDto sync(LibrarySyncDto dto, String username) {
+        User user = userRepository.findByUsername(username);
+        List<LibraryEntryDto> desired = desired(dto.games());
+        jdbcTemplate.update(CREATE_VERSION, user.getId());
+        jdbcTemplate.queryForList(LOCK_LIBRARY, Long.class, user.getId());
+        List<LibraryEntryDto> stored = jdbcTemplate.query(SELECT, ENTRY, user.getId());
+
+        List<LibraryEntryDto> toInsert = new ArrayList<>();
+        List<LibraryEntryDto> toUpdate = new ArrayList<>();
+        List<LibraryEntryDto> toDelete = new ArrayList<>();
+        int unchanged = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < desired.size() || j < stored.size()) {
+            int cmp = i == desired.size() ? 1
+                    : j == stored.size() ? -1
+                    : BY_KEY.compare(desired.get(i), stored.get(j));
+
+            if (cmp < 0) {
+                LibraryEntryDto entry = desired.get(i++);
+                toInsert.add(entry.status() == null ? withStatus(entry, null, Status.NOT_PLAYED) : entry);
+            } else if (cmp > 0) {
+                toDelete.add(stored.get(j++));
+            } else {
+                LibraryEntryDto wanted = desired.get(i++);
+                LibraryEntryDto current = stored.get(j++);
+                if (wanted.status() == null || wanted.status() == current.status()) {
+                    unchanged++;
+                } else {
+                    toUpdate.add(withStatus(current, current.id(), wanted.status()));
+                }
+            }
+        }
+
+        return new LibrarySyncResultDto(insert(user.getId(), toInsert), update(user.getId(), toUpdate),
+                delete(user.getId(), toDelete), unchanged);
+    }
+
+    private List<LibraryEntryDto> desired(List<SaveMyGameDto> games) {
+        List<LibraryEntryDto> entries = new ArrayList<>(games.size());
+        for (SaveMyGameDto game : games) {
+            entries.add(new LibraryEntryDto(null, game.gameId(), game.platformId(), game.sourceId(), game.status()));
+        }
+        // Ordenação estável: entre chaves iguais, a última ocorrência fica por último e prevalece
+        entries.sort(BY_KEY);
+
+        List<LibraryEntryDto> distinct = new ArrayList<>(entries.size());
+        for (LibraryEntryDto entry : entries) {
+            if (!distinct.isEmpty() && BY_KEY.compare(distinct.getLast(), entry) == 0) {
+                distinct.removeLast();
+            }
+            distinct.add(entry);
+        }
+        return distinct;
+    }
+
+    private List<LibraryEntryDto> insert(Long userId, List<LibraryEntryDto> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        List<LibraryEntryDto> inserted = jdbcTemplate.query(INSERT, ENTRY, userId,
+                new SqlArrayValue("bigint", entries.stream().map(LibraryEntryDto::gameId).toArray()),
+                new SqlArrayValue("bigint", entries.stream().map(LibraryEntryDto::platformId).toArray()),
+                new SqlArrayValue("bigint", entries.stream().map(LibraryEntryDto::sourceId).toArray()),
+                new SqlArrayValue("varchar", entries.stream().map(entry -> entry.status().name()).toArray()));
+        if (inserted.size() != entries.size()) {
+            throw new UnprocessableEntity("One or more referenced resources do not exist");
+        }
+
+        inserted.sort(BY_KEY);
+        return inserted;
+    }
+
+    private List<LibraryEntryDto> update(Long userId, List<LibraryEntryDto> entries) {
+        if (!entries.isEmpty()) {
+            jdbcTemplate.update(UPDATE,
+                    new SqlArrayValue("bigint", entries.stream().map(LibraryEntryDto::id).toArray()),
+                    new SqlArrayValue("varchar", entries.stream().map(entry -> entry.status().name()).toArray()),
+                    userId);
+        }
+        return entries;
+    }
+
+    private List<LibraryEntryDto> delete(Long userId, List<LibraryEntryDto> entries) {
+        if (!entries.isEmpty()) {
+            jdbcTemplate.update(DELETE, new SqlArrayValue("bigint", entries.stream().map(LibraryEntryDto::id).toArray()),
+                    userId);
+        }
+        return entries;
+    }
+
+    private LibraryEntryDto withStatus(LibraryEntryDto entry, Long id, Status status) {
+        return new LibraryEntryDto(id, entry.gameId(), entry.platformId(), entry.sourceId(), status);
+    }
+}
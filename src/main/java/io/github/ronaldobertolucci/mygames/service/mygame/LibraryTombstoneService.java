@@ -0,0 +1,79 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Retenção das exclusões da biblioteca (my_game_tombstones).
+ * <p>
+ * Exclusões mais antigas que {@code library.tombstones.retention-days} são apagadas, e a maior
+ * versão apagada de cada usuário fica em library_versions.pruned_version. Cursores anteriores a
+ * ela não são mais atendidos em janelas: {@link MyGameService#findChangesSince} devolve a
+ * biblioteca inteira para que o cliente substitua a cópia local.
+ */
+@Service
+public class LibraryTombstoneService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibraryTombstoneService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Um lote por transação: as linhas de library_versions, que toda escrita do usuário bloqueia,
+    // ficam presas só pelo tempo de um lote
+    private static final String PRUNE = """
+            WITH pruned AS (
+                DELETE FROM my_game_tombstones
+                WHERE my_game_id IN (
+                    SELECT my_game_id FROM my_game_tombstones
+                    WHERE deleted_at < ?
+                    LIMIT ?)
+                RETURNING user_id, change_version
+            ), versions AS (
+                SELECT user_id, max(change_version) AS version FROM pruned GROUP BY user_id
+            ), updated AS (
+                UPDATE library_versions lv SET pruned_version = v.version
+                FROM versions v
+                WHERE lv.user_id = v.user_id AND lv.pruned_version < v.version
+            )
+            SELECT count(*) FROM pruned""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${library.tombstones.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${library.tombstones.prune.cron:-}")
+    public void scheduledPrune() {
+        prune(Instant.now().minus(Duration.ofDays(retentionDays)));
+    }
+
+    /**
+     * Apaga as exclusões gravadas antes de {@code before} e devolve quantas foram apagadas.
+     */
+    public long prune(Instant before) {
+        long total = 0;
+        long pruned;
+        do {
+            pruned = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject(PRUNE, Long.class, Timestamp.from(before), BATCH_SIZE));
+            total += pruned;
+        } while (pruned == BATCH_SIZE);
+
+        logger.info("Library tombstones pruned: {}", total);
+        return total;
+    }
+}
@@ -5,26 +5,43 @@ import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
 import io.github.ronaldobertolucci.mygames.model.game.Game;
 import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
 import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.pagination.CursorPage;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.platform.Platform;
 import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
 import io.github.ronaldobertolucci.mygames.model.source.Source;
 import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
 import io.github.ronaldobertolucci.mygames.model.user.User;
 import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.pagination.PageCountCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 public class MyGameService {
 
+    // O SELECT só produz linha quando jogo, plataforma e loja existem; a chave única decide o conflito
+    private static final String INSERT_IGNORING_CONFLICT = """
+            INSERT INTO my_games (user_id, game_id, platform_id, source_id, status)
+            SELECT ?, g.id, p.id, s.id, ? FROM games g, platforms p, sources s
+            WHERE g.id = ? AND p.id = ? AND s.id = ?
+            ON CONFLICT (user_id, game_id, platform_id, source_id) DO NOTHING
+            RETURNING id""";
+
+    private static final String FIND_ID = """
+            SELECT id FROM my_games
+            WHERE user_id = ? AND game_id = ? AND platform_id = ? AND source_id = ?""";
+
     @Autowired
     private MyGameRepository myGameRepository;
 
@@ -40,46 +57,160 @@ public class MyGameService {
     @Autowired
     private SourceRepository sourceRepository;
 
+    @Autowired
+    private MyGameTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PageCountCache pageCountCache;
+
+    @Transactional(readOnly = true)
     public Page<MyGameDto> findByFilter(MyGameFilter filter, Pageable pagination) {
-        Specification<MyGame> spec = MyGameSpecification.byFilter(filter);
-        return myGameRepository.findAll(spec, pagination)
-                .map(MyGameDto::new);
+        // O id e a versão vêm na mesma consulta e substituem a junção com users na página
+        List<Object[]> library = filter.getUsername() == null ? List.of()
+                : myGameRepository.findLibraryVersion(filter.getUsername());
+        if (library.isEmpty()) {
+            return myGameRepository.findDtos(MyGameSpecification.byFilter(filter), pagination);
+        }
+
+        // Pelo id: ids não voltam a ser usados, então um total nunca serve a outro usuário de mesmo nome
+        long userId = ((Number) library.getFirst()[0]).longValue();
+        long version = ((Number) library.getFirst()[1]).longValue();
+        List<Object> key = countKey(filter);
+        Specification<MyGame> spec = MyGameSpecification.byUser(userId, filter);
+        return myGameRepository.findDtos(spec, pagination, () -> pageCountCache.count(PageCountCache.MY_GAMES,
+                key, userId, version, () -> myGameRepository.count(spec)));
+    }
+
+    // Filtros equivalentes dividem o mesmo total: título pela chave de busca, status sem ordem nem repetição.
+    // O filtro de título compara a title_key de games, que muda sem escrita em my_games: a versão
+    // do catálogo entra na chave
+    private List<Object> countKey(MyGameFilter filter) {
+        String title = filter.getTitle() == null || filter.getTitle().isBlank() ? null : Game.toTitleKey(filter.getTitle());
+        Long gamesVersion = title == null ? null : pageCountCache.version(PageCountCache.GAMES);
+        Set<Status> statuses = filter.getStatuses() == null ? Set.of() : new TreeSet<>(filter.getStatuses());
+        return Arrays.asList(title, gamesVersion, filter.getSourceId(), filter.getPlatformId(), statuses);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MyGameDto> findByFilterAfter(MyGameFilter filter, KeysetCursor cursor, int size) {
+        User user = userRepository.findByUsername(filter.getUsername());
+        if (user == null) {
+            return CursorPage.of(List.of(), size, null);
+        }
+
+        Specification<MyGame> spec = MyGameSpecification.byUser(user.getId(), filter);
+        return toCursorPage(myGameRepository.findDtosAfter(spec, cursor, size + 1), size);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MyGameDto> findAllAfter(KeysetCursor cursor, int size) {
+        return toCursorPage(myGameRepository.findDtosAfter(Specification.unrestricted(), cursor, size + 1), size);
+    }
+
+    @Transactional(readOnly = true)
     public Page<MyGameDto> findByUserAndGameTitleContaining(String username, String title, Pageable pageable) {
-        Page<MyGame> myGames = myGameRepository.findMyGamesByUsernameAndGameTitleContaining(username, title, pageable);
+        Page<MyGame> myGames = myGameRepository.findMyGamesByUsernameAndGameTitleKeyContaining(username, Game.toTitleKey(title), pageable);
         return myGames.map(MyGameDto::new);
     }
 
+    @Transactional(readOnly = true)
     public List<MyGameDto> findByUserAndGameTitleContaining(String username, String title) {
-        List<MyGame> myGames = myGameRepository.findMyGamesByUsernameAndGameTitleContaining(username, title);
+        List<MyGame> myGames = myGameRepository.findMyGamesByUsernameAndGameTitleKeyContaining(username, Game.toTitleKey(title));
         return myGames.stream().map(MyGameDto::new).toList();
     }
 
+    @Transactional(readOnly = true)
     public Page<MyGameDto> findAll(Pageable pageable) {
         Page<MyGame> myGames = myGameRepository.findAll(pageable);
         return myGames.map(MyGameDto::new);
     }
 
+    @Transactional(readOnly = true)
     public List<MyGameDto> findAll() {
         List<MyGame> myGames = myGameRepository.findAll();
         return myGames.stream().map(MyGameDto::new).toList();
     }
 
+    @Transactional(readOnly = true)
     public Page<MyGameDto> findByUser(String username, Pageable pageable) {
         User user = userRepository.findByUsername(username);
         Page<MyGame> myGames = myGameRepository.findByUser(user, pageable);
         return myGames.map(MyGameDto::new);
     }
 
+    @Transactional(readOnly = true)
     public List<MyGameDto> findByUser(String username) {
         User user = userRepository.findByUsername(username);
         List<MyGame> myGames = myGameRepository.findByUser(user);
         return myGames.stream().map(MyGameDto::new).toList();
     }
 
+    /**
+     * Inclusões, alterações e exclusões da biblioteca com versão maior que {@code since}, em
+     * ordem de versão e no máximo {@code limit} por chamada. Se exclusões posteriores a
+     * {@code since} já foram apagadas pela retenção, devolve a biblioteca inteira com
+     * {@code reset}.
+     */
+    @Transactional(readOnly = true)
+    public MyGameChangesDto findChangesSince(String username, long since, int limit) {
+        User user = userRepository.findByUsername(username);
+        Limit window = Limit.of(limit + 1);
+
+        // Registros alterados e exclusões vêm de tabelas diferentes; a janela é decidida pela versão
+        TreeMap<Long, Long> upserts = new TreeMap<>();
+        for (Object[] row : myGameRepository.findChangedSince(user.getId(), since, window)) {
+            upserts.put((Long) row[1], (Long) row[0]);
+        }
+        TreeMap<Long, Long> deletes = new TreeMap<>();
+        for (MyGameTombstone tombstone : tombstoneRepository
+                .findByUserIdAndChangeVersionGreaterThanOrderByChangeVersion(user.getId(), since, window)) {
+            deletes.put(tombstone.getChangeVersion(), tombstone.getMyGameId());
+        }
+
+        // Lida depois das exclusões: uma retenção que as apagou antes da leitura aparece aqui.
+        // Cursor 0 é um cliente sem cópia local, a quem exclusões não interessam
+        if (since > 0 && since < tombstoneRepository.findPrunedVersion(user.getId())) {
+            return resync(user);
+        }
+
+        TreeSet<Long> versions = new TreeSet<>(upserts.keySet());
+        versions.addAll(deletes.keySet());
+        boolean hasMore = versions.size() > limit;
+        long version = versions.isEmpty() ? since
+                : hasMore ? versions.stream().skip(limit - 1).findFirst().orElseThrow()
+                : versions.last();
+
+        List<Long> upsertedIds = new ArrayList<>(upserts.headMap(version, true).values());
+        List<Long> deletedIds = new ArrayList<>(deletes.headMap(version, true).values());
+
+        List<MyGameDto> upserted = List.of();
+        if (!upsertedIds.isEmpty()) {
+            Map<Long, Integer> order = new HashMap<>();
+            upsertedIds.forEach(id -> order.put(id, order.size()));
+            Specification<MyGame> byIds = (root, query, cb) -> root.get("id").in(upsertedIds);
+            upserted = myGameRepository.findDtos(byIds, Pageable.unpaged()).getContent().stream()
+                    .sorted(Comparator.comparing(myGame -> order.get(myGame.id())))
+                    .toList();
+        }
+
+        return new MyGameChangesDto(version, hasMore, false, upserted, deletedIds);
+    }
+
+    // Numa resposta só: em janelas, o cursor intermediário seria de novo anterior às exclusões apagadas.
+    // A versão é lida antes dos registros; o que mudar entre as duas leituras volta no próximo pedido
+    private MyGameChangesDto resync(User user) {
+        long version = ((Number) myGameRepository.findLibraryVersion(user.getUsername()).getFirst()[1]).longValue();
+        Specification<MyGame> byUser = (root, query, cb) -> cb.equal(root.get("user").get("id"), user.getId());
+        List<MyGameDto> library = myGameRepository.findDtos(byUser, Pageable.unpaged()).getContent();
+        return new MyGameChangesDto(version, false, true, library, List.of());
+    }
+
+    @Transactional(readOnly = true)
     public MyGameDto detail(Long id, String username) {
-        MyGame myGame = myGameRepository.getReferenceById(id);
+        MyGame myGame = myGameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
 
         if (!myGame.getUser().getUsername().equals(username) && !isAdmin()) {
             throw new ForbiddenException("You don't have access to this game");
@@ -101,9 +232,37 @@ public class MyGameService {
         return new MyGameDto(myGame);
     }
 
+    /**
+     * Inclusão idempotente: se o usuário já tem o jogo na mesma plataforma e loja, devolve o
+     * registro existente em vez de violar a chave única. O status do registro existente só muda
+     * com {@code updateStatus} e quando a requisição informa um status.
+     */
+    @Transactional
+    public UpsertMyGameResultDto upsert(SaveMyGameDto dto, boolean updateStatus, String username) {
+        User user = userRepository.findByUsername(username);
+        Status status = dto.status() != null ? dto.status() : Status.NOT_PLAYED;
+
+        List<Long> inserted = jdbcTemplate.queryForList(INSERT_IGNORING_CONFLICT, Long.class,
+                user.getId(), status.name(), dto.gameId(), dto.platformId(), dto.sourceId());
+        boolean created = !inserted.isEmpty();
+
+        // Sem linha inserida: ou o registro já existe, ou alguma referência não existe.
+        // Consulta separada porque o snapshot do INSERT não enxerga um conflito recém-confirmado.
+        Long id = created ? inserted.getFirst() : jdbcTemplate.queryForList(FIND_ID, Long.class,
+                        user.getId(), dto.gameId(), dto.platformId(), dto.sourceId()).stream()
+                .findFirst()
+                .orElseThrow(MyGameService::missingReference);
+
+        MyGame myGame = myGameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
+        if (!created && updateStatus && dto.status() != null) {
+            myGame.setStatus(dto.status());
+        }
+        return new UpsertMyGameResultDto(new MyGameDto(myGame), created);
+    }
+
     @Transactional
     public MyGameDto update(UpdateMyGameDto dto, String username) {
-        MyGame myGame = myGameRepository.getReferenceById(dto.id());
+        MyGame myGame = myGameRepository.findDetailedById(dto.id()).orElseThrow(EntityNotFoundException::new);
 
         if (!myGame.getUser().getUsername().equals(username) && !isAdmin()) {
             throw new ForbiddenException("You don't have access to this game");
@@ -119,7 +278,7 @@ public class MyGameService {
 
     @Transactional
     public MyGameDto updateStatus(Long id, MyGamesStatusDto dto, String username) {
-        MyGame myGame = myGameRepository.getReferenceById(id);
+        MyGame myGame = myGameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
 
         if (!myGame.getUser().getUsername().equals(username) && !isAdmin()) {
             throw new ForbiddenException("You don't have access to this game");
@@ -129,9 +288,29 @@ public class MyGameService {
         return new MyGameDto(myGame);
     }
 
+    /**
+     * Troca o status de vários registros da biblioteca do usuário em um único UPDATE, pelos ids
+     * ou pelo filtro. Ids de outros usuários são ignorados, não recusados: o UPDATE é sempre
+     * restrito ao dono.
+     */
+    @Transactional
+    public BulkStatusResultDto updateStatus(BulkStatusDto dto, String username) {
+        if ((dto.ids() == null) == (dto.filter() == null)) {
+            throw new UnprocessableEntity("Either ids or filter must be informed");
+        }
+        if (dto.ids() != null && dto.ids().isEmpty()) {
+            return new BulkStatusResultDto(0);
+        }
+
+        User user = userRepository.findByUsername(username);
+        MyGameFilter filter = dto.filter() == null ? null : dto.filter().toMyGameFilter(username);
+        int updated = myGameRepository.updateStatus(user.getId(), dto.ids(), filter, dto.status());
+        return new BulkStatusResultDto(updated);
+    }
+
     @Transactional
     public void delete(Long id, String username) {
-        MyGame myGame = myGameRepository.getReferenceById(id);
+        MyGame myGame = myGameRepository.findDetailedById(id).orElseThrow(EntityNotFoundException::new);
 
         if (!myGame.getUser().getUsername().equals(username) && !isAdmin()) {
             throw new ForbiddenException("You don't have access to this game");
@@ -140,50 +319,42 @@ public class MyGameService {
         myGameRepository.delete(myGame);
     }
 
+    private CursorPage<MyGameDto> toCursorPage(List<MyGameDto> myGames, int size) {
+        return CursorPage.of(myGames, size, myGame -> new KeysetCursor(myGame.game().title(), myGame.id()));
+    }
+
     private boolean isAdmin() {
         return SecurityContextHolder.getContext().getAuthentication()
                 .getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
     }
 
+    // findByUsername já devolve o usuário carregado, ou null se não existir
     private void setUser(String username, MyGame myGame) {
-        try {
-            User user = userRepository.findByUsername(username);
-            user.toString(); // forçando o carregamento
-            myGame.setUser(user);
-        } catch (EntityNotFoundException ex) {
-            throw new UnprocessableEntity("One or more referenced resources do not exist");
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            throw missingReference();
         }
+        myGame.setUser(user);
     }
-    
+
     private void setGame(Long gameId, MyGame myGame) {
-        try {
-            Game game = gameRepository.getReferenceById(gameId);
-            game.toString(); // forçando o carregamento
-            myGame.setGame(game);
-        } catch (EntityNotFoundException ex) {
-            throw new UnprocessableEntity("One or more referenced resources do not exist");
-        }
+        Game game = gameRepository.findDetailedById(gameId).orElseThrow(MyGameService::missingReference);
+        myGame.setGame(game);
     }
 
     private void setPlatform(Long platformId, MyGame myGame) {
-        try {
-            Platform platform = platformRepository.getReferenceById(platformId);
-            platform.toString(); // forçando o carregamento
-            myGame.setPlatform(platform);
-        } catch (EntityNotFoundException ex) {
-            throw new UnprocessableEntity("One or more referenced resources do not exist");
-        }
+        Platform platform = platformRepository.findById(platformId).orElseThrow(MyGameService::missingReference);
+        myGame.setPlatform(platform);
     }
 
     private void setSource(Long sourceId, MyGame myGame) {
-        try {
-            Source source = sourceRepository.getReferenceById(sourceId);
-            source.toString(); // forçando o carregamento
-            myGame.setSource(source);
-        } catch (EntityNotFoundException ex) {
-            throw new UnprocessableEntity("One or more referenced resources do not exist");
-        }
+        Source source = sourceRepository.findById(sourceId).orElseThrow(MyGameService::missingReference);
+        myGame.setSource(source);
+    }
+
+    private static UnprocessableEntity missingReference() {
+        return new UnprocessableEntity("One or more referenced resources do not exist");
     }
 
     private void setStatusToNewRecords(Status status, MyGame myGame) {
@@ -0,0 +1,100 @@
+package io.github.ronaldobertolucci.mygames.service.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Totais das listagens paginadas, para que o COUNT(*) não rode a cada página.
+ * <p>
+ * Cada total é guardado pela chave (listagem, filtro normalizado, usuário) junto da versão dos
+ * dados em que foi contado; se a versão informada na leitura for outra, conta de novo. A
+ * biblioteca usa a versão de library_versions, mantida por trigger a cada escrita em my_games;
+ * listagens sem versão no banco usam as versões em memória de {@link #version(String)}.
+ * <p>
+ * A versão precisa ser lida antes da contagem: se uma escrita entrar entre as duas, o total
+ * fica guardado com a versão antiga e é descartado na próxima leitura.
+ */
+@Component
+public class PageCountCache {
+
+    public static final String GAMES = "games";
+    public static final String USERS = "users";
+    public static final String MY_GAMES = "my-games";
+
+    @Value("${pagination.count.cache-size:10000}")
+    private int maxSize;
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Ordem de acesso: ao passar do limite sai o total consultado há mais tempo
+    private final Map<Key, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    /**
+     * Total guardado para a chave na {@code version} informada, ou o resultado de {@code counter}.
+     * {@code filter} e {@code userId} podem ser {@code null}.
+     */
+    public long count(String listing, Object filter, Long userId, long version, LongSupplier counter) {
+        Key key = new Key(listing, filter, userId);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached.count();
+        }
+
+        long count = counter.getAsLong();
+        entries.put(key, new Entry(version, count));
+        return count;
+    }
+
+    /**
+     * Versão em memória da listagem, para dados sem versão própria no banco.
+     */
+    public long version(String listing) {
+        return versions.computeIfAbsent(listing, name -> new AtomicLong()).get();
+    }
+
+    /**
+     * Descarta os totais guardados da listagem.
+     */
+    public void invalidate(String listing) {
+        versions.computeIfAbsent(listing, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Descarta os totais da listagem ao fim da transação atual. Antes do commit, uma leitura
+     * concorrente ainda conta os dados antigos e os guardaria com a versão nova; no rollback, a
+     * própria transação pode ter contado linhas que deixaram de existir.
+     */
+    public void invalidateAfterCompletion(String listing) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(listing);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(listing);
+            }
+        });
+    }
+
+    private record Key(String listing, Object filter, Long userId) {
+    }
+
+    private record Entry(long version, long count) {
+    }
+}
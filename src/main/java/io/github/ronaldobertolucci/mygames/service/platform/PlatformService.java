@@ -1,7 +1,10 @@
 package io.github.ronaldobertolucci.mygames.service.platform;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.platform.*;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,9 @@ public class PlatformService {
     @Autowired
     private PlatformRepository platformRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<PlatformDto> findByNameContaining(String name, Pageable pageable) {
         Page<Platform> platforms = platformRepository.findPlatformsByNameContaining(name, pageable);
         return platforms.map(PlatformDto::new);
@@ -44,6 +50,7 @@ public class PlatformService {
     public PlatformDto save(SavePlatformDto dto) {
         Platform platform = new Platform(dto);
         platformRepository.save(platform);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.PLATFORM, platform.getId(), platform.getName()));
         return new PlatformDto(platform);
     }
 
@@ -51,6 +58,7 @@ public class PlatformService {
     public PlatformDto update(UpdatePlatformDto dto) {
         Platform platform = platformRepository.getReferenceById(dto.id());
         platform.update(dto);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.PLATFORM, platform.getId(), platform.getName()));
         return new PlatformDto(platform);
     }
 
@@ -58,6 +66,7 @@ public class PlatformService {
     public void delete(Long id) {
         Platform platform = platformRepository.getReferenceById(id);
         platformRepository.delete(platform);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.PLATFORM, id));
     }
 
 }
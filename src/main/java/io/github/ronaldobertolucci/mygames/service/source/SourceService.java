@@ -1,7 +1,10 @@
 package io.github.ronaldobertolucci.mygames.service.source;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.source.*;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,9 @@ public class SourceService {
     @Autowired
     private SourceRepository repository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<SourceDto> findByNameContaining(String name, Pageable pageable) {
         Page<Source> sources = repository.findSourceByNameContaining(name, pageable);
         return sources.map(SourceDto::new);
@@ -44,6 +50,7 @@ public class SourceService {
     public SourceDto save(SaveSourceDto dto) {
         Source source = new Source(dto);
         repository.save(source);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.SOURCE, source.getId(), source.getName()));
         return new SourceDto(source);
     }
 
@@ -51,6 +58,7 @@ public class SourceService {
     public SourceDto update(UpdateSourceDto dto) {
         Source source = repository.getReferenceById(dto.id());
         source.update(dto);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.SOURCE, source.getId(), source.getName()));
         return new SourceDto(source);
     }
 
@@ -58,6 +66,7 @@ public class SourceService {
     public void delete(Long id) {
         Source source = repository.getReferenceById(id);
         repository.delete(source);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.SOURCE, id));
     }
 
 }
@@ -1,8 +1,11 @@
 package io.github.ronaldobertolucci.mygames.service.theme;
 
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
 import io.github.ronaldobertolucci.mygames.model.theme.*;
 import io.github.ronaldobertolucci.mygames.model.theme.*;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,6 +19,9 @@ public class ThemeService {
     @Autowired
     private ThemeRepository repository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<ThemeDto> findByNameContaining(String name, Pageable pageable) {
         Page<Theme> themes = repository.findThemesByNameContaining(name, pageable);
         return themes.map(ThemeDto::new);
@@ -45,6 +51,7 @@ public class ThemeService {
     public ThemeDto save(SaveThemeDto dto) {
         Theme theme = new Theme(dto);
         repository.save(theme);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.THEME, theme.getId(), theme.getName()));
         return new ThemeDto(theme);
     }
 
@@ -52,6 +59,7 @@ public class ThemeService {
     public ThemeDto update(UpdateThemeDto dto) {
         Theme theme = repository.getReferenceById(dto.id());
         theme.update(dto);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogType.THEME, theme.getId(), theme.getName()));
         return new ThemeDto(theme);
     }
 
@@ -59,6 +67,7 @@ public class ThemeService {
     public void delete(Long id) {
         Theme theme = repository.getReferenceById(id);
         repository.delete(theme);
+        eventPublisher.publishEvent(CatalogChangedEvent.removed(CatalogType.THEME, id));
     }
 
 }
@@ -1,9 +1,11 @@
 package io.github.ronaldobertolucci.mygames.service.user;
 
 import io.github.ronaldobertolucci.mygames.model.user.*;
+import io.github.ronaldobertolucci.mygames.service.pagination.PageCountCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,9 +24,14 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PageCountCache pageCountCache;
+
     public Page<UserDto> findAll(Pageable pageable) {
-        Page<User> users = repository.findAll(pageable);
-        return users.map(UserDto::new);
+        long version = pageCountCache.version(PageCountCache.USERS);
+        List<UserDto> users = repository.findAllBy(pageable).stream().map(UserDto::new).toList();
+        return PageableExecutionUtils.getPage(users, pageable,
+                () -> pageCountCache.count(PageCountCache.USERS, null, null, version, repository::count));
     }
 
     public List<UserDto> findAll() {
@@ -48,7 +55,9 @@ public class UserService implements UserDetailsService {
         user.setCredentialsNonExpired(true);
         user.setEnabled(true);
 
-        return new UserDto(repository.save(user));
+        UserDto saved = new UserDto(repository.save(user));
+        pageCountCache.invalidateAfterCompletion(PageCountCache.USERS);
+        return saved;
     }
 
     @Transactional
@@ -62,6 +71,7 @@ public class UserService implements UserDetailsService {
     public void delete(Long id) {
         User user = repository.getReferenceById(id);
         repository.delete(user);
+        pageCountCache.invalidateAfterCompletion(PageCountCache.USERS);
     }
 
     @Transactional
@@ -0,0 +1,2 @@
+-- Suporta a paginação por cursor em (title, id)
+CREATE INDEX IF NOT EXISTS games_title_id_idx ON games (title, id);
@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Chave de busca: título em minúsculas e sem acentos, mantida pela aplicação (Game.toTitleKey)
+ALTER TABLE games ADD COLUMN IF NOT EXISTS title_key VARCHAR(255);
+UPDATE games SET title_key = unaccent(lower(trim(title))) WHERE title_key IS NULL;
+ALTER TABLE games ALTER COLUMN title_key SET NOT NULL;
+
+-- Atende LIKE '%trecho%' sem varrer a tabela
+CREATE INDEX IF NOT EXISTS games_title_key_trgm_idx ON games USING gin (title_key gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- Documento de busca textual: radicais em português e termos exatos (simple) de título e descrição.
+-- Coluna gerada: o banco a recalcula em todo INSERT/UPDATE de games.
+ALTER TABLE games ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('portuguese', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('portuguese', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS games_search_vector_idx ON games USING gin (search_vector);
@@ -0,0 +1,3 @@
+-- Hash do registro do feed que originou o jogo; a sincronização só regrava jogos cujo hash mudou.
+-- Jogos cadastrados pela API ficam com NULL e nunca são removidos pela sincronização.
+ALTER TABLE games ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
@@ -0,0 +1,80 @@
+-- Rastreamento de alterações da biblioteca para sincronização incremental dos clientes.
+-- Cada usuário tem um contador próprio; toda inclusão, alteração ou exclusão em my_games recebe
+-- o próximo valor. A linha do contador fica bloqueada até o commit, então transações concorrentes
+-- do mesmo usuário confirmam versões em ordem e um cliente nunca pula uma alteração.
+CREATE TABLE IF NOT EXISTS library_versions (
+    user_id bigint PRIMARY KEY,
+    version bigint NOT NULL,
+
+    FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE
+);
+
+-- Exclusões ficam registradas para que o cliente também remova o registro da cópia local
+CREATE TABLE IF NOT EXISTS my_game_tombstones (
+    my_game_id bigint PRIMARY KEY,
+    user_id bigint NOT NULL,
+    change_version bigint NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS my_game_tombstones_user_id_change_version_idx ON my_game_tombstones (user_id, change_version);
+
+-- Registros existentes entram na versão 1, a mesma gravada para o dono abaixo
+ALTER TABLE my_games
+    ADD COLUMN IF NOT EXISTS created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS change_version bigint NOT NULL DEFAULT 1;
+
+INSERT INTO library_versions (user_id, version)
+SELECT DISTINCT user_id, 1 FROM my_games
+ON CONFLICT DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS my_games_user_id_change_version_idx ON my_games (user_id, change_version);
+
+CREATE OR REPLACE FUNCTION next_library_version(p_user_id bigint) RETURNS bigint AS $$
+    INSERT INTO library_versions (user_id, version) VALUES (p_user_id, 1)
+    ON CONFLICT (user_id) DO UPDATE SET version = library_versions.version + 1
+    RETURNING version;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION my_games_track_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        NEW.created_at := now();
+    END IF;
+    NEW.updated_at := now();
+    NEW.change_version := next_library_version(NEW.user_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION my_games_track_delete() RETURNS trigger AS $$
+BEGIN
+    -- Na exclusão em cascata do próprio usuário não há cliente a avisar
+    IF EXISTS (SELECT 1 FROM users WHERE id = OLD.user_id) THEN
+        INSERT INTO my_game_tombstones (my_game_id, user_id, change_version, deleted_at)
+        VALUES (OLD.id, OLD.user_id, next_library_version(OLD.user_id), now());
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Nos três casos vale qualquer caminho de escrita: JPA, JDBC em lote, importação e cascatas
+DROP TRIGGER IF EXISTS my_games_track_insert ON my_games;
+CREATE TRIGGER my_games_track_insert BEFORE INSERT ON my_games
+    FOR EACH ROW EXECUTE FUNCTION my_games_track_change();
+
+-- UPDATE que não altera nada não gera versão
+DROP TRIGGER IF EXISTS my_games_track_update ON my_games;
+CREATE TRIGGER my_games_track_update BEFORE UPDATE ON my_games
+    FOR EACH ROW WHEN (OLD.* IS DISTINCT FROM NEW.*) EXECUTE FUNCTION my_games_track_change();
+
+DROP TRIGGER IF EXISTS my_games_track_delete ON my_games;
+CREATE TRIGGER my_games_track_delete AFTER DELETE ON my_games
+    FOR EACH ROW EXECUTE FUNCTION my_games_track_delete();
@@ -0,0 +1,19 @@
+-- Exportações completas de my_games para análise, geradas em segundo plano.
+-- Qualquer instância pode executar um job: a fila é consumida com FOR UPDATE SKIP LOCKED, e um job
+-- RUNNING cujo heartbeat parou (instância derrubada no meio da exportação) volta a ser elegível.
+CREATE TABLE IF NOT EXISTS export_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    format VARCHAR(20) NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    requested_by VARCHAR(100) NOT NULL,
+    rows_written bigint NOT NULL DEFAULT 0,
+    total_rows bigint,
+    file_name VARCHAR(255),
+    error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP WITH TIME ZONE,
+    heartbeat_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS export_jobs_pending_idx ON export_jobs (id) WHERE state IN ('QUEUED', 'RUNNING');
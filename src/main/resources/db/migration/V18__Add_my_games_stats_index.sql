@@ -0,0 +1,5 @@
+-- Estatísticas da biblioteca: o índice cobre o filtro por usuário e todas as colunas agrupadas
+-- (status, plataforma, loja e, para os gêneros, o jogo), então a leitura é só do índice.
+-- O lado dos gêneros usa o UNIQUE (game_id, genre_id) de game_genre.
+CREATE INDEX IF NOT EXISTS my_games_user_id_status_idx ON my_games (user_id, status)
+    INCLUDE (platform_id, source_id, game_id);
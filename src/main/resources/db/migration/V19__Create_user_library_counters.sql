@@ -0,0 +1,94 @@
+-- Totais da biblioteca mantidos a cada escrita, para leitura sem varrer my_games.
+-- Uma linha por (usuário, dimensão, chave): TOTAL com chave vazia, STATUS pelo nome do status,
+-- PLATFORM e SOURCE pelo id. Contadores que chegam a zero ficam na tabela.
+CREATE TABLE IF NOT EXISTS user_library_counters (
+    user_id bigint NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    key VARCHAR(50) NOT NULL,
+    count bigint NOT NULL,
+
+    PRIMARY KEY (user_id, dimension, key),
+    FOREIGN KEY (user_id)
+        REFERENCES users (id)
+        ON DELETE CASCADE
+);
+
+INSERT INTO user_library_counters (user_id, dimension, key, count)
+SELECT user_id,
+       CASE
+           WHEN GROUPING(status) = 0 THEN 'STATUS'
+           WHEN GROUPING(platform_id) = 0 THEN 'PLATFORM'
+           WHEN GROUPING(source_id) = 0 THEN 'SOURCE'
+           ELSE 'TOTAL'
+       END,
+       coalesce(status, platform_id::text, source_id::text, ''),
+       count(*)
+FROM my_games
+GROUP BY GROUPING SETS ((user_id, status), (user_id, platform_id), (user_id, source_id), (user_id))
+ON CONFLICT DO NOTHING;
+
+-- Aplica os deltas de um comando já somados por contador. A ordem da chave no INSERT fixa a ordem
+-- dos bloqueios, então dois comandos concorrentes sobre o mesmo usuário não entram em deadlock.
+-- Usuários que não existem mais (exclusão em cascata do próprio usuário) são ignorados.
+CREATE OR REPLACE FUNCTION adjust_library_counters(p_user_ids bigint[], p_statuses text[], p_platform_ids bigint[],
+                                                   p_source_ids bigint[], p_deltas int[]) RETURNS void AS $$
+    INSERT INTO user_library_counters (user_id, dimension, key, count)
+    SELECT c.user_id, c.dimension, c.key, sum(c.delta)
+    FROM unnest(p_user_ids, p_statuses, p_platform_ids, p_source_ids, p_deltas)
+             AS d(user_id, status, platform_id, source_id, delta)
+    JOIN users u ON u.id = d.user_id
+    CROSS JOIN LATERAL (VALUES
+        (d.user_id, 'TOTAL', '', d.delta),
+        (d.user_id, 'STATUS', d.status, d.delta),
+        (d.user_id, 'PLATFORM', d.platform_id::text, d.delta),
+        (d.user_id, 'SOURCE', d.source_id::text, d.delta)
+    ) AS c(user_id, dimension, key, delta)
+    GROUP BY c.user_id, c.dimension, c.key
+    HAVING sum(c.delta) <> 0
+    ORDER BY c.user_id, c.dimension, c.key
+    ON CONFLICT (user_id, dimension, key) DO UPDATE SET count = user_library_counters.count + EXCLUDED.count;
+$$ LANGUAGE sql;
+
+-- Triggers por comando com tabelas de transição: um INSERT em lote de 10.000 linhas faz uma única
+-- atualização dos contadores, na mesma transação da escrita
+CREATE OR REPLACE FUNCTION my_games_count_insert() RETURNS trigger AS $$
+BEGIN
+    PERFORM adjust_library_counters(array_agg(user_id), array_agg(status::text), array_agg(platform_id),
+                                    array_agg(source_id), array_agg(1)) FROM new_rows;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION my_games_count_update() RETURNS trigger AS $$
+BEGIN
+    PERFORM adjust_library_counters(array_agg(user_id), array_agg(status), array_agg(platform_id),
+                                    array_agg(source_id), array_agg(delta))
+    FROM (SELECT user_id, status::text, platform_id, source_id, -1 AS delta FROM old_rows
+          UNION ALL
+          SELECT user_id, status::text, platform_id, source_id, 1 FROM new_rows) AS d;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION my_games_count_delete() RETURNS trigger AS $$
+BEGIN
+    PERFORM adjust_library_counters(array_agg(user_id), array_agg(status::text), array_agg(platform_id),
+                                    array_agg(source_id), array_agg(-1)) FROM old_rows;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS my_games_count_insert ON my_games;
+CREATE TRIGGER my_games_count_insert AFTER INSERT ON my_games
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION my_games_count_insert();
+
+DROP TRIGGER IF EXISTS my_games_count_update ON my_games;
+CREATE TRIGGER my_games_count_update AFTER UPDATE ON my_games
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION my_games_count_update();
+
+DROP TRIGGER IF EXISTS my_games_count_delete ON my_games;
+CREATE TRIGGER my_games_count_delete AFTER DELETE ON my_games
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION my_games_count_delete();
@@ -0,0 +1,42 @@
+-- Título do jogo copiado em my_games para a paginação por cursor da biblioteca: a ordem
+-- (game_title, id) sai de um único índice de my_games, sem juntar games e ordenar a biblioteca
+-- inteira a cada página
+ALTER TABLE my_games ADD COLUMN IF NOT EXISTS game_title VARCHAR(255);
+
+-- A cópia inicial não é alteração do usuário: sem nova versão nem ajuste de contadores
+ALTER TABLE my_games DISABLE TRIGGER USER;
+UPDATE my_games m SET game_title = g.title FROM games g WHERE g.id = m.game_id AND m.game_title IS NULL;
+ALTER TABLE my_games ENABLE TRIGGER USER;
+
+ALTER TABLE my_games ALTER COLUMN game_title SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS my_games_user_id_game_title_id_idx ON my_games (user_id, game_title, id);
+-- Listagem de todas as bibliotecas (admin)
+CREATE INDEX IF NOT EXISTS my_games_game_title_id_idx ON my_games (game_title, id);
+-- Propagação de renomeações e exclusões em cascata a partir de games
+CREATE INDEX IF NOT EXISTS my_games_game_id_idx ON my_games (game_id);
+
+CREATE OR REPLACE FUNCTION my_games_copy_game_title() RETURNS trigger AS $$
+BEGIN
+    NEW.game_title := (SELECT title FROM games WHERE id = NEW.game_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Vale para qualquer caminho de escrita; a aplicação nunca grava a coluna
+DROP TRIGGER IF EXISTS my_games_copy_game_title ON my_games;
+CREATE TRIGGER my_games_copy_game_title BEFORE INSERT OR UPDATE OF game_id ON my_games
+    FOR EACH ROW EXECUTE FUNCTION my_games_copy_game_title();
+
+-- Renomear o jogo é alteração visível na biblioteca: os registros ganham nova versão
+-- (my_games_track_update) e o cliente recebe o título novo no feed de alterações
+CREATE OR REPLACE FUNCTION games_propagate_title() RETURNS trigger AS $$
+BEGIN
+    UPDATE my_games SET game_title = NEW.title WHERE game_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS games_propagate_title ON games;
+CREATE TRIGGER games_propagate_title AFTER UPDATE OF title ON games
+    FOR EACH ROW WHEN (OLD.title IS DISTINCT FROM NEW.title) EXECUTE FUNCTION games_propagate_title();
@@ -0,0 +1,3 @@
+-- Token de quem pegou o job: uma instância que perdeu o job para outra (heartbeat atrasado) não
+-- grava andamento nem resultado por cima da que o retomou
+ALTER TABLE export_jobs ADD COLUMN IF NOT EXISTS claim_token uuid;
@@ -0,0 +1,5 @@
+-- Maior versão de exclusão já apagada de my_game_tombstones pela retenção. Um cliente com cursor
+-- menor que ela pode ter perdido exclusões e recebe a biblioteca inteira de novo
+ALTER TABLE library_versions ADD COLUMN IF NOT EXISTS pruned_version bigint NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS my_game_tombstones_deleted_at_idx ON my_game_tombstones (deleted_at);
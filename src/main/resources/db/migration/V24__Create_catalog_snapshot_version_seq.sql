@@ -0,0 +1,3 @@
+-- Versões dos snapshots do catálogo. Os arquivos ficam no disco local, que não sobrevive a um
+-- novo deploy; com a versão no banco, um snapshot gerado depois nunca repete a versão de um antigo
+CREATE SEQUENCE IF NOT EXISTS catalog_snapshot_version_seq;
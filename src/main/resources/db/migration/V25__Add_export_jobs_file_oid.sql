@@ -0,0 +1,3 @@
+-- Arquivo da exportação como large object, visível a todas as instâncias. O diretório local de
+-- cada instância passa a ser só cache; o large object de um job EXPIRED já foi apagado
+ALTER TABLE export_jobs ADD COLUMN IF NOT EXISTS file_oid oid;
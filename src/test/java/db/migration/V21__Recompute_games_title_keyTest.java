@@ -0,0 +1,56 @@
+package db.migration;
+
+import io.github.ronaldobertolucci.mygames.MyGamesApplication;
+import jakarta.transaction.Transactional;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = MyGamesApplication.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class V21__Recompute_games_title_keyTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @Transactional
+    void deveRecalcularChavesPreenchidasComUnaccent() throws Exception {
+        Long companyId = jdbcTemplate.queryForObject("INSERT INTO companies (name) VALUES ('dontnod') RETURNING id", Long.class);
+        // Como a V13 preencheu: unaccent expande a ligadura, a normalização da aplicação a mantém
+        jdbcTemplate.update("INSERT INTO games (title, title_key, company_id) VALUES ('æon flux', unaccent('æon flux'), ?)", companyId);
+        jdbcTemplate.update("INSERT INTO games (title, title_key, company_id) VALUES ('pokémon', 'pokemon', ?)", companyId);
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        new V21__Recompute_games_title_key().migrate(new Context() {
+            @Override
+            public Configuration getConfiguration() {
+                return null;
+            }
+
+            @Override
+            public Connection getConnection() {
+                return connection;
+            }
+        });
+
+        assertEquals("æon flux",
+                jdbcTemplate.queryForObject("SELECT title_key FROM games WHERE title = 'æon flux'", String.class));
+        assertEquals("pokemon", jdbcTemplate.queryForObject("SELECT title_key FROM games WHERE title = 'pokémon'", String.class));
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.ronaldobertolucci.mygames.config;
+
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Os testes usam o schema das migrations, não o gerado pelo Hibernate: cada contexto começa
+ * de um banco vazio, com triggers, funções e índices exatamente como em produção.
+ */
+@Configuration
+@Profile("test")
+public class FlywayTestConfiguration {
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
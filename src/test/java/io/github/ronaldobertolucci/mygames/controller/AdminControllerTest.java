@@ -1,8 +1,18 @@
 package io.github.ronaldobertolucci.mygames.controller;
 
 import io.github.ronaldobertolucci.mygames.config.security.SecurityConfigurations;
+import io.github.ronaldobertolucci.mygames.model.catalog.BulkLoadResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncState;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncStatusDto;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
 import io.github.ronaldobertolucci.mygames.model.company.CompanyDto;
+import io.github.ronaldobertolucci.mygames.model.export.ExportJobDto;
+import io.github.ronaldobertolucci.mygames.model.export.ExportJobState;
 import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryCountersReconcileResultDto;
 import io.github.ronaldobertolucci.mygames.model.mygame.MyGameDto;
 import io.github.ronaldobertolucci.mygames.model.mygame.Status;
 import io.github.ronaldobertolucci.mygames.model.platform.PlatformDto;
@@ -10,10 +20,16 @@ import io.github.ronaldobertolucci.mygames.model.source.SourceDto;
 import io.github.ronaldobertolucci.mygames.model.user.Role;
 import io.github.ronaldobertolucci.mygames.model.user.UserDto;
 import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkLoadService;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSyncService;
+import io.github.ronaldobertolucci.mygames.service.export.ExportJobFile;
+import io.github.ronaldobertolucci.mygames.service.export.ExportJobService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryCounterService;
 import io.github.ronaldobertolucci.mygames.service.mygame.MyGameService;
 import io.github.ronaldobertolucci.mygames.service.security.TokenService;
 import io.github.ronaldobertolucci.mygames.service.user.UserService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
@@ -22,13 +38,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +74,21 @@ class AdminControllerTest {
     @MockitoBean
     private MyGameService myGameService;
 
+    @MockitoBean
+    private CatalogBulkLoadService catalogBulkLoadService;
+
+    @MockitoBean
+    private CatalogSyncService catalogSyncService;
+
+    @MockitoBean
+    private ExportJobService exportJobService;
+
+    @MockitoBean
+    private LibraryCounterService libraryCounterService;
+
+    @TempDir
+    private Path tempDir;
+
     @Test
     void deveProbirListarMeusJogosParaNaoAutenticado() throws Exception {
         GameDto gameDto = new GameDto(1L, "game title", "game description", LocalDate.parse("2026-01-01"),
@@ -199,4 +237,151 @@ class AdminControllerTest {
                         .with(user("user@email.com").roles("ADMIN")))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveProibirCargaDoCatalogoParaAutenticadoUser() throws Exception {
+        mockMvc.perform(post("/admin/catalog/bulk-load")
+                        .contentType("text/csv")
+                        .content("title,company\nThe Witcher 3,CD Projekt\n")
+                        .with(user("user@email.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveCarregarCatalogoEmCsvParaAutenticadoAdmin() throws Exception {
+        when(catalogBulkLoadService.load(any(), eq(CatalogFileFormat.CSV)))
+                .thenReturn(new BulkLoadResultDto(1, 1, 1, 0, 0));
+
+        mockMvc.perform(post("/admin/catalog/bulk-load")
+                        .contentType("text/csv")
+                        .content("title,company\nThe Witcher 3,CD Projekt\n")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(1))
+                .andExpect(jsonPath("$.games_created").value(1));
+    }
+
+    @Test
+    void deveCarregarCatalogoEmNdjsonParaAutenticadoAdmin() throws Exception {
+        when(catalogBulkLoadService.load(any(), eq(CatalogFileFormat.NDJSON)))
+                .thenReturn(new BulkLoadResultDto(1, 0, 1, 0, 0));
+
+        mockMvc.perform(post("/admin/catalog/bulk-load")
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\": \"The Witcher 3\", \"company\": \"CD Projekt\"}\n")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games_created").value(1));
+    }
+
+    @Test
+    void deveProibirSincronizarCatalogoParaAutenticadoUser() throws Exception {
+        mockMvc.perform(post("/admin/catalog/sync")
+                        .with(user("user@email.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveIniciarSincronizacaoDoCatalogoParaAutenticadoAdmin() throws Exception {
+        when(catalogSyncService.start())
+                .thenReturn(CatalogSyncStatusDto.running("queued", 0, LocalDateTime.parse("2026-01-01T10:00:00")));
+
+        mockMvc.perform(post("/admin/catalog/sync")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value(CatalogSyncState.RUNNING.name()))
+                .andExpect(jsonPath("$.step").value("queued"));
+    }
+
+    @Test
+    void deveMostrarAndamentoDaSincronizacaoParaAutenticadoAdmin() throws Exception {
+        CatalogSyncStatusDto status = CatalogSyncStatusDto.running("reading feed", 20000, LocalDateTime.parse("2026-01-01T10:00:00"))
+                .completed(new CatalogSyncResultDto(20000, 10, 5, 2, 19985, 0, 0));
+        when(catalogSyncService.status()).thenReturn(status);
+
+        mockMvc.perform(get("/admin/catalog/sync")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value(CatalogSyncState.COMPLETED.name()))
+                .andExpect(jsonPath("$.records_read").value(20000))
+                .andExpect(jsonPath("$.result.updated").value(5));
+    }
+
+    @Test
+    void deveProibirCriarExportacaoParaAutenticadoUser() throws Exception {
+        mockMvc.perform(post("/admin/exports")
+                        .with(user("user@email.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveCriarExportacaoParaAutenticadoAdmin() throws Exception {
+        when(exportJobService.create(ExportFormat.CSV, "admin@admin.com")).thenReturn(getExportJob(ExportJobState.QUEUED));
+
+        mockMvc.perform(post("/admin/exports")
+                        .param("format", "csv")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/admin/exports/7"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.state").value(ExportJobState.QUEUED.name()));
+    }
+
+    @Test
+    void deveMostrarAndamentoDaExportacaoParaAutenticadoAdmin() throws Exception {
+        when(exportJobService.status(7L)).thenReturn(getExportJob(ExportJobState.RUNNING));
+
+        mockMvc.perform(get("/admin/exports/7")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value(ExportJobState.RUNNING.name()))
+                .andExpect(jsonPath("$.rows_written").value(5000))
+                .andExpect(jsonPath("$.total_rows").value(12000));
+    }
+
+    @Test
+    void deveBaixarArquivoDaExportacaoParaAutenticadoAdmin() throws Exception {
+        Path file = tempDir.resolve("export-7.csv.gz");
+        Files.write(file, new byte[]{31, -117, 8, 0});
+        when(exportJobService.file(7L)).thenReturn(new ExportJobFile(ExportFormat.CSV, file));
+
+        mockMvc.perform(get("/admin/exports/7/file")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"export-7.csv.gz\""))
+                .andExpect(content().bytes(new byte[]{31, -117, 8, 0}));
+    }
+
+    @Test
+    void deveFalharAoBaixarExportacaoNaoConcluida() throws Exception {
+        when(exportJobService.file(7L)).thenThrow(new UnprocessableEntity("Export job 7 is RUNNING"));
+
+        mockMvc.perform(get("/admin/exports/7/file")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    void deveProibirConferirContadoresParaAutenticadoUser() throws Exception {
+        mockMvc.perform(post("/admin/library-counters/reconcile")
+                        .with(user("user@email.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveConferirContadoresParaAutenticadoAdmin() throws Exception {
+        when(libraryCounterService.reconcile()).thenReturn(new LibraryCountersReconcileResultDto(120, 3));
+
+        mockMvc.perform(post("/admin/library-counters/reconcile")
+                        .with(user("admin@admin.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users").value(120))
+                .andExpect(jsonPath("$.corrected").value(3));
+    }
+
+    private ExportJobDto getExportJob(ExportJobState state) {
+        return new ExportJobDto(7L, ExportFormat.CSV, state, "admin@admin.com", 5000, 12000L,
+                Instant.parse("2026-01-01T10:00:00Z"), null, null, null);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.ronaldobertolucci.mygames.controller;
+
+import io.github.ronaldobertolucci.mygames.config.security.SecurityConfigurations;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.autocomplete.AutocompleteService;
+import io.github.ronaldobertolucci.mygames.service.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AutocompleteController.class)
+@Import({SecurityConfigurations.class})
+class AutocompleteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private AutocompleteService autocompleteService;
+
+    @Test
+    void deveProibirAutocompletarParaNaoAutenticado() throws Exception {
+        mockMvc.perform(get("/autocomplete").param("prefix", "wit"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveAutocompletarParaAutenticado() throws Exception {
+        when(autocompleteService.suggest(eq("wit"), eq(Set.of(CatalogType.GAME)), eq(5)))
+                .thenReturn(List.of(new CatalogEntryDto(CatalogType.GAME, 1L, "the witcher")));
+
+        mockMvc.perform(get("/autocomplete")
+                        .param("prefix", "wit")
+                        .param("type", "GAME")
+                        .param("limit", "5")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("GAME"))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].name").value("the witcher"));
+    }
+
+    @Test
+    void deveLimitarQuantidadeDeSugestoes() throws Exception {
+        when(autocompleteService.suggest(eq("wit"), eq(null), eq(50)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/autocomplete")
+                        .param("prefix", "wit")
+                        .param("limit", "1000")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void deveRetornarBadRequestSemPrefixo() throws Exception {
+        mockMvc.perform(get("/autocomplete")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.ronaldobertolucci.mygames.controller;
+
+import io.github.ronaldobertolucci.mygames.config.security.SecurityConfigurations;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSnapshotFile;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogSnapshotService;
+import io.github.ronaldobertolucci.mygames.service.security.TokenService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CatalogController.class)
+@Import({SecurityConfigurations.class})
+class CatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void deveProibirSnapshotParaNaoAutenticado() throws Exception {
+        mockMvc.perform(get("/catalog/snapshot"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveEnviarSnapshotComprimidoComVersao() throws Exception {
+        String content = "{\"type\":\"COMPANY\",\"id\":1,\"name\":\"valve\"}\n";
+        when(catalogSnapshotService.latest()).thenReturn(new CatalogSnapshotFile(3, gzip("catalog-3.ndjson.gz", content)));
+
+        byte[] body = mockMvc.perform(get("/catalog/snapshot")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Catalog-Version", "3"))
+                .andExpect(header().string("ETag", "\"catalog-3\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(content, gunzip(body));
+    }
+
+    @Test
+    void deveResponderNaoModificadoQuandoClienteTiverOSnapshotAtual() throws Exception {
+        when(catalogSnapshotService.latest()).thenReturn(new CatalogSnapshotFile(3, gzip("catalog-3.ndjson.gz", "")));
+
+        mockMvc.perform(get("/catalog/snapshot")
+                        .header("If-None-Match", "\"catalog-3\"")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void deveEnviarDiffDesdeAVersaoDoCliente() throws Exception {
+        String content = "{\"type\":\"GAME\",\"id\":7,\"deleted\":true}\n";
+        when(catalogSnapshotService.diff(2))
+                .thenReturn(Optional.of(new CatalogSnapshotFile(4, gzip("catalog-2-4.diff.ndjson.gz", content))));
+
+        byte[] body = mockMvc.perform(get("/catalog/diff")
+                        .param("from", "2")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Catalog-Version", "4"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(content, gunzip(body));
+    }
+
+    @Test
+    void deveResponderSemConteudoQuandoNaoHouverAlteracoes() throws Exception {
+        when(catalogSnapshotService.diff(4)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/catalog/diff")
+                        .param("from", "4")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Catalog-Version", "4"));
+    }
+
+    @Test
+    void deveRetornar404QuandoVersaoDoDiffNaoExistir() throws Exception {
+        when(catalogSnapshotService.diff(1)).thenThrow(EntityNotFoundException.class);
+
+        mockMvc.perform(get("/catalog/diff")
+                        .param("from", "1")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isNotFound());
+    }
+
+    private Path gzip(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
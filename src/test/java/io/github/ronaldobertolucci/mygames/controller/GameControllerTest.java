@@ -3,11 +3,20 @@ package io.github.ronaldobertolucci.mygames.controller;
 import io.github.ronaldobertolucci.mygames.config.security.SecurityConfigurations;
 import io.github.ronaldobertolucci.mygames.model.company.Company;
 import io.github.ronaldobertolucci.mygames.model.company.CompanyDto;
+import io.github.ronaldobertolucci.mygames.model.facet.FacetCountDto;
+import io.github.ronaldobertolucci.mygames.model.facet.FacetedGamesDto;
+import io.github.ronaldobertolucci.mygames.model.facet.FacetsDto;
+import io.github.ronaldobertolucci.mygames.model.facet.GameFacetFilter;
+import io.github.ronaldobertolucci.mygames.model.facet.YearCountDto;
+import io.github.ronaldobertolucci.mygames.model.game.BulkLinkResultDto;
 import io.github.ronaldobertolucci.mygames.model.game.Game;
 import io.github.ronaldobertolucci.mygames.model.game.GameDto;
 import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.pagination.CursorPage;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.theme.Theme;
 import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.facet.FacetService;
 import io.github.ronaldobertolucci.mygames.service.game.GameService;
 import io.github.ronaldobertolucci.mygames.service.security.TokenService;
 import jakarta.persistence.EntityNotFoundException;
@@ -31,10 +40,15 @@ import java.util.HashSet;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -54,6 +68,9 @@ class GameControllerTest {
     @MockitoBean
     private GameService gameService;
 
+    @MockitoBean
+    private FacetService facetService;
+
     @Test
     void deveProibirListarTodosOsJogosParaNaoAutenticado() throws Exception {
         Company company = new Company();
@@ -108,6 +125,136 @@ class GameControllerTest {
                 .andExpect(jsonPath("$.content[0].company.name").value("company name"));
     }
 
+    @Test
+    void deveListarJogosPorCursorParaAutenticado() throws Exception {
+        GameDto game = new GameDto(2L, "game title", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>());
+        String nextCursor = new KeysetCursor("game title", 2L).encode();
+        when(gameService.findAllAfter(eq(new KeysetCursor("previous title", 1L)), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(game), 20, nextCursor));
+
+        mockMvc.perform(get("/games")
+                        .param("cursor", new KeysetCursor("previous title", 1L).encode())
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("game title"))
+                .andExpect(jsonPath("$.size").value(20))
+                .andExpect(jsonPath("$.next_cursor").value(nextCursor));
+    }
+
+    @Test
+    void deveListarPrimeiraPaginaPorCursorInicial() throws Exception {
+        when(gameService.findAllAfter(eq(KeysetCursor.FIRST), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(), 20, null));
+
+        mockMvc.perform(get("/games")
+                        .param("cursor", KeysetCursor.START)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    void deveRetornarBadRequestParaCursorVazio() throws Exception {
+        mockMvc.perform(get("/games")
+                        .param("cursor", "")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveRetornarBadRequestParaCursorComOrdenacao() throws Exception {
+        mockMvc.perform(get("/games")
+                        .param("cursor", KeysetCursor.START)
+                        .param("sort", "id,desc")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveRetornarBadRequestParaCursorNaBuscaAproximada() throws Exception {
+        mockMvc.perform(get("/games")
+                        .param("title", "witchr")
+                        .param("fuzzy", "true")
+                        .param("cursor", KeysetCursor.START)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveRetornarBadRequestParaCursorInvalido() throws Exception {
+        mockMvc.perform(get("/games")
+                        .param("cursor", "!!invalido!!")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveListarJogosPeloTituloAproximadoParaAutenticado() throws Exception {
+        GameDto game = new GameDto(1L, "the witcher", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>());
+        when(gameService.findByTitleFuzzy(eq("witchr"), any())).thenReturn(new PageImpl<>(List.of(game), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/games")
+                        .param("title", "witchr")
+                        .param("fuzzy", "true")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("the witcher"));
+    }
+
+    @Test
+    void deveFiltrarJogosPorFacetasParaAutenticado() throws Exception {
+        GameDto game = new GameDto(1L, "the witcher 3", "game description", LocalDate.parse("2015-05-19"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>());
+        FacetsDto facets = new FacetsDto(
+                List.of(new FacetCountDto(1L, "rpg", 1)),
+                List.of(new FacetCountDto(2L, "fantasy", 1)),
+                List.of(new FacetCountDto(1L, "company name", 1)),
+                List.of(new YearCountDto(2015, 1)));
+        when(facetService.search(argThat((GameFacetFilter filter) -> filter != null
+                && List.of(1L).equals(filter.getGenreIds())
+                && List.of(2L).equals(filter.getThemeIds())
+                && filter.getCompanyIds() == null
+                && Integer.valueOf(2015).equals(filter.getYearFrom())
+                && Integer.valueOf(2020).equals(filter.getYearTo())), any()))
+                .thenReturn(new FacetedGamesDto(new PageImpl<>(List.of(game), PageRequest.of(0, 20), 1), facets));
+
+        mockMvc.perform(get("/games/facets")
+                        .param("genre_id", "1")
+                        .param("theme_id", "2")
+                        .param("year_from", "2015")
+                        .param("year_to", "2020")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games.content[0].title").value("the witcher 3"))
+                .andExpect(jsonPath("$.facets.genres[0].name").value("rpg"))
+                .andExpect(jsonPath("$.facets.themes[0].count").value(1))
+                .andExpect(jsonPath("$.facets.years[0].year").value(2015));
+    }
+
+    @Test
+    void deveProibirFiltrarJogosPorFacetasParaNaoAutenticado() throws Exception {
+        mockMvc.perform(get("/games/facets").param("genre_id", "1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveBuscarJogosPorTextoParaAutenticado() throws Exception {
+        GameDto game = new GameDto(1L, "game title", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>());
+        when(gameService.search(eq("description"), any())).thenReturn(new PageImpl<>(List.of(game), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/games/search")
+                        .param("q", "description")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("game title"));
+    }
+
+    @Test
+    void deveRetornarBadRequestParaBuscaSemTermos() throws Exception {
+        mockMvc.perform(get("/games/search")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deveProibirDetalharJogoParaNaoAutenticado() throws Exception {
         when(gameService.detail(1L)).thenReturn(new GameDto(1L, "game title", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>()));
@@ -140,6 +287,50 @@ class GameControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void deveAlterarParcialmenteQuandoValidoParaAutenticado() throws Exception {
+        String requestBody = """
+            {
+                "genre_ids": [2, 3]
+            }
+            """;
+
+        when(gameService.patch(eq(1L), any())).thenReturn(new GameDto(1L, "game title", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>()));
+
+        mockMvc.perform(patch("/games/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("game title"));
+    }
+
+    @Test
+    void deveFalharQuandoTituloVazioNaAlteracaoParcial() throws Exception {
+        String requestBody = """
+            {
+                "title": "  "
+            }
+            """;
+
+        mockMvc.perform(patch("/games/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveFalharQuandoNaoEncontrarJogoNaAlteracaoParcial() throws Exception {
+        when(gameService.patch(eq(1L), any())).thenThrow(EntityNotFoundException.class);
+
+        mockMvc.perform(patch("/games/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"", " ", "\t", "\n"})
     void deveFalharQuandoTituloInvalidoNaCriacao(String title) throws Exception {
@@ -368,6 +559,74 @@ class GameControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void deveAdicionarGeneroERetornarJogoParaAutenticado() throws Exception {
+        when(gameService.detail(1L)).thenReturn(new GameDto(1L, "game title", "game description", LocalDate.parse("2026-02-01"), new CompanyDto(1L, "company name"), new ArrayList<>(), new ArrayList<>()));
+
+        mockMvc.perform(post("/games/{id}/genres/{genreId}", 1L, 2L)
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("game title"));
+    }
+
+    @Test
+    void deveAdicionarGeneroComRespostaMinimaParaAutenticado() throws Exception {
+        mockMvc.perform(post("/games/{id}/genres/{genreId}", 1L, 2L)
+                        .header("Prefer", "return=minimal")
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+
+        verify(gameService).addGenre(1L, 2L);
+        verify(gameService, never()).detail(any());
+    }
+
+    @Test
+    void deveRemoverTemaComRespostaMinimaParaAutenticado() throws Exception {
+        mockMvc.perform(delete("/games/{id}/themes/{themeId}", 1L, 2L)
+                        .header("Prefer", "return=minimal")
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isNoContent());
+
+        verify(gameService).removeTheme(1L, 2L);
+    }
+
+    @Test
+    void deveAdicionarGenerosEmMassaParaAutenticado() throws Exception {
+        String requestBody = """
+            {
+                "game_ids": [1, 2, 3],
+                "genre_ids": [4, 5]
+            }
+            """;
+        when(gameService.addGenres(any())).thenReturn(new BulkLinkResultDto(6, 4, 2));
+
+        mockMvc.perform(post("/games/bulk/genres")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(6))
+                .andExpect(jsonPath("$.applied").value(4))
+                .andExpect(jsonPath("$.skipped").value(2));
+    }
+
+    @Test
+    void deveFalharQuandoListaVaziaNaAdicaoDeTemasEmMassa() throws Exception {
+        String requestBody = """
+            {
+                "game_ids": [],
+                "theme_ids": [4]
+            }
+            """;
+
+        mockMvc.perform(post("/games/bulk/themes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER", "ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deveProibirDelecaoDeThemaParaNaoAutenticado() throws Exception {
         doThrow(new ObjectRetrievalFailureException(Theme.class, 1L))
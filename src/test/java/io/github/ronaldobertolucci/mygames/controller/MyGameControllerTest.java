@@ -2,14 +2,30 @@ package io.github.ronaldobertolucci.mygames.controller;
 
 import io.github.ronaldobertolucci.mygames.config.security.SecurityConfigurations;
 import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.mygame.BulkStatusResultDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
 import io.github.ronaldobertolucci.mygames.model.game.Game;
 import io.github.ronaldobertolucci.mygames.model.mygame.MyGame;
+import io.github.ronaldobertolucci.mygames.model.mygame.MyGameChangesDto;
 import io.github.ronaldobertolucci.mygames.model.mygame.MyGameDto;
 import io.github.ronaldobertolucci.mygames.model.mygame.MyGameFilter;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryEntryDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryCountsDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryImportResultDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryStatsDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibrarySyncResultDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import io.github.ronaldobertolucci.mygames.model.mygame.UnmatchedLineDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.UpsertMyGameResultDto;
 import io.github.ronaldobertolucci.mygames.model.platform.Platform;
 import io.github.ronaldobertolucci.mygames.model.source.Source;
 import io.github.ronaldobertolucci.mygames.model.user.User;
 import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryCounterService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryExportService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryImportService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibraryStatsService;
+import io.github.ronaldobertolucci.mygames.service.mygame.LibrarySyncService;
 import io.github.ronaldobertolucci.mygames.service.mygame.MyGameService;
 import io.github.ronaldobertolucci.mygames.service.security.TokenService;
 import jakarta.persistence.EntityNotFoundException;
@@ -21,18 +37,28 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MyGameController.class)
@@ -51,6 +77,21 @@ class MyGameControllerTest {
     @MockitoBean
     private MyGameService myGameService;
 
+    @MockitoBean
+    private LibraryImportService libraryImportService;
+
+    @MockitoBean
+    private LibrarySyncService librarySyncService;
+
+    @MockitoBean
+    private LibraryExportService libraryExportService;
+
+    @MockitoBean
+    private LibraryStatsService libraryStatsService;
+
+    @MockitoBean
+    private LibraryCounterService libraryCounterService;
+
     @Test
     void deveProbirListarTodosOsMeusJogosParaNaoAutenticado() throws Exception {
         List<MyGameDto> myGames = List.of(new MyGameDto(getGenericMyGame()));
@@ -212,6 +253,53 @@ class MyGameControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void deveDevolverRegistroExistenteQuandoPreferirIgnorarDuplicados() throws Exception {
+        String requestBody = """
+            {
+                "game_id": 1,
+                "platform_id": 1,
+                "source_id": 1,
+                "status": "PLAYING"
+            }
+            """;
+
+        when(myGameService.upsert(any(), eq(false), eq("test")))
+                .thenReturn(new UpsertMyGameResultDto(new MyGameDto(getGenericMyGame()), false));
+
+        mockMvc.perform(post("/my-games")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Prefer", "resolution=ignore-duplicates")
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "resolution=ignore-duplicates"))
+                .andExpect(jsonPath("$.game.title").value("game title"));
+    }
+
+    @Test
+    void deveCriarQuandoPreferirMesclarDuplicadosENaoExistir() throws Exception {
+        String requestBody = """
+            {
+                "game_id": 1,
+                "platform_id": 1,
+                "source_id": 1,
+                "status": "PLAYING"
+            }
+            """;
+
+        when(myGameService.upsert(any(), eq(true), eq("test")))
+                .thenReturn(new UpsertMyGameResultDto(new MyGameDto(getGenericMyGame()), true));
+
+        mockMvc.perform(post("/my-games")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Prefer", "resolution=merge-duplicates")
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Preference-Applied", "resolution=merge-duplicates"));
+    }
+
     @Test
     void deveFalharQuandoIdNuloNaAtualizacao() throws Exception {
         String requestBody = """
@@ -437,6 +525,196 @@ class MyGameControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void deveProibirImportarBibliotecaParaNaoAutenticado() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "steam.csv", "text/csv", "title\nPortal 2\n".getBytes());
+
+        mockMvc.perform(multipart("/my-games/import").file(file))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveImportarBibliotecaParaAutenticado() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "steam.csv", "text/csv", "title\nPortal 2\nHalf-Life 3\n".getBytes());
+        when(libraryImportService.importLibrary(any(), eq("steam.csv"), eq("text/csv"), eq(1L), eq(2L), eq("test")))
+                .thenReturn(new LibraryImportResultDto(2, 1, 0, List.of(new UnmatchedLineDto(3, "Half-Life 3", "game not found"))));
+
+        mockMvc.perform(multipart("/my-games/import").file(file)
+                        .param("platform_id", "1")
+                        .param("source_id", "2")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.already_in_library").value(0))
+                .andExpect(jsonPath("$.unmatched[0].line").value(3))
+                .andExpect(jsonPath("$.unmatched[0].reason").value("game not found"));
+    }
+
+    @Test
+    void deveRetornar400AoImportarBibliotecaSemArquivo() throws Exception {
+        mockMvc.perform(multipart("/my-games/import")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveAtualizarStatusEmMassaParaAutenticado() throws Exception {
+        String requestBody = """
+            {
+                "filter": {"platform_id": 2, "statuses": ["PLAYING"]},
+                "status": "ON_HOLD"
+            }
+            """;
+
+        when(myGameService.updateStatus(any(), eq("test"))).thenReturn(new BulkStatusResultDto(3));
+
+        mockMvc.perform(patch("/my-games/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3));
+    }
+
+    @Test
+    void deveFalharQuandoStatusNuloNaAtualizacaoEmMassa() throws Exception {
+        String requestBody = """
+            {
+                "ids": [1, 2]
+            }
+            """;
+
+        mockMvc.perform(patch("/my-games/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveProibirAtualizarStatusEmMassaParaNaoAutenticado() throws Exception {
+        mockMvc.perform(patch("/my-games/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1], \"status\": \"COMPLETED\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveSincronizarBibliotecaParaAutenticado() throws Exception {
+        String requestBody = """
+            {
+                "games": [
+                    {"game_id": 1, "platform_id": 1, "source_id": 1, "status": "COMPLETED"},
+                    {"game_id": 2, "platform_id": 1, "source_id": 1}
+                ]
+            }
+            """;
+
+        when(librarySyncService.sync(any(), eq("test"))).thenReturn(new LibrarySyncResultDto(
+                List.of(new LibraryEntryDto(10L, 2L, 1L, 1L, Status.NOT_PLAYED)), List.of(), List.of(), 1));
+
+        mockMvc.perform(put("/my-games/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted[0].game_id").value(2))
+                .andExpect(jsonPath("$.unchanged").value(1));
+    }
+
+    @Test
+    void deveFalharQuandoJogoSemPlataformaNaSincronizacao() throws Exception {
+        String requestBody = """
+            {
+                "games": [{"game_id": 1, "source_id": 1}]
+            }
+            """;
+
+        mockMvc.perform(put("/my-games/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveListarAlteracoesDesdeVersaoParaAutenticado() throws Exception {
+        when(myGameService.findChangesSince("test", 7, 1000))
+                .thenReturn(new MyGameChangesDto(9, false, false, List.of(new MyGameDto(getGenericMyGame())), List.of(3L)));
+
+        mockMvc.perform(get("/my-games/changes")
+                        .param("since", "7")
+                        .param("limit", "5000")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(9))
+                .andExpect(jsonPath("$.has_more").value(false))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.deleted[0]").value(3));
+    }
+
+    @Test
+    void deveMostrarEstatisticasDaBibliotecaParaAutenticado() throws Exception {
+        when(libraryStatsService.stats("test")).thenReturn(new LibraryStatsDto(3, Map.of(Status.COMPLETED, 2L, Status.PLAYING, 1L),
+                List.of(new LibraryStatsDto.Count(1L, "pc", 3)), List.of(new LibraryStatsDto.Count(2L, "steam", 3)),
+                List.of(new LibraryStatsDto.Count(3L, "rpg", 2))));
+
+        mockMvc.perform(get("/my-games/stats")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.by_status.COMPLETED").value(2))
+                .andExpect(jsonPath("$.by_platform[0].name").value("pc"))
+                .andExpect(jsonPath("$.by_genre[0].count").value(2));
+    }
+
+    @Test
+    void deveMostrarContadoresDaBibliotecaParaAutenticado() throws Exception {
+        when(libraryCounterService.counts("test")).thenReturn(new LibraryCountsDto(312, Map.of(Status.COMPLETED, 40L),
+                Map.of(1L, 312L), Map.of(2L, 312L)));
+
+        mockMvc.perform(get("/my-games/counts")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(312))
+                .andExpect(jsonPath("$.by_status.COMPLETED").value(40))
+                .andExpect(jsonPath("$.by_platform.1").value(312));
+    }
+
+    @Test
+    void deveExportarMeusJogosEmStreaming() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(libraryExportService).export(eq("test"), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/my-games/export")
+                        .with(user("test").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"my-games.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void deveFalharQuandoFormatoDeExportacaoNaoExistir() throws Exception {
+        mockMvc.perform(get("/my-games/export")
+                        .param("format", "xml")
+                        .with(user("test").roles("USER")))
+                .andExpect(status().is(422));
+    }
+
+    @Test
+    void deveProibirExportarMeusJogosParaNaoAutenticado() throws Exception {
+        mockMvc.perform(get("/my-games/export"))
+                .andExpect(status().isForbidden());
+    }
+
     private MyGame getGenericMyGame() {
         MyGame myGame = new MyGame();
         myGame.setUser(getUser(1L, "Username"));
@@ -481,4 +759,4 @@ class MyGameControllerTest {
         game.setCompany(company);
         return game;
     }
-}
\ No newline at end of file
+}
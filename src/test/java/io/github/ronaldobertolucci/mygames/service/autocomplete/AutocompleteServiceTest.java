@@ -0,0 +1,117 @@
+package io.github.ronaldobertolucci.mygames.service.autocomplete;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogBulkChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.company.CompanyService;
+import io.github.ronaldobertolucci.mygames.service.game.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AutocompleteServiceTest {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Test
+    void deveSugerirPorPrefixoIgnorandoAcentos() {
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "pokémon red"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 2L, "pokemon blue"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 3L, "portal"));
+
+        List<CatalogEntryDto> suggestions = autocompleteService.suggest("POKE", Set.of(CatalogType.GAME), 10);
+
+        assertEquals(List.of(2L, 1L), suggestions.stream().map(CatalogEntryDto::id).toList());
+        assertEquals("pokémon red", suggestions.get(1).name());
+    }
+
+    @Test
+    void deveSugerirEntreTiposRespeitandoLimite() {
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "the witcher"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.COMPANY, 1L, "thq"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GENRE, 1L, "tactics"));
+
+        List<CatalogEntryDto> suggestions = autocompleteService.suggest("th", null, 10);
+        List<CatalogEntryDto> limited = autocompleteService.suggest("t", null, 2);
+
+        assertEquals(List.of(CatalogType.GAME, CatalogType.COMPANY), suggestions.stream().map(CatalogEntryDto::type).toList());
+        assertEquals(List.of("tactics", "the witcher"), limited.stream().map(CatalogEntryDto::name).toList());
+    }
+
+    @Test
+    void deveAtualizarERemoverEntradas() {
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.PLATFORM, 1L, "playstation"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.PLATFORM, 1L, "xbox"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.PLATFORM, 2L, "pc"));
+
+        assertEquals(List.of("pc"), autocompleteService.suggest("p", null, 10).stream().map(CatalogEntryDto::name).toList());
+        assertEquals(List.of("xbox"), autocompleteService.suggest("x", null, 10).stream().map(CatalogEntryDto::name).toList());
+
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.removed(CatalogType.PLATFORM, 2L));
+
+        assertTrue(autocompleteService.suggest("p", null, 10).isEmpty());
+    }
+
+    @Test
+    void deveRemoverJogosDaCompanhiaExcluidaSemRecarregarOIndice() {
+        Company company = new Company();
+        company.setName("Valve");
+        company = companyRepository.save(company);
+        gameService.save(new SaveGameDto("Portal", null, null, company.getId(), List.of(), List.of()));
+        // Fora do banco: só continua no índice se ele não for recarregado
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, -1L, "portal knights"));
+
+        companyService.delete(company.getId());
+
+        assertEquals(List.of("portal knights"), autocompleteService.suggest("port", Set.of(CatalogType.GAME), 10).stream()
+                .map(CatalogEntryDto::name).toList());
+        assertTrue(autocompleteService.suggest("valve", Set.of(CatalogType.COMPANY), 10).isEmpty());
+    }
+
+    @Test
+    void deveDescartarNomesQueNaoEstaoMaisNoBancoAoRecarregar() {
+        Company company = new Company();
+        company.setName("Valve");
+        company = companyRepository.save(company);
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.COMPANY, -1L, "valhalla"));
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GENRE, -1L, "valkyrie"));
+
+        autocompleteService.onCatalogBulkChanged(new CatalogBulkChangedEvent());
+
+        assertEquals(List.of(company.getId()), autocompleteService.suggest("val", null, 10).stream()
+                .map(CatalogEntryDto::id).toList());
+    }
+
+    @Test
+    void deveRetornarVazioParaPrefixoEmBranco() {
+        autocompleteService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "the witcher"));
+
+        assertTrue(autocompleteService.suggest(" ", null, 10).isEmpty());
+    }
+}
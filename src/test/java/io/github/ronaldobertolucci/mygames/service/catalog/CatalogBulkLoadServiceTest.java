@@ -0,0 +1,170 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.catalog.BulkLoadResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreDto;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeDto;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.game.GameService;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CatalogBulkLoadServiceTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private CatalogBulkLoadService catalogBulkLoadService;
+
+    @Test
+    @Transactional
+    void deveCarregarCatalogoEmCsv() {
+        genreRepository.save(getGenre("RPG"));
+        genreRepository.save(getGenre("Action"));
+        themeRepository.save(getTheme("Fantasy"));
+        String csv = """
+                title,description,released_at,company,genres,themes
+                The Witcher 3,"Caça, monstros e \"\"Gwent\"\"\",2015-05-19,CD Projekt,RPG|Action,Fantasy
+                Cyberpunk 2077,,2020-12-10, cd projekt ,RPG|Shooter,
+
+                Dragon Age,"Linha um
+                linha dois",,Bioware,rpg,fantasy
+                """;
+
+        BulkLoadResultDto result = catalogBulkLoadService.load(input(csv), CatalogFileFormat.CSV);
+
+        assertEquals(new BulkLoadResultDto(3, 2, 3, 4, 2), result);
+        GameDto witcher = findByTitle("the witcher 3");
+        assertEquals("caça, monstros e \"gwent\"", witcher.description());
+        assertEquals(LocalDate.parse("2015-05-19"), witcher.releasedAt());
+        assertEquals("cd projekt", witcher.company().name());
+        assertEquals(Set.of("rpg", "action"), Set.copyOf(witcher.genres().stream().map(GenreDto::name).toList()));
+        assertEquals(List.of("fantasy"), witcher.themes().stream().map(ThemeDto::name).toList());
+        assertEquals("linha um\nlinha dois", findByTitle("dragon age").description());
+        assertEquals(findByTitle("cyberpunk 2077").company().id(), witcher.company().id());
+    }
+
+    @Test
+    @Transactional
+    void deveCarregarCatalogoEmNdjson() {
+        genreRepository.save(getGenre("RPG"));
+        String ndjson = """
+                {"title": "The Witcher 3", "released_at": "2015-05-19", "company": "CD Projekt", "genres": ["RPG"]}
+
+                {"title": "Cyberpunk 2077", "company": "CD Projekt", "themes": ["Sci-fi"]}
+                """;
+
+        BulkLoadResultDto result = catalogBulkLoadService.load(input(ndjson), CatalogFileFormat.NDJSON);
+
+        assertEquals(new BulkLoadResultDto(2, 1, 2, 1, 0), result);
+        assertEquals(LocalDate.parse("2015-05-19"), findByTitle("the witcher 3").releasedAt());
+        assertTrue(findByTitle("cyberpunk 2077").themes().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveManterJogosExistentesEAcrescentarAssociacoes() {
+        Genre rpg = genreRepository.save(getGenre("RPG"));
+        genreRepository.save(getGenre("Action"));
+        Company cdProjekt = companyRepository.save(getCompany("CD Projekt"));
+        gameService.save(new SaveGameDto("The Witcher 3", "original", null, cdProjekt.getId(), List.of(rpg.getId()), List.of()));
+        String csv = """
+                title,description,company,genres
+                The Witcher 3,substituída,CD Projekt,RPG|Action
+                The Witcher 3,repetida,CD Projekt,
+                """;
+
+        BulkLoadResultDto result = catalogBulkLoadService.load(input(csv), CatalogFileFormat.CSV);
+
+        assertEquals(new BulkLoadResultDto(2, 0, 0, 1, 0), result);
+        GameDto witcher = findByTitle("the witcher 3");
+        assertEquals("original", witcher.description());
+        assertEquals(Set.of("rpg", "action"), Set.copyOf(witcher.genres().stream().map(GenreDto::name).toList()));
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoComALinhaDoRegistroInvalido() {
+        String csv = """
+                title,released_at,company
+                The Witcher 3,2015-05-19,CD Projekt
+                Cyberpunk 2077,ontem,CD Projekt
+                """;
+
+        UnprocessableEntity ex = assertThrows(UnprocessableEntity.class,
+                () -> catalogBulkLoadService.load(input(csv), CatalogFileFormat.CSV));
+        assertTrue(ex.getMessage().contains("line 3"));
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoQuandoFaltarCompanhia() {
+        String ndjson = """
+                {"title": "The Witcher 3"}
+                """;
+
+        assertThrows(UnprocessableEntity.class,
+                () -> catalogBulkLoadService.load(input(ndjson), CatalogFileFormat.NDJSON));
+    }
+
+    private GameDto findByTitle(String title) {
+        return gameService.findByTitleContaining(title, PageRequest.of(0, 1)).getContent().getFirst();
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Theme getTheme(String name) {
+        Theme theme = new Theme();
+        theme.setName(name);
+        return theme;
+    }
+}
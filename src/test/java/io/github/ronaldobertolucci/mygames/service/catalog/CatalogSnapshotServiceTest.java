@@ -0,0 +1,169 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSnapshotEntryDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Test
+    @Transactional
+    void deveGerarSnapshotComCatalogoCompletoEmOrdemDeTipoEId() throws IOException {
+        Company company = companyRepository.save(getCompany("cd projekt"));
+        Genre rpg = genreRepository.save(getGenre("rpg"));
+        Game witcher = getGame("the witcher 3", company);
+        witcher.setReleasedAt(LocalDate.parse("2015-05-19"));
+        witcher.getGenres().add(rpg);
+        gameRepository.save(witcher);
+        entityManager.flush();
+
+        CatalogSnapshotFile snapshot = catalogSnapshotService.generate();
+
+        List<CatalogSnapshotEntryDto> entries = read(snapshot.file());
+        assertEquals(List.of(
+                CatalogSnapshotEntryDto.named(CatalogType.COMPANY, company.getId(), "cd projekt"),
+                CatalogSnapshotEntryDto.named(CatalogType.GENRE, rpg.getId(), "rpg"),
+                CatalogSnapshotEntryDto.game(witcher.getId(), "the witcher 3", null, LocalDate.parse("2015-05-19"),
+                        company.getId(), List.of(rpg.getId()), List.of())), entries);
+        assertEquals(snapshot, catalogSnapshotService.latest());
+    }
+
+    @Test
+    @Transactional
+    void deveManterVersaoQuandoCatalogoNaoMudar() {
+        companyRepository.save(getCompany("valve"));
+        entityManager.flush();
+
+        CatalogSnapshotFile first = catalogSnapshotService.generate();
+        CatalogSnapshotFile second = catalogSnapshotService.generate();
+
+        assertEquals(first, second);
+        assertTrue(catalogSnapshotService.diff(first.version()).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveGerarDiffComInclusoesAlteracoesEExclusoes() throws IOException {
+        Company company = companyRepository.save(getCompany("nintendo"));
+        Game metroid = gameRepository.save(getGame("metroid dread", company));
+        Game pikmin = gameRepository.save(getGame("pikmin 4", company));
+        Game zelda = gameRepository.save(getGame("zelda", company));
+        entityManager.flush();
+        CatalogSnapshotFile first = catalogSnapshotService.generate();
+
+        metroid.setDescription("atualizada");
+        gameRepository.delete(pikmin);
+        Company sega = companyRepository.save(getCompany("sega"));
+        entityManager.flush();
+        CatalogSnapshotFile second = catalogSnapshotService.generate();
+
+        CatalogSnapshotFile diff = catalogSnapshotService.diff(first.version()).orElseThrow();
+
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(second.version(), diff.version());
+        assertEquals(List.of(
+                CatalogSnapshotEntryDto.named(CatalogType.COMPANY, sega.getId(), "sega"),
+                CatalogSnapshotEntryDto.game(metroid.getId(), "metroid dread", "atualizada", null,
+                        company.getId(), List.of(), List.of()),
+                CatalogSnapshotEntryDto.deleted(CatalogType.GAME, pikmin.getId())), read(diff.file()));
+        assertFalse(read(diff.file()).stream().anyMatch(entry -> zelda.getId().equals(entry.id())
+                && entry.type() == CatalogType.GAME));
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoVersaoDoDiffNaoExistir() {
+        CatalogSnapshotFile latest = catalogSnapshotService.latest();
+
+        assertThrows(EntityNotFoundException.class, () -> catalogSnapshotService.diff(latest.version() + 1));
+    }
+
+    @Test
+    void deveManterNumeracaoDoBancoQuandoDiretorioForPerdido() throws IOException {
+        CatalogSnapshotFile before = catalogSnapshotService.latest();
+        // Como num novo deploy sem volume: os arquivos somem, o banco fica
+        try (Stream<Path> files = Files.list(before.file().getParent())) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        CatalogSnapshotFile after = catalogSnapshotService.generate();
+
+        assertTrue(after.version() > before.version());
+        assertThrows(EntityNotFoundException.class, () -> catalogSnapshotService.diff(before.version()));
+    }
+
+    private List<CatalogSnapshotEntryDto> read(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().map(line -> jsonMapper.readValue(line, CatalogSnapshotEntryDto.class)).toList();
+        }
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
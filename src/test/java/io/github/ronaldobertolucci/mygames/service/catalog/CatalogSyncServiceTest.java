@@ -0,0 +1,195 @@
+package io.github.ronaldobertolucci.mygames.service.catalog;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogFileFormat;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncResultDto;
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogSyncState;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreDto;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.service.game.GameService;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CatalogSyncServiceTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private CatalogBulkLoadService catalogBulkLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    @Transactional
+    void deveAplicarApenasRegistrosInseridosAlteradosERemovidos() throws IOException {
+        genreRepository.save(getGenre("RPG"));
+        genreRepository.save(getGenre("Action"));
+        Path first = feed("first.csv", """
+                title,description,released_at,company,genres
+                The Witcher 3,original,2015-05-19,CD Projekt,RPG
+                Cyberpunk 2077,,2020-12-10,CD Projekt,RPG
+                Dragon Age,,2014-11-18,Bioware,RPG
+                """);
+        Path second = feed("second.csv", """
+                title,description,released_at,company,genres
+                The Witcher 3,atualizada,2015-05-19,CD Projekt,RPG|Action
+                Cyberpunk 2077,,2020-12-10,CD Projekt,RPG
+                Mass Effect,,2007-11-20,Bioware,Action
+                """);
+
+        assertEquals(new CatalogSyncResultDto(3, 3, 0, 0, 0, 0, 0), catalogSyncService.sync(first));
+        CatalogSyncResultDto result = catalogSyncService.sync(second);
+
+        assertEquals(new CatalogSyncResultDto(3, 1, 1, 1, 1, 0, 0), result);
+        GameDto witcher = findByTitle("the witcher 3");
+        assertEquals("atualizada", witcher.description());
+        assertEquals(List.of("action", "rpg"), witcher.genres().stream().map(GenreDto::name).sorted().toList());
+        assertEquals(List.of("action"), findByTitle("mass effect").genres().stream().map(GenreDto::name).toList());
+        assertTrue(gameService.findByTitleContaining("dragon age").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveIgnorarFeedIdenticoAoDaUltimaSincronizacao() throws IOException {
+        Path feed = feed("feed.ndjson", """
+                {"title": "Hollow Knight", "company": "Team Cherry", "released_at": "2017-02-24"}
+                {"title": "Silksong", "company": "Team Cherry"}
+                """);
+
+        assertEquals(new CatalogSyncResultDto(2, 2, 0, 0, 0, 0, 0), catalogSyncService.sync(feed));
+        assertEquals(CatalogSyncResultDto.unchanged(2), catalogSyncService.sync(feed));
+        assertEquals(CatalogSyncState.COMPLETED, catalogSyncService.status().state());
+        assertEquals(CatalogSyncResultDto.unchanged(2), catalogSyncService.status().result());
+    }
+
+    @Test
+    @Transactional
+    void deveManterJogoCadastradoPelaApiEReportarConflito() throws IOException {
+        Company nintendo = companyRepository.save(getCompany("Nintendo"));
+        gameService.save(new SaveGameDto("Metroid Dread", "manual", null, nintendo.getId(), List.of(), List.of()));
+        gameService.save(new SaveGameDto("Pikmin 4", "manual", null, nintendo.getId(), List.of(), List.of()));
+        Path feed = feed("nintendo.csv", """
+                title,description,released_at,company
+                Metroid Dread,do feed,2021-10-08,Nintendo
+                """);
+
+        CatalogSyncResultDto result = catalogSyncService.sync(feed);
+
+        assertEquals(new CatalogSyncResultDto(1, 0, 0, 0, 0, 1, 0), result);
+        assertEquals("manual", findByTitle("metroid dread").description());
+        assertNull(findByTitle("metroid dread").releasedAt());
+        assertEquals("manual", findByTitle("pikmin 4").description());
+    }
+
+    @Test
+    @Transactional
+    void deveManterJogoRemovidoDoFeedQueEstaEmAlgumaBiblioteca() throws IOException {
+        catalogSyncService.sync(feed("first.csv", """
+                title,company
+                Dragon Age,Bioware
+                Mass Effect,Bioware
+                """));
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username, password, role) VALUES ('username1', '123456', 'USER') RETURNING id", Long.class);
+        Long platformId = jdbcTemplate.queryForObject("INSERT INTO platforms (name) VALUES ('pc') RETURNING id", Long.class);
+        Long sourceId = jdbcTemplate.queryForObject("INSERT INTO sources (name) VALUES ('steam') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO my_games (user_id, game_id, platform_id, source_id, status) VALUES (?, ?, ?, ?, 'PLAYING')",
+                userId, findByTitle("dragon age").id(), platformId, sourceId);
+
+        CatalogSyncResultDto result = catalogSyncService.sync(feed("second.csv", """
+                title,company
+                Mass Effect,Bioware
+                """));
+
+        assertEquals(new CatalogSyncResultDto(1, 0, 0, 0, 1, 0, 1), result);
+        assertEquals(1, gameService.findByTitleContaining("dragon age").size());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM my_games WHERE user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarERemoverJogosDaCargaEmMassa() throws IOException {
+        catalogBulkLoadService.load(new ByteArrayInputStream("""
+                title,description,company
+                Hollow Knight,original,Team Cherry
+                Silksong,,Team Cherry
+                Hornet,,Team Cherry
+                """.getBytes(StandardCharsets.UTF_8)), CatalogFileFormat.CSV);
+
+        CatalogSyncResultDto result = catalogSyncService.sync(feed("feed.csv", """
+                title,description,company
+                Hollow Knight,atualizada,Team Cherry
+                Silksong,,Team Cherry
+                """));
+
+        assertEquals(new CatalogSyncResultDto(2, 0, 1, 1, 1, 0, 0), result);
+        assertEquals("atualizada", findByTitle("hollow knight").description());
+        assertTrue(gameService.findByTitleContaining("hornet").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveRecusarFeedVazio() throws IOException {
+        Path feed = feed("empty.csv", "title,company\n");
+
+        assertThrows(UnprocessableEntity.class, () -> catalogSyncService.sync(feed));
+        assertEquals(CatalogSyncState.FAILED, catalogSyncService.status().state());
+    }
+
+    private GameDto findByTitle(String title) {
+        return gameService.findByTitleContaining(title, PageRequest.of(0, 1)).getContent().getFirst();
+    }
+
+    private Path feed(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+}
@@ -0,0 +1,278 @@
+package io.github.ronaldobertolucci.mygames.service.export;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvReader;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.export.*;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.ExportFormat;
+import io.github.ronaldobertolucci.mygames.model.mygame.SaveMyGameDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.mygame.MyGameService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: o worker pega o job e lê my_games em outras conexões, então os dados precisam
+// estar confirmados e são removidos ao fim de cada teste
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ExportJobServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameService myGameService;
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.queryForList("SELECT lo_unlink(file_oid) FROM export_jobs WHERE file_oid IS NOT NULL AND state <> 'EXPIRED'");
+        jdbcTemplate.update("DELETE FROM export_jobs");
+        jdbcTemplate.update("DELETE FROM my_games");
+        jdbcTemplate.update("DELETE FROM my_game_tombstones");
+        jdbcTemplate.update("DELETE FROM library_versions");
+        jdbcTemplate.update("DELETE FROM user_library_counters");
+        jdbcTemplate.update("DELETE FROM game_genre");
+        jdbcTemplate.update("DELETE FROM games");
+        jdbcTemplate.update("DELETE FROM genres");
+        jdbcTemplate.update("DELETE FROM companies");
+        jdbcTemplate.update("DELETE FROM platforms");
+        jdbcTemplate.update("DELETE FROM sources");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'export%'");
+    }
+
+    @Test
+    void deveExportarTodosOsJogosDosUsuariosEmNdjsonComprimido() throws Exception {
+        createLibrary();
+
+        ExportJobDto created = exportJobService.create(ExportFormat.NDJSON, "admin@test.com");
+        ExportJobDto job = await(created.id());
+
+        assertEquals(ExportJobState.COMPLETED, job.state());
+        assertEquals(2, job.rowsWritten());
+        assertEquals(2L, job.totalRows());
+        ExportJobFile file = exportJobService.file(created.id());
+        assertEquals("export-" + created.id() + ".ndjson.gz", file.file().getFileName().toString());
+
+        List<ExportRowDto> rows = lines(file.file()).stream()
+                .map(line -> jsonMapper.readValue(line, ExportRowDto.class))
+                .toList();
+        assertEquals(List.of("export1", "export2"), rows.stream().map(ExportRowDto::username).toList());
+        assertEquals("the witcher 3", rows.getFirst().title());
+        assertEquals(List.of("rpg"), rows.getFirst().genres());
+        assertEquals(Status.COMPLETED, rows.getFirst().status());
+    }
+
+    @Test
+    void deveExportarEmCsvComGenerosSeparadosPorBarra() throws Exception {
+        createLibrary();
+
+        ExportJobDto created = exportJobService.create(ExportFormat.CSV, "admin@test.com");
+        await(created.id());
+
+        List<String> lines = lines(exportJobService.file(created.id()).file());
+        assertEquals(3, lines.size());
+        List<String> row = new CsvReader(new StringReader(lines.get(1))).readRow();
+        assertEquals("export1", row.get(2));
+        assertEquals("rpg", row.get(7));
+        assertEquals("", row.get(8));
+    }
+
+    @Test
+    void deveBaixarDoBancoArquivoGeradoEmOutraInstancia() throws Exception {
+        createLibrary();
+        ExportJobDto created = exportJobService.create(ExportFormat.NDJSON, "admin@test.com");
+        await(created.id());
+        Path generated = exportJobService.file(created.id()).file();
+        List<String> expected = lines(generated);
+
+        // Outra instância não tem o arquivo no disco local
+        Files.delete(generated);
+
+        ExportJobFile file = exportJobService.file(created.id());
+        assertEquals(generated, file.file());
+        assertEquals(expected, lines(file.file()));
+    }
+
+    @Test
+    void deveApagarArquivoDoBancoEDoDiscoAoExpirar() throws Exception {
+        createLibrary();
+        ExportJobDto created = exportJobService.create(ExportFormat.CSV, "admin@test.com");
+        await(created.id());
+        Path file = exportJobService.file(created.id()).file();
+        Long oid = jdbcTemplate.queryForObject("SELECT file_oid FROM export_jobs WHERE id = ?", Long.class, created.id());
+        jdbcTemplate.update("UPDATE export_jobs SET finished_at = now() - interval '1 year' WHERE id = ?", created.id());
+
+        exportJobService.poll();
+
+        assertEquals(ExportJobState.EXPIRED, exportJobService.status(created.id()).state());
+        assertFalse(Files.exists(file));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_largeobject_metadata WHERE oid = ?::oid",
+                Integer.class, oid));
+    }
+
+    @Test
+    void deveRetomarJobAbandonadoPorOutraInstancia() {
+        jdbcTemplate.update("""
+                INSERT INTO export_jobs (format, state, requested_by, rows_written, created_at, started_at, heartbeat_at, claim_token)
+                VALUES ('NDJSON', 'RUNNING', 'admin@test.com', 10, now(), now() - interval '1 hour', now() - interval '1 hour',
+                        '00000000-0000-0000-0000-000000000001')""");
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM export_jobs", Long.class);
+
+        ExportJobDto job = await(id);
+
+        assertEquals(ExportJobState.COMPLETED, job.state());
+        assertEquals(0, job.rowsWritten());
+        // A instância antiga não consegue mais gravar andamento nem resultado deste job
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM export_jobs WHERE id = ? AND claim_token = '00000000-0000-0000-0000-000000000001'",
+                Integer.class, id));
+    }
+
+    @Test
+    void deveLancarExcecaoAoBaixarExportacaoNaoConcluida() {
+        ExportJob job = exportJobRepository.save(new ExportJob(ExportFormat.CSV, "admin@test.com"));
+
+        assertThrows(UnprocessableEntity.class, () -> exportJobService.file(job.getId()));
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoExportacaoNaoExistir() {
+        assertThrows(EntityNotFoundException.class, () -> exportJobService.status(-1L));
+    }
+
+    private void createLibrary() {
+        userRepository.save(getUser("export1"));
+        userRepository.save(getUser("export2"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre("rpg"));
+        Game witcher = getGame("The Witcher 3", company);
+        witcher.getGenres().add(rpg);
+        witcher = gameRepository.save(witcher);
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "export1");
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), null), "export2");
+    }
+
+    // O job roda no pool do serviço; se ele ainda não o pegou, roda aqui mesmo
+    private ExportJobDto await(Long id) {
+        exportJobService.runNext();
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ExportJobDto job = exportJobService.status(id);
+            if (job.state() == ExportJobState.COMPLETED || job.state() == ExportJobState.FAILED) {
+                return job;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        fail("Export job " + id + " did not finish");
+        return null;
+    }
+
+    private List<String> lines(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.ronaldobertolucci.mygames.service.facet;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.facet.FacetCountDto;
+import io.github.ronaldobertolucci.mygames.model.facet.FacetedGamesDto;
+import io.github.ronaldobertolucci.mygames.model.facet.GameFacetFilter;
+import io.github.ronaldobertolucci.mygames.model.facet.YearCountDto;
+import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameLinksChangedEvent;
+import io.github.ronaldobertolucci.mygames.service.game.GameService;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class FacetServiceTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Test
+    @Transactional
+    void deveFiltrarPorFacetasCombinadasComContagens() {
+        Genre rpg = genreRepository.save(getGenre("RPG"));
+        Genre action = genreRepository.save(getGenre("Action"));
+        Theme fantasy = themeRepository.save(getTheme("Fantasy"));
+        Theme scifi = themeRepository.save(getTheme("Sci-fi"));
+        Company cdProjekt = companyRepository.save(getCompany("CD Projekt"));
+        Company bioware = companyRepository.save(getCompany("Bioware"));
+        Company capcom = companyRepository.save(getCompany("Capcom"));
+
+        GameDto witcher = gameService.save(new SaveGameDto("The Witcher 3", null, LocalDate.parse("2015-05-19"), cdProjekt.getId(), List.of(rpg.getId()), List.of(fantasy.getId())));
+        gameService.save(new SaveGameDto("Dragon Age", null, LocalDate.parse("2014-11-18"), bioware.getId(), List.of(rpg.getId()), List.of(fantasy.getId())));
+        gameService.save(new SaveGameDto("Cyberpunk 2077", null, LocalDate.parse("2020-12-10"), cdProjekt.getId(), List.of(rpg.getId()), List.of(scifi.getId())));
+        gameService.save(new SaveGameDto("Devil May Cry 5", null, LocalDate.parse("2019-03-08"), capcom.getId(), List.of(action.getId()), List.of(fantasy.getId())));
+        facetService.load();
+
+        GameFacetFilter filter = GameFacetFilter.builder()
+                .genreIds(List.of(rpg.getId()))
+                .themeIds(List.of(fantasy.getId()))
+                .yearFrom(2015)
+                .yearTo(2020)
+                .build();
+        FacetedGamesDto result = facetService.search(filter, PageRequest.of(0, 20));
+
+        assertEquals(List.of(witcher.id()), result.games().getContent().stream().map(GameDto::id).toList());
+        assertEquals(1, result.games().getTotalElements());
+        assertEquals(List.of(new FacetCountDto(rpg.getId(), "rpg", 1), new FacetCountDto(action.getId(), "action", 1)),
+                result.facets().genres());
+        assertEquals(Set.of("fantasy", "sci-fi"), Set.copyOf(result.facets().themes().stream().map(FacetCountDto::name).toList()));
+        assertEquals(List.of(new FacetCountDto(cdProjekt.getId(), "cd projekt", 1)), result.facets().companies());
+        assertEquals(List.of(new YearCountDto(2014, 1), new YearCountDto(2015, 1)), result.facets().years());
+    }
+
+    @Test
+    @Transactional
+    void deveCombinarValoresDaMesmaFacetaComOu() {
+        Genre rpg = genreRepository.save(getGenre("RPG"));
+        Genre action = genreRepository.save(getGenre("Action"));
+        Company company = companyRepository.save(getCompany("Capcom"));
+        gameService.save(new SaveGameDto("Dragon's Dogma", null, null, company.getId(), List.of(rpg.getId()), null));
+        gameService.save(new SaveGameDto("Devil May Cry 5", null, null, company.getId(), List.of(action.getId()), null));
+        gameService.save(new SaveGameDto("Street Fighter", null, null, company.getId(), null, null));
+        facetService.load();
+
+        GameFacetFilter filter = GameFacetFilter.builder().genreIds(List.of(rpg.getId(), action.getId())).build();
+        FacetedGamesDto firstPage = facetService.search(filter, PageRequest.of(0, 1));
+        FacetedGamesDto secondPage = facetService.search(filter, PageRequest.of(1, 1));
+
+        assertEquals(2, firstPage.games().getTotalElements());
+        assertEquals("dragon's dogma", firstPage.games().getContent().getFirst().title());
+        assertEquals("devil may cry 5", secondPage.games().getContent().getFirst().title());
+        assertEquals(List.of(new FacetCountDto(company.getId(), "capcom", 2)), firstPage.facets().companies());
+        assertTrue(firstPage.facets().years().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarIndiceComAlteracoesDoCatalogo() {
+        Genre rpg = genreRepository.save(getGenre("RPG"));
+        Genre action = genreRepository.save(getGenre("Action"));
+        Company company = companyRepository.save(getCompany("Capcom"));
+        GameDto game = gameService.save(new SaveGameDto("Dragon's Dogma", null, null, company.getId(), List.of(rpg.getId()), null));
+        facetService.load();
+
+        GameFacetFilter byAction = GameFacetFilter.builder().genreIds(List.of(action.getId())).build();
+        assertEquals(0, facetService.search(byAction, PageRequest.of(0, 20)).games().getTotalElements());
+
+        facetService.onGameChanged(new GameChangedEvent(game.id(), company.getId(), Set.of(action.getId()), Set.of(), LocalDate.parse("2012-05-22")));
+        FacetedGamesDto changed = facetService.search(byAction, PageRequest.of(0, 20));
+        assertEquals(1, changed.games().getTotalElements());
+        assertEquals(List.of(new YearCountDto(2012, 1)), changed.facets().years());
+        assertEquals(List.of(action.getId()), changed.facets().genres().stream().map(FacetCountDto::id).toList());
+
+        facetService.onGameLinksChanged(GameLinksChangedEvent.unlinked(CatalogType.GENRE, game.id(), action.getId()));
+        assertEquals(0, facetService.search(byAction, PageRequest.of(0, 20)).games().getTotalElements());
+
+        facetService.onGameLinksChanged(GameLinksChangedEvent.linked(CatalogType.GENRE, game.id(), action.getId()));
+        assertEquals(1, facetService.search(byAction, PageRequest.of(0, 20)).games().getTotalElements());
+
+        facetService.onCatalogChanged(CatalogChangedEvent.removed(CatalogType.GENRE, action.getId()));
+        assertEquals(0, facetService.search(byAction, PageRequest.of(0, 20)).games().getTotalElements());
+
+        facetService.onGameChanged(GameChangedEvent.removed(game.id()));
+        assertEquals(0, facetService.search(GameFacetFilter.builder().build(), PageRequest.of(0, 20)).games().getTotalElements());
+    }
+
+    @Test
+    @Transactional
+    void deveRetirarGeneroRemovidoDasFacetasDosJogos() {
+        Genre rpg = genreRepository.save(getGenre("RPG"));
+        Genre action = genreRepository.save(getGenre("Action"));
+        Theme fantasy = themeRepository.save(getTheme("Fantasy"));
+        Company company = companyRepository.save(getCompany("Capcom"));
+        GameDto game = gameService.save(new SaveGameDto("Dragon's Dogma", null, null, company.getId(),
+                List.of(rpg.getId(), action.getId()), null));
+        facetService.load();
+
+        facetService.onCatalogChanged(CatalogChangedEvent.removed(CatalogType.GENRE, action.getId()));
+        facetService.onGameLinksChanged(GameLinksChangedEvent.linked(CatalogType.THEME, game.id(), fantasy.getId()));
+
+        FacetedGamesDto all = facetService.search(GameFacetFilter.builder().build(), PageRequest.of(0, 20));
+        assertEquals(List.of(rpg.getId()), all.facets().genres().stream().map(FacetCountDto::id).toList());
+        assertEquals(List.of(fantasy.getId()), all.facets().themes().stream().map(FacetCountDto::id).toList());
+        GameFacetFilter byAction = GameFacetFilter.builder().genreIds(List.of(action.getId())).build();
+        assertEquals(0, facetService.search(byAction, PageRequest.of(0, 20)).games().getTotalElements());
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Theme getTheme(String name) {
+        Theme theme = new Theme();
+        theme.setName(name);
+        return theme;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.ronaldobertolucci.mygames.service.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mede a latência da busca aproximada com catálogos sintéticos de 100 mil e 1 milhão de títulos.
+ * <p>
+ * Não roda com os testes; execute com o classpath de teste e heap suficiente, por exemplo:
+ * {@code java -Xmx4g -cp target/classes:target/test-classes:<dependências> ...FuzzyTitleIndexBenchmark}
+ */
+public class FuzzyTitleIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "ro", "mi", "tan", "zel", "da", "sol", "dark", "fi", "nal", "dra", "gon", "wit", "cher",
+            "hun", "ter", "star", "war", "me", "tal", "gear", "po", "ke", "mon", "ly", "rix", "va", "nor"
+    };
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 2_000;
+    private static final int WARMUP_QUERIES = 500;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{100_000, 1_000_000};
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(42);
+        String[] words = vocabulary(random);
+        FuzzyTitleIndex index = new FuzzyTitleIndex();
+        List<String> titles = new ArrayList<>(size);
+
+        long start = System.nanoTime();
+        for (int id = 0; id < size; id++) {
+            String title = title(random, words, id);
+            titles.add(title);
+            index.put((long) id, title);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(query(random, titles), 20);
+        }
+
+        long[] latencies = new long[QUERIES];
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String query = query(random, titles);
+            long before = System.nanoTime();
+            found += index.search(query, 20).isEmpty() ? 0 : 1;
+            latencies[i] = System.nanoTime() - before;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%,d titles: build %d ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms, hit rate %.1f%%%n",
+                size, buildMillis,
+                millis(latencies[QUERIES / 2]),
+                millis(latencies[QUERIES * 99 / 100]),
+                millis(latencies[QUERIES - 1]),
+                100.0 * found / QUERIES);
+    }
+
+    // Palavras sintéticas formadas por sílabas, para que os trigramas se repitam como em títulos reais
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static String title(Random random, String[] words, int id) {
+        int count = 2 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            title.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        // Sufixo numérico para que os títulos não se repitam
+        return title.append(Integer.toString(id, 36)).toString();
+    }
+
+    // Uma ou duas palavras de um título existente, com um erro de digitação
+    private static String query(Random random, List<String> titles) {
+        String[] tokens = titles.get(random.nextInt(titles.size())).split(" ");
+        int words = 1 + random.nextInt(2);
+        int from = random.nextInt(tokens.length - words);
+        char[] query = String.join(" ", Arrays.asList(tokens).subList(from, from + words)).toCharArray();
+
+        int position = random.nextInt(query.length);
+        if (query[position] != ' ') {
+            query[position] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(query);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
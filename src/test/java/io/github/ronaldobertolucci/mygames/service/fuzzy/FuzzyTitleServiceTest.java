@@ -0,0 +1,94 @@
+package io.github.ronaldobertolucci.mygames.service.fuzzy;
+
+import io.github.ronaldobertolucci.mygames.model.catalog.CatalogType;
+import io.github.ronaldobertolucci.mygames.service.catalog.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FuzzyTitleServiceTest {
+
+    @Autowired
+    private FuzzyTitleService fuzzyTitleService;
+
+    @Test
+    void deveEncontrarTituloComErroDeDigitacao() {
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "the witcher 3: wild hunt"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 2L, "cyberpunk 2077"));
+
+        List<TitleMatch> matches = fuzzyTitleService.match("witchr", 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.getFirst().id());
+        assertEquals("the witcher 3: wild hunt", matches.getFirst().title());
+        assertEquals(1, matches.getFirst().distance());
+    }
+
+    @Test
+    void deveOrdenarPelaDistanciaEIgnorarAcentos() {
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "pokémon red"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 2L, "pokemon"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 3L, "pokken tournament"));
+
+        List<TitleMatch> matches = fuzzyTitleService.match("pokemn", 10);
+
+        assertEquals(List.of(2L, 1L, 3L), matches.stream().map(TitleMatch::id).toList());
+        assertEquals(List.of(1, 1, 2), matches.stream().map(TitleMatch::distance).toList());
+    }
+
+    @Test
+    void deveIgnorarTitulosAlemDaDistanciaTolerada() {
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "halo"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 2L, "hades"));
+
+        assertEquals(List.of(1L), fuzzyTitleService.match("hali", 10).stream().map(TitleMatch::id).toList());
+        assertTrue(fuzzyTitleService.match("hxyz", 10).isEmpty());
+        assertTrue(fuzzyTitleService.match(" ", 10).isEmpty());
+    }
+
+    @Test
+    void deveAtualizarERemoverTitulos() {
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "starfield"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "stardew valley"));
+
+        assertTrue(fuzzyTitleService.match("starfeild", 10).isEmpty());
+        assertEquals(1, fuzzyTitleService.match("stardwe", 10).size());
+
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.removed(CatalogType.GAME, 1L));
+
+        assertTrue(fuzzyTitleService.match("stardwe", 10).isEmpty());
+    }
+
+    @Test
+    void deveCompararOTituloInteiroSemAproximarNumeros() {
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 1L, "portal 2"));
+        fuzzyTitleService.onCatalogChanged(CatalogChangedEvent.saved(CatalogType.GAME, 2L, "the witcher 3: wild hunt"));
+
+        assertEquals(List.of(1L), fuzzyTitleService.match("portal", 10).stream().map(TitleMatch::id).toList());
+        assertTrue(fuzzyTitleService.matchWholeTitle("portal", 10).isEmpty());
+        assertTrue(fuzzyTitleService.matchWholeTitle("the witcher 2 wild hunt", 10).isEmpty());
+
+        List<TitleMatch> matches = fuzzyTitleService.matchWholeTitle("The Witcher® 3 Wild Hnt", 10);
+        assertEquals(List.of(2L), matches.stream().map(TitleMatch::id).toList());
+        assertEquals(1, matches.getFirst().distance());
+    }
+
+    @Test
+    void deveCalcularDistanciaLimitada() {
+        assertEquals(0, FuzzyTitleIndex.levenshtein("witcher", "witcher", 2));
+        assertEquals(2, FuzzyTitleIndex.levenshtein("witcher", "wticher", 2));
+        assertEquals(3, FuzzyTitleIndex.levenshtein("witcher", "portal", 2));
+        assertEquals(3, FuzzyTitleIndex.levenshtein("abc", "abcdef", 2));
+    }
+}
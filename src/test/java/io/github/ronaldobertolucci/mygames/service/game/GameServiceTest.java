@@ -1,23 +1,39 @@
 package io.github.ronaldobertolucci.mygames.service.game;
 
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
 import io.github.ronaldobertolucci.mygames.model.company.Company;
 import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.BulkGameGenresDto;
+import io.github.ronaldobertolucci.mygames.model.game.BulkGameThemesDto;
+import io.github.ronaldobertolucci.mygames.model.game.BulkLinkResultDto;
 import io.github.ronaldobertolucci.mygames.model.game.Game;
 import io.github.ronaldobertolucci.mygames.model.game.GameDto;
+import io.github.ronaldobertolucci.mygames.model.game.PatchGameDto;
 import io.github.ronaldobertolucci.mygames.model.game.SaveGameDto;
 import io.github.ronaldobertolucci.mygames.model.game.UpdateGameDto;
 import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreDto;
 import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.pagination.CursorPage;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.theme.Theme;
 import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.FuzzyTitleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +54,12 @@ class GameServiceTest {
 
     @Autowired
     private GameService gameService;
+
+    @Autowired
+    private FuzzyTitleService fuzzyTitleService;
+
+    @Autowired
+    private EntityManager entityManager;
     
     @Test
     @Transactional
@@ -76,6 +98,19 @@ class GameServiceTest {
         assertEquals(1, games.size());
     }
 
+    @Test
+    @Transactional
+    void deveListarPeloTituloIgnorandoAcentos() {
+        Company company = companyRepository.save(getCompany(null, "Game Freak"));
+        gameService.save(new SaveGameDto("Pokémon Crônicas", null, null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("Pokemon Go", null, null, company.getId(), null, null));
+
+        assertEquals(2, gameService.findByTitleContaining("POKÉMON").size());
+        assertEquals(1, gameService.findByTitleContaining("cronicas").size());
+        assertEquals(1, gameService.findByTitleContaining("Crônicas").size());
+        assertEquals("pokémon crônicas", gameService.findByTitleContaining("cronicas").getFirst().title());
+    }
+
     @Test
     @Transactional
     void deveListarJogos() {
@@ -269,8 +304,9 @@ class GameServiceTest {
         GameDto game = gameService.save(savedDto);
         assertEquals(1, game.genres().size());
 
-        GameDto added = gameService.addGenre(game.id(), genre2.getId());
-        assertEquals(2, added.genres().size());
+        gameService.addGenre(game.id(), genre2.getId());
+        gameService.addGenre(game.id(), genre2.getId());
+        assertEquals(2, gameService.detail(game.id()).genres().size());
     }
 
     @Test
@@ -283,8 +319,9 @@ class GameServiceTest {
         GameDto game = gameService.save(savedDto);
         assertEquals(1, game.genres().size());
 
-        GameDto removed = gameService.removeGenre(game.id(), genre.getId());
-        assertTrue(removed.genres().isEmpty());
+        gameService.removeGenre(game.id(), genre.getId());
+        gameService.removeGenre(game.id(), genre.getId());
+        assertTrue(gameService.detail(game.id()).genres().isEmpty());
     }
 
     @Test
@@ -298,8 +335,9 @@ class GameServiceTest {
         GameDto game = gameService.save(savedDto);
         assertEquals(1, game.themes().size());
 
-        GameDto added = gameService.addTheme(game.id(), theme2.getId());
-        assertEquals(2, added.themes().size());
+        gameService.addTheme(game.id(), theme2.getId());
+        gameService.addTheme(game.id(), theme2.getId());
+        assertEquals(2, gameService.detail(game.id()).themes().size());
     }
 
     @Test
@@ -312,8 +350,262 @@ class GameServiceTest {
         GameDto game = gameService.save(savedDto);
         assertEquals(1, game.themes().size());
 
-        GameDto removed = gameService.removeTheme(game.id(), theme.getId());
-        assertTrue(removed.themes().isEmpty());
+        gameService.removeTheme(game.id(), theme.getId());
+        gameService.removeTheme(game.id(), theme.getId());
+        assertTrue(gameService.detail(game.id()).themes().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveListarJogosPorCursorAteAUltimaPagina() {
+        Company company1 = companyRepository.save(getCompany(null, "CD Projekt"));
+        Company company2 = companyRepository.save(getCompany(null, "Kojima"));
+        gameService.save(new SaveGameDto("Death Stranding", null, null, company2.getId(), null, null));
+        gameService.save(new SaveGameDto("The Witcher", null, null, company1.getId(), null, null));
+        gameService.save(new SaveGameDto("The Witcher", null, null, company2.getId(), null, null));
+        gameService.save(new SaveGameDto("Cyberpunk 2077", null, null, company1.getId(), null, null));
+
+        CursorPage<GameDto> first = gameService.findAllAfter(KeysetCursor.FIRST, 2);
+        assertEquals(List.of("cyberpunk 2077", "death stranding"), first.content().stream().map(GameDto::title).toList());
+        assertNotNull(first.nextCursor());
+
+        CursorPage<GameDto> second = gameService.findAllAfter(KeysetCursor.decode(first.nextCursor()), 2);
+        assertEquals(List.of("the witcher", "the witcher"), second.content().stream().map(GameDto::title).toList());
+        assertTrue(second.content().get(0).id() < second.content().get(1).id());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    void deveBuscarPaginaPorCursorComoFaixaDoIndice() {
+        // Tabela pequena: sem isso o planejador prefere varrer a tabela e o plano não diz nada
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+        entityManager.createNativeQuery("SET LOCAL enable_bitmapscan = off").executeUpdate();
+
+        // Mesma forma que o Hibernate gera para findGamesAfter
+        List<String> plan = entityManager.createNativeQuery("""
+                EXPLAIN SELECT g.id FROM games g
+                WHERE (g.title, g.id) > ('the witcher', 10)
+                ORDER BY g.title, g.id LIMIT 21""").getResultList();
+
+        String explain = String.join("\n", plan);
+        assertTrue(explain.contains("using games_title_id_idx"), explain);
+        assertTrue(explain.contains("Index Cond: (ROW(title, id) > ROW('the witcher'::text, 10))"), explain);
+        assertFalse(explain.contains("Sort"), explain);
+    }
+
+    @Test
+    @Transactional
+    void deveListarJogosPorCursorFiltradosPeloTitulo() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("The Witcher 2", null, null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("Cyberpunk 2077", null, null, company.getId(), null, null));
+
+        CursorPage<GameDto> first = gameService.findByTitleContainingAfter("witcher", KeysetCursor.FIRST, 1);
+        CursorPage<GameDto> second = gameService.findByTitleContainingAfter("witcher", KeysetCursor.decode(first.nextCursor()), 1);
+
+        assertEquals("the witcher", first.content().getFirst().title());
+        assertEquals("the witcher 2", second.content().getFirst().title());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    @Transactional
+    void deveBuscarJogosPelaDescricaoOrdenadosPorRelevancia() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        gameService.save(new SaveGameDto("The Witcher", "Caçador de monstros em um mundo aberto", null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("Monster Hunter", "Caçadas de monstros gigantes com monstros enormes", null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("Cyberpunk 2077", "Cidade futurista", null, company.getId(), null, null));
+
+        Page<GameDto> games = gameService.search("monstros", PageRequest.of(0, 20));
+
+        assertEquals(2, games.getTotalElements());
+        assertEquals("monster hunter", games.getContent().getFirst().title());
+        assertEquals("cd projekt", games.getContent().getFirst().company().name());
+        assertEquals(0, gameService.search("dragões", PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    @Transactional
+    void deveListarPeloTituloComErroDeDigitacao() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("The Witcher 2", null, null, company.getId(), null, null));
+        gameService.save(new SaveGameDto("Cyberpunk 2077", null, null, company.getId(), null, null));
+        fuzzyTitleService.load();
+
+        Page<GameDto> games = gameService.findByTitleFuzzy("whitcer", PageRequest.of(0, 1));
+
+        assertEquals(2, games.getTotalElements());
+        assertEquals("the witcher", games.getContent().getFirst().title());
+        assertEquals("cd projekt", games.getContent().getFirst().company().name());
+        assertEquals(0, gameService.findByTitleContaining("whitcer").size());
+    }
+
+    @Test
+    @Transactional
+    void deveFalharAoAssociarGeneroOuTemaInexistente() {
+        Genre genre = genreRepository.save(getGenre(null, "RPG"));
+        Theme theme = themeRepository.save(getTheme(null, "Fantasy"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        GameDto game = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), null, null));
+
+        assertThrows(EntityNotFoundException.class, () -> gameService.addGenre(game.id(), genre.getId() + 1000));
+        assertThrows(EntityNotFoundException.class, () -> gameService.addGenre(game.id() + 1000, genre.getId()));
+        assertThrows(EntityNotFoundException.class, () -> gameService.removeTheme(game.id(), theme.getId() + 1000));
+        assertThrows(EntityNotFoundException.class, () -> gameService.addTheme(game.id() + 1000, theme.getId()));
+    }
+
+    @Test
+    @Transactional
+    void deveSalvarJogoComVariosGenerosETemasComNumeroFixoDeConsultas() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        List<Long> genreIds = new ArrayList<>();
+        List<Long> themeIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            genreIds.add(genreRepository.save(getGenre(null, "genre " + i)).getId());
+            themeIds.add(themeRepository.save(getTheme(null, "theme " + i)).getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        GameDto game = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), genreIds, themeIds));
+
+        assertEquals(10, game.genres().size());
+        assertEquals(10, game.themes().size());
+        // companhia, gêneros, temas e a inserção do jogo
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Esperado no máximo 4 consultas, executadas " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional
+    void deveFalharAoSalvarJogoComGeneroInexistente() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre genre = genreRepository.save(getGenre(null, "RPG"));
+
+        SaveGameDto dto = new SaveGameDto("The Witcher", null, null, company.getId(), List.of(genre.getId(), genre.getId() + 1000), null);
+
+        assertThrows(UnprocessableEntity.class, () -> gameService.save(dto));
+    }
+
+    @Test
+    @Transactional
+    void deveFalharAoSalvarJogoComCompanhiaInexistente() {
+        SaveGameDto dto = new SaveGameDto("The Witcher", null, null, 999999L, null, null);
+
+        assertThrows(UnprocessableEntity.class, () -> gameService.save(dto));
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarSomenteAssociacoesAlteradas() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre(null, "RPG"));
+        Genre action = genreRepository.save(getGenre(null, "Action"));
+        Genre adventure = genreRepository.save(getGenre(null, "Adventure"));
+        Theme fantasy = themeRepository.save(getTheme(null, "Fantasy"));
+        GameDto game = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), List.of(rpg.getId(), action.getId()), List.of(fantasy.getId())));
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        gameService.update(new UpdateGameDto(game.id(), "The Witcher", null, null, company.getId(), List.of(action.getId(), adventure.getId()), List.of(fantasy.getId())));
+        entityManager.flush();
+
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+        // apenas gêneros mudaram; temas continuam intactos
+        assertEquals(1, statistics.getCollectionUpdateCount());
+
+        entityManager.clear();
+        GameDto updated = gameService.detail(game.id());
+        assertEquals(List.of("action", "adventure"), updated.genres().stream().map(GenreDto::name).sorted().toList());
+        assertEquals(1, updated.themes().size());
+    }
+
+    @Test
+    @Transactional
+    void deveAlterarParcialmenteOJogo() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre(null, "RPG"));
+        Theme fantasy = themeRepository.save(getTheme(null, "Fantasy"));
+        GameDto game = gameService.save(new SaveGameDto("The Witcher", "RPG massa", LocalDate.parse("2007-10-26"), company.getId(), List.of(rpg.getId()), List.of(fantasy.getId())));
+
+        GameDto renamed = gameService.patch(game.id(), new PatchGameDto("The Witcher: Enhanced Edition", null, null, null, null, null));
+        assertEquals("the witcher: enhanced edition", renamed.title());
+        assertEquals("rpg massa", renamed.description());
+        assertEquals(LocalDate.parse("2007-10-26"), renamed.releasedAt());
+        assertEquals(1, renamed.genres().size());
+        assertEquals(1, renamed.themes().size());
+
+        GameDto cleared = gameService.patch(game.id(), new PatchGameDto(null, null, null, null, List.of(), null));
+        assertTrue(cleared.genres().isEmpty());
+        assertEquals(1, cleared.themes().size());
+    }
+
+    @Test
+    @Transactional
+    void deveFalharAoAlterarParcialmenteJogoInexistente() {
+        PatchGameDto dto = new PatchGameDto("The Witcher", null, null, null, null, null);
+
+        assertThrows(EntityNotFoundException.class, () -> gameService.patch(999999L, dto));
+    }
+
+    @Test
+    @Transactional
+    void deveAdicionarGenerosEmMassaIgnorandoParesExistentes() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre(null, "RPG"));
+        Genre action = genreRepository.save(getGenre(null, "Action"));
+        GameDto witcher = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), List.of(rpg.getId()), null));
+        GameDto witcher2 = gameService.save(new SaveGameDto("The Witcher 2", null, null, company.getId(), null, null));
+        GameDto cyberpunk = gameService.save(new SaveGameDto("Cyberpunk 2077", null, null, company.getId(), null, null));
+
+        BulkLinkResultDto result = gameService.addGenres(new BulkGameGenresDto(
+                List.of(witcher.id(), witcher2.id(), cyberpunk.id(), witcher.id()), List.of(rpg.getId(), action.getId())));
+
+        assertEquals(new BulkLinkResultDto(6, 5, 1), result);
+        assertEquals(2, gameService.detail(witcher.id()).genres().size());
+        assertEquals(2, gameService.detail(cyberpunk.id()).genres().size());
+        assertEquals(new BulkLinkResultDto(6, 0, 6), gameService.addGenres(new BulkGameGenresDto(
+                List.of(witcher.id(), witcher2.id(), cyberpunk.id()), List.of(rpg.getId(), action.getId()))));
+    }
+
+    @Test
+    @Transactional
+    void deveAdicionarTemasEmMassa() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Theme fantasy = themeRepository.save(getTheme(null, "Fantasy"));
+        GameDto witcher = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), null, null));
+        GameDto witcher2 = gameService.save(new SaveGameDto("The Witcher 2", null, null, company.getId(), null, null));
+
+        BulkLinkResultDto result = gameService.addThemes(new BulkGameThemesDto(List.of(witcher.id(), witcher2.id()), List.of(fantasy.getId())));
+
+        assertEquals(new BulkLinkResultDto(2, 2, 0), result);
+        assertEquals(1, gameService.detail(witcher2.id()).themes().size());
+    }
+
+    @Test
+    @Transactional
+    void deveFalharAoAdicionarGenerosEmMassaComReferenciaInexistente() {
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre(null, "RPG"));
+        GameDto witcher = gameService.save(new SaveGameDto("The Witcher", null, null, company.getId(), null, null));
+
+        BulkGameGenresDto missingGame = new BulkGameGenresDto(List.of(witcher.id(), witcher.id() + 1000), List.of(rpg.getId()));
+        BulkGameGenresDto missingGenre = new BulkGameGenresDto(List.of(witcher.id()), List.of(rpg.getId(), rpg.getId() + 1000));
+
+        assertThrows(UnprocessableEntity.class, () -> gameService.addGenres(missingGame));
+        assertThrows(UnprocessableEntity.class, () -> gameService.addGenres(missingGenre));
+        assertTrue(gameService.detail(witcher.id()).genres().isEmpty());
     }
 
     private Company getCompany(Long id, String name) {
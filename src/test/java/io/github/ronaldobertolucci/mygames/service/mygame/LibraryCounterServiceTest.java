@@ -0,0 +1,174 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LibraryCounterServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameService myGameService;
+
+    @Autowired
+    private LibrarySyncService librarySyncService;
+
+    @Autowired
+    private LibraryCounterService libraryCounterService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Transactional
+    void deveManterContadoresEmEscritasIndividuaisEEmLote() {
+        userRepository.save(getUser("username1"));
+        userRepository.save(getUser("username2"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Platform ps5 = platformRepository.save(getPlatform("PlayStation 5"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Game witcher = gameRepository.save(getGame("The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame("Cyberpunk 2077", company));
+        Game gwent = gameRepository.save(getGame("Gwent", company));
+
+        MyGameDto first = myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), null), "username1");
+        MyGameDto second = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(gwent.getId(), pc.getId(), steam.getId(), null), "username2");
+        myGameService.updateStatus(first.id(), new MyGamesStatusDto(Status.PLAYING), "username1");
+        entityManager.flush();
+        myGameService.updateStatus(new BulkStatusDto(List.of(second.id()), null, Status.COMPLETED), "username1");
+        librarySyncService.sync(new LibrarySyncDto(List.of(
+                new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), null),
+                new SaveMyGameDto(gwent.getId(), ps5.getId(), steam.getId(), Status.WISHLIST))), "username1");
+        entityManager.flush();
+
+        LibraryCountsDto counts = libraryCounterService.counts("username1");
+
+        assertEquals(2, counts.total());
+        assertEquals(1, counts.byStatus().get(Status.PLAYING));
+        assertEquals(1, counts.byStatus().get(Status.WISHLIST));
+        assertEquals(0, counts.byStatus().get(Status.COMPLETED));
+        assertEquals(Map.of(pc.getId(), 1L, ps5.getId(), 1L), counts.byPlatform());
+        assertEquals(Map.of(steam.getId(), 2L), counts.bySource());
+        assertEquals(1, libraryCounterService.counts("username2").total());
+    }
+
+    @Test
+    @Transactional
+    void deveDescontarJogosExcluidos() {
+        userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("Valve"));
+        Game portal = gameRepository.save(getGame("Portal", company));
+        MyGameDto myGame = myGameService.save(new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), null), "username1");
+
+        myGameService.delete(myGame.id(), "username1");
+        entityManager.flush();
+
+        LibraryCountsDto counts = libraryCounterService.counts("username1");
+        assertEquals(0, counts.total());
+        assertEquals(0, counts.byStatus().get(Status.NOT_PLAYED));
+        assertTrue(counts.byPlatform().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveCorrigirContadoresDivergentesNaConferencia() {
+        User user = userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("Valve"));
+        Game portal = gameRepository.save(getGame("Portal", company));
+        Game portal2 = gameRepository.save(getGame("Portal 2", company));
+        myGameService.save(new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(portal2.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "username1");
+        jdbcTemplate.update("UPDATE user_library_counters SET count = 99 WHERE user_id = ? AND dimension = 'TOTAL'", user.getId());
+        jdbcTemplate.update("DELETE FROM user_library_counters WHERE user_id = ? AND dimension = 'SOURCE'", user.getId());
+        jdbcTemplate.update("INSERT INTO user_library_counters VALUES (?, 'STATUS', 'ABANDONED', 3)", user.getId());
+
+        assertEquals(3, libraryCounterService.reconcile(user.getId()));
+        assertEquals(0, libraryCounterService.reconcile(user.getId()));
+
+        LibraryCountsDto counts = libraryCounterService.counts("username1");
+        assertEquals(2, counts.total());
+        assertEquals(0, counts.byStatus().get(Status.ABANDONED));
+        assertEquals(Map.of(steam.getId(), 2L), counts.bySource());
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
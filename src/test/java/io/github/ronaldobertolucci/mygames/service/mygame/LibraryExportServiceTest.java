@@ -0,0 +1,185 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.csv.CsvReader;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LibraryExportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameService myGameService;
+
+    @Autowired
+    private LibraryExportService libraryExportService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Transactional
+    void deveExportarApenasOsJogosDoUsuarioEmNdjsonOrdenadosPorTitulo() throws Exception {
+        userRepository.save(getUser("username1"));
+        userRepository.save(getUser("username2"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Game witcher = gameRepository.save(getGame("The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame("Cyberpunk 2077", company));
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "username1");
+        MyGameDto first = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), Status.PLAYING), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), null), "username2");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        libraryExportService.export("username1", ExportFormat.NDJSON, output);
+
+        List<MyGameExportRowDto> rows = output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> jsonMapper.readValue(line, MyGameExportRowDto.class))
+                .toList();
+        assertEquals(2, rows.size());
+        assertEquals(first.id(), rows.get(0).id());
+        assertEquals("cyberpunk 2077", rows.get(0).title());
+        assertEquals("cd projekt", rows.get(0).company());
+        assertEquals("pc", rows.get(0).platform());
+        assertEquals("steam", rows.get(0).store());
+        assertEquals(Status.PLAYING, rows.get(0).status());
+        assertNotNull(rows.get(0).createdAt());
+        assertEquals("the witcher", rows.get(1).title());
+    }
+
+    @Test
+    @Transactional
+    void deveExportarEmCsvComCabecalhoEAspasNosCamposComVirgula() throws Exception {
+        userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source gog = sourceRepository.save(getSource("GOG"));
+        Company company = companyRepository.save(getCompany("Larian"));
+        Game game = gameRepository.save(getGame("Divinity: Original Sin, \"Enhanced\"", company));
+        myGameService.save(new SaveMyGameDto(game.getId(), pc.getId(), gog.getId(), Status.NOT_PLAYED), "username1");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        libraryExportService.export("username1", ExportFormat.CSV, output);
+
+        try (CsvReader reader = new CsvReader(new StringReader(output.toString(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("id", "game_id", "title", "company", "platform", "store", "status",
+                    "created_at", "updated_at"), reader.readRow());
+            List<String> row = reader.readRow();
+            assertEquals("divinity: original sin, \"enhanced\"", row.get(2));
+            assertEquals("gog", row.get(5));
+            assertEquals("NOT_PLAYED", row.get(6));
+            assertNull(reader.readRow());
+        }
+    }
+
+    @Test
+    @Transactional
+    void deveExportarApenasCabecalhoQuandoBibliotecaEstiverVazia() throws Exception {
+        userRepository.save(getUser("username1"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        libraryExportService.export("username1", ExportFormat.CSV, output);
+
+        assertEquals("id,game_id,title,company,platform,store,status,created_at,updated_at\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Transactional
+    void deveLerBibliotecaNaOrdemDoIndiceSemOrdenar() {
+        // Tabela pequena: sem isso o planejador prefere varrer a tabela e o plano não diz nada
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        // Mesma forma que a consulta da exportação gera
+        List<String> plan = entityManager.createNativeQuery("""
+                EXPLAIN SELECT m.id, g.id, m.game_title, c.name, p.name, s.name, m.status, m.created_at, m.updated_at
+                FROM my_games m
+                JOIN games g ON g.id = m.game_id
+                LEFT JOIN companies c ON c.id = g.company_id
+                JOIN platforms p ON p.id = m.platform_id
+                JOIN sources s ON s.id = m.source_id
+                WHERE m.user_id = 1
+                ORDER BY m.game_title, m.id""").getResultList();
+
+        String explain = String.join("\n", plan);
+        assertTrue(explain.contains("using my_games_user_id_game_title_id_idx"), explain);
+        assertFalse(explain.contains("Sort"), explain);
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
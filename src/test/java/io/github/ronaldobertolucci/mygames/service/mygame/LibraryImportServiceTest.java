@@ -0,0 +1,244 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import io.github.ronaldobertolucci.mygames.service.fuzzy.FuzzyTitleService;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+class LibraryImportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameRepository myGameRepository;
+
+    @Autowired
+    private FuzzyTitleService fuzzyTitleService;
+
+    @Autowired
+    private LibraryImportService libraryImportService;
+
+    @Test
+    @Transactional
+    void deveImportarExportacaoEmCsvAssociandoTitulosLojasEPlataformas() {
+        User user = userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Platform ps5 = platformRepository.save(getPlatform("PlayStation 5"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Source epic = sourceRepository.save(getSource("Epic Games Store"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Game witcher = gameRepository.save(getGame("The Witcher 3: Wild Hunt", company));
+        Game cyberpunk = gameRepository.save(getGame("Cyberpunk 2077", company));
+        fuzzyTitleService.load();
+        String csv = """
+                name,store,platform,status
+                The Witcher® 3: Wild Hunt,Steam,,completed
+                Cyberpnk 2077,epic,PlayStation 5,playing
+                Half-Life 3,Steam,,
+                Cyberpunk 2077,Battle.net,,
+                The Witcher 3 Wild Hunt,steam,,
+                """;
+
+        LibraryImportResultDto result = libraryImportService.importLibrary(input(csv), "steam.csv", "text/csv",
+                null, null, "username1");
+
+        assertEquals(5, result.lines());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.alreadyInLibrary());
+        assertEquals(List.of(new UnmatchedLineDto(4, "Half-Life 3", "game not found"),
+                new UnmatchedLineDto(5, "Cyberpunk 2077", "unknown store Battle.net")), result.unmatched());
+
+        Map<Long, MyGame> myGames = myGameRepository.findByUser(user).stream()
+                .collect(Collectors.toMap(myGame -> myGame.getGame().getId(), myGame -> myGame));
+        assertEquals(2, myGames.size());
+        assertEquals(pc.getId(), myGames.get(witcher.getId()).getPlatform().getId());
+        assertEquals(steam.getId(), myGames.get(witcher.getId()).getSource().getId());
+        assertEquals(Status.COMPLETED, myGames.get(witcher.getId()).getStatus());
+        assertEquals(ps5.getId(), myGames.get(cyberpunk.getId()).getPlatform().getId());
+        assertEquals(epic.getId(), myGames.get(cyberpunk.getId()).getSource().getId());
+        assertEquals(Status.PLAYING, myGames.get(cyberpunk.getId()).getStatus());
+    }
+
+    @Test
+    @Transactional
+    void deveImportarExportacaoEmJsonComLojaPadrao() {
+        User user = userRepository.save(getUser("username1"));
+        platformRepository.save(getPlatform("PC"));
+        Source gog = sourceRepository.save(getSource("GOG"));
+        Company company = companyRepository.save(getCompany("Larian"));
+        gameRepository.save(getGame("Baldur's Gate 3", company));
+        fuzzyTitleService.load();
+        String json = """
+                [{"title": "Baldurs Gate 3"}, {"title": "Divinity", "status": "finished"}]
+                """;
+
+        LibraryImportResultDto result = libraryImportService.importLibrary(input(json), "gog.json", "application/json",
+                null, gog.getId(), "username1");
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new UnmatchedLineDto(2, "Divinity", "unknown status finished")), result.unmatched());
+        assertEquals(gog.getId(), myGameRepository.findByUser(user).getFirst().getSource().getId());
+    }
+
+    @Test
+    @Transactional
+    void deveContarJogosQueJaEstavamNaBiblioteca() {
+        User user = userRepository.save(getUser("username1"));
+        platformRepository.save(getPlatform("PC"));
+        sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("Valve"));
+        gameRepository.save(getGame("Portal 2", company));
+        fuzzyTitleService.load();
+        String csv = "title,store\nPortal 2,Steam\n";
+
+        libraryImportService.importLibrary(input(csv), "steam.csv", null, null, null, "username1");
+        LibraryImportResultDto result = libraryImportService.importLibrary(input(csv), "steam.csv", null, null, null, "username1");
+
+        assertEquals(0, result.imported());
+        assertEquals(1, result.alreadyInLibrary());
+        assertEquals(1, myGameRepository.findByUser(user).size());
+    }
+
+    @Test
+    @Transactional
+    void deveAssociarPelaChaveExataAntesDaBuscaAproximadaERecusarEmpates() {
+        User user = userRepository.save(getUser("username1"));
+        platformRepository.save(getPlatform("PC"));
+        sourceRepository.save(getSource("Steam"));
+        Company valve = companyRepository.save(getCompany("Valve"));
+        Company idSoftware = companyRepository.save(getCompany("id Software"));
+        Company bethesda = companyRepository.save(getCompany("Bethesda"));
+        Company io = companyRepository.save(getCompany("IO Interactive"));
+        Game portal2 = gameRepository.save(getGame("Portal 2", valve));
+        gameRepository.save(getGame("Doom", idSoftware));
+        gameRepository.save(getGame("Doom", bethesda));
+        gameRepository.save(getGame("Hitman", io));
+        gameRepository.save(getGame("Hitmen", io));
+        fuzzyTitleService.load();
+        String csv = """
+                title,store
+                Portal,Steam
+                Portal 2,Steam
+                Doom,Steam
+                Hitmn,Steam
+                """;
+
+        LibraryImportResultDto result = libraryImportService.importLibrary(input(csv), "steam.csv", null, null, null, "username1");
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new UnmatchedLineDto(2, "Portal", "game not found"),
+                new UnmatchedLineDto(4, "Doom", "ambiguous title"),
+                new UnmatchedLineDto(5, "Hitmn", "ambiguous title")), result.unmatched());
+        assertEquals(portal2.getId(), myGameRepository.findByUser(user).getFirst().getGame().getId());
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoQuandoArquivoNaoForCsvNemJson() {
+        userRepository.save(getUser("username1"));
+
+        assertThrows(UnprocessableEntity.class, () -> libraryImportService.importLibrary(input("<xml/>"), "steam.xml",
+                "application/xml", null, null, "username1"));
+    }
+
+    @Test
+    @Transactional
+    void devePararDeLerExportacaoEmJsonAcimaDoLimite() {
+        userRepository.save(getUser("username1"));
+        // O fim da lista nunca é lido: o limite vale antes dele
+        String json = "[" + "{\"title\": \"Portal\"},".repeat(LibraryImportReader.MAX_LINES + 1) + "{\"title\": ";
+
+        UnprocessableEntity ex = assertThrows(UnprocessableEntity.class, () -> libraryImportService.importLibrary(
+                input(json), "steam.json", "application/json", null, null, "username1"));
+        assertTrue(ex.getMessage().contains("more than " + LibraryImportReader.MAX_LINES));
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoQuandoLojaPadraoNaoExistir() {
+        userRepository.save(getUser("username1"));
+
+        assertThrows(UnprocessableEntity.class, () -> libraryImportService.importLibrary(input("title\nPortal\n"), "steam.csv",
+                "text/csv", null, -1L, "username1"));
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
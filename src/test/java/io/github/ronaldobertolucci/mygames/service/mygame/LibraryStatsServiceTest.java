@@ -0,0 +1,158 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.LibraryStatsDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.SaveMyGameDto;
+import io.github.ronaldobertolucci.mygames.model.mygame.Status;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LibraryStatsServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameService myGameService;
+
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Transactional
+    void deveContarBibliotecaPorStatusPlataformaLojaEGenero() {
+        userRepository.save(getUser("username1"));
+        userRepository.save(getUser("username2"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Platform ps5 = platformRepository.save(getPlatform("PlayStation 5"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Source psn = sourceRepository.save(getSource("PSN"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Genre rpg = genreRepository.save(getGenre("rpg"));
+        Genre action = genreRepository.save(getGenre("action"));
+        Game witcher = getGame("The Witcher 3", company);
+        witcher.getGenres().add(rpg);
+        witcher = gameRepository.save(witcher);
+        Game cyberpunk = getGame("Cyberpunk 2077", company);
+        cyberpunk.getGenres().add(rpg);
+        cyberpunk.getGenres().add(action);
+        cyberpunk = gameRepository.save(cyberpunk);
+        Game gwent = gameRepository.save(getGame("Gwent", company));
+
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "username1");
+        myGameService.save(new SaveMyGameDto(witcher.getId(), ps5.getId(), psn.getId(), Status.PLAYING), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "username1");
+        myGameService.save(new SaveMyGameDto(gwent.getId(), pc.getId(), steam.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(gwent.getId(), pc.getId(), steam.getId(), null), "username2");
+        entityManager.flush();
+
+        LibraryStatsDto stats = libraryStatsService.stats("username1");
+
+        assertEquals(4, stats.total());
+        assertEquals(2, stats.byStatus().get(Status.COMPLETED));
+        assertEquals(1, stats.byStatus().get(Status.PLAYING));
+        assertEquals(1, stats.byStatus().get(Status.NOT_PLAYED));
+        assertEquals(0, stats.byStatus().get(Status.WISHLIST));
+        assertEquals(List.of(new LibraryStatsDto.Count(pc.getId(), "pc", 3),
+                new LibraryStatsDto.Count(ps5.getId(), "playstation 5", 1)), stats.byPlatform());
+        assertEquals(List.of(new LibraryStatsDto.Count(steam.getId(), "steam", 3),
+                new LibraryStatsDto.Count(psn.getId(), "psn", 1)), stats.bySource());
+        // The Witcher 3 em duas plataformas conta uma vez
+        assertEquals(List.of(new LibraryStatsDto.Count(rpg.getId(), "rpg", 2),
+                new LibraryStatsDto.Count(action.getId(), "action", 1)), stats.byGenre());
+    }
+
+    @Test
+    @Transactional
+    void deveRetornarZerosQuandoBibliotecaEstiverVazia() {
+        userRepository.save(getUser("username1"));
+
+        LibraryStatsDto stats = libraryStatsService.stats("username1");
+
+        assertEquals(0, stats.total());
+        assertTrue(stats.byStatus().values().stream().allMatch(count -> count == 0));
+        assertTrue(stats.byPlatform().isEmpty());
+        assertTrue(stats.byGenre().isEmpty());
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
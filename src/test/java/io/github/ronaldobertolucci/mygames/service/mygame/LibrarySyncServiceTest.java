@@ -0,0 +1,185 @@
+package io.github.ronaldobertolucci.mygames.service.mygame;
+
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
+import io.github.ronaldobertolucci.mygames.model.company.Company;
+import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
+import io.github.ronaldobertolucci.mygames.model.game.Game;
+import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.platform.Platform;
+import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
+import io.github.ronaldobertolucci.mygames.model.source.Source;
+import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.user.Role;
+import io.github.ronaldobertolucci.mygames.model.user.User;
+import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LibrarySyncServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformRepository platformRepository;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private MyGameRepository myGameRepository;
+
+    @Autowired
+    private MyGameService myGameService;
+
+    @Autowired
+    private LibrarySyncService librarySyncService;
+
+    @Test
+    @Transactional
+    void deveAplicarApenasADiferencaEntreBibliotecaDesejadaEGravada() {
+        userRepository.save(getUser("username1"));
+        userRepository.save(getUser("username2"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("CD Projekt"));
+        Game witcher = gameRepository.save(getGame("The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame("Cyberpunk 2077", company));
+        Game gwent = gameRepository.save(getGame("Gwent", company));
+        Game thronebreaker = gameRepository.save(getGame("Thronebreaker", company));
+
+        MyGameDto kept = myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), Status.COMPLETED), "username1");
+        MyGameDto changed = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), Status.PLAYING), "username1");
+        MyGameDto removed = myGameService.save(new SaveMyGameDto(gwent.getId(), pc.getId(), steam.getId(), null), "username1");
+        MyGameDto other = myGameService.save(new SaveMyGameDto(gwent.getId(), pc.getId(), steam.getId(), null), "username2");
+
+        LibrarySyncResultDto result = librarySyncService.sync(new LibrarySyncDto(List.of(
+                new SaveMyGameDto(thronebreaker.getId(), pc.getId(), steam.getId(), null),
+                new SaveMyGameDto(cyberpunk.getId(), pc.getId(), steam.getId(), Status.COMPLETED),
+                new SaveMyGameDto(witcher.getId(), pc.getId(), steam.getId(), null))), "username1");
+
+        assertEquals(1, result.unchanged());
+        assertEquals(1, result.inserted().size());
+        assertEquals(thronebreaker.getId(), result.inserted().getFirst().gameId());
+        assertEquals(Status.NOT_PLAYED, result.inserted().getFirst().status());
+        assertNotNull(result.inserted().getFirst().id());
+        assertEquals(List.of(new LibraryEntryDto(changed.id(), cyberpunk.getId(), pc.getId(), steam.getId(), Status.COMPLETED)),
+                result.updated());
+        assertEquals(List.of(removed.id()), result.deleted().stream().map(LibraryEntryDto::id).toList());
+
+        Map<Long, Status> library = library("username1");
+        assertEquals(Map.of(witcher.getId(), Status.COMPLETED, cyberpunk.getId(), Status.COMPLETED,
+                thronebreaker.getId(), Status.NOT_PLAYED), library);
+        assertEquals(Map.of(gwent.getId(), Status.NOT_PLAYED), library("username2"));
+        assertEquals(kept.id(), myGameService.findByFilter(filter("username1", "witcher"), Pageable.unpaged()).getContent().getFirst().id());
+        assertEquals(other.id(), myGameService.findByFilter(filter("username2", null), Pageable.unpaged()).getContent().getFirst().id());
+    }
+
+    @Test
+    @Transactional
+    void deveNaoEscreverNadaQuandoBibliotecaJaEstiverSincronizada() {
+        userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("Valve"));
+        Game portal = gameRepository.save(getGame("Portal", company));
+        myGameService.save(new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), Status.PLAYING), "username1");
+
+        LibrarySyncResultDto result = librarySyncService.sync(new LibrarySyncDto(List.of(
+                new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), Status.COMPLETED),
+                new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), Status.PLAYING))), "username1");
+
+        assertEquals(new LibrarySyncResultDto(List.of(), List.of(), List.of(), 1), result);
+    }
+
+    @Test
+    @Transactional
+    void deveSincronizarBibliotecaDeUsuarioSemVersao() {
+        userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+        Company company = companyRepository.save(getCompany("Valve"));
+        Game portal = gameRepository.save(getGame("Portal", company));
+
+        LibrarySyncResultDto result = librarySyncService.sync(new LibrarySyncDto(List.of(
+                new SaveMyGameDto(portal.getId(), pc.getId(), steam.getId(), Status.PLAYING))), "username1");
+
+        assertEquals(1, result.inserted().size());
+        assertEquals(Map.of(portal.getId(), Status.PLAYING), library("username1"));
+        assertEquals(1L, ((Number) myGameRepository.findLibraryVersion("username1").getFirst()[1]).longValue());
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoQuandoReferenciaNaoExistir() {
+        userRepository.save(getUser("username1"));
+        Platform pc = platformRepository.save(getPlatform("PC"));
+        Source steam = sourceRepository.save(getSource("Steam"));
+
+        assertThrows(UnprocessableEntity.class, () -> librarySyncService.sync(new LibrarySyncDto(List.of(
+                new SaveMyGameDto(-1L, pc.getId(), steam.getId(), null))), "username1"));
+    }
+
+    private Map<Long, Status> library(String username) {
+        return myGameService.findByFilter(filter(username, null), Pageable.unpaged()).getContent().stream()
+                .collect(Collectors.toMap(myGame -> myGame.game().id(), MyGameDto::status));
+    }
+
+    private MyGameFilter filter(String username, String title) {
+        return MyGameFilter.builder().username(username).title(title).build();
+    }
+
+    private User getUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("123456");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    private Platform getPlatform(String name) {
+        Platform platform = new Platform();
+        platform.setName(name);
+        return platform;
+    }
+
+    private Source getSource(String name) {
+        Source source = new Source();
+        source.setName(name);
+        return source;
+    }
+
+    private Company getCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        return company;
+    }
+
+    private Game getGame(String title, Company company) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setCompany(company);
+        return game;
+    }
+}
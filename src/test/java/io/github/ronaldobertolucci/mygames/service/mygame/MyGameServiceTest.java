@@ -1,26 +1,38 @@
 package io.github.ronaldobertolucci.mygames.service.mygame;
 
 import io.github.ronaldobertolucci.mygames.exception.ForbiddenException;
+import io.github.ronaldobertolucci.mygames.exception.UnprocessableEntity;
 import io.github.ronaldobertolucci.mygames.model.company.Company;
 import io.github.ronaldobertolucci.mygames.model.company.CompanyRepository;
 import io.github.ronaldobertolucci.mygames.model.game.Game;
 import io.github.ronaldobertolucci.mygames.model.game.GameRepository;
+import io.github.ronaldobertolucci.mygames.model.genre.Genre;
+import io.github.ronaldobertolucci.mygames.model.genre.GenreRepository;
 import io.github.ronaldobertolucci.mygames.model.mygame.*;
+import io.github.ronaldobertolucci.mygames.model.pagination.CursorPage;
+import io.github.ronaldobertolucci.mygames.model.pagination.KeysetCursor;
 import io.github.ronaldobertolucci.mygames.model.platform.Platform;
 import io.github.ronaldobertolucci.mygames.model.platform.PlatformRepository;
 import io.github.ronaldobertolucci.mygames.model.source.Source;
 import io.github.ronaldobertolucci.mygames.model.source.SourceRepository;
+import io.github.ronaldobertolucci.mygames.model.theme.Theme;
+import io.github.ronaldobertolucci.mygames.model.theme.ThemeRepository;
 import io.github.ronaldobertolucci.mygames.model.user.Role;
 import io.github.ronaldobertolucci.mygames.model.user.User;
 import io.github.ronaldobertolucci.mygames.model.user.UserRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,6 +41,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -58,9 +72,21 @@ class MyGameServiceTest {
     @Autowired
     private SourceRepository sourceRepository;
 
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private MyGameService myGameService;
 
+    @Autowired
+    private LibraryTombstoneService libraryTombstoneService;
+
     @Test
     @Transactional
     void deveListarTodosMeusJogos() {
@@ -164,6 +190,30 @@ class MyGameServiceTest {
         assertEquals("the witcher", myGames.getContent().getFirst().game().title());
     }
 
+    @Test
+    @Transactional
+    void deveListarMeusJogosFiltradosPorTituloSemAcento() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "Game Freak"));
+        Game pokemon = gameRepository.save(getGame(null, "Pokémon", company));
+        Game percent = gameRepository.save(getGame(null, "100% Orange Juice", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        myGameService.save(new SaveMyGameDto(pokemon.getId(), platform.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(percent.getId(), platform.getId(), source.getId(), null), "username1");
+
+        Page<MyGameDto> pokemons = myGameService.findByFilter(
+                MyGameFilter.builder().username("username1").title("POKEMON").build(), Pageable.unpaged());
+        Page<MyGameDto> literal = myGameService.findByFilter(
+                MyGameFilter.builder().username("username1").title("%").build(), Pageable.unpaged());
+
+        assertEquals(1, pokemons.getTotalElements());
+        assertEquals("pokémon", pokemons.getContent().getFirst().game().title());
+        assertEquals(1, literal.getTotalElements());
+        assertEquals("100% orange juice", literal.getContent().getFirst().game().title());
+    }
+
     @Test
     @Transactional
     void deveListarMeusJogosFiltradosPorPlataforma() {
@@ -430,6 +480,84 @@ class MyGameServiceTest {
         }
     }
 
+    @Test
+    @Transactional
+    void deveCriarMeuJogoPeloUpsertQuandoNaoExistir() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game game = gameRepository.save(getGame(null, "The Witcher", company));
+        userRepository.save(getUser(null, "username", "123456", Role.USER));
+
+        UpsertMyGameResultDto result = myGameService.upsert(
+                new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), Status.PLAYING), false, "username");
+
+        assertTrue(result.created());
+        assertEquals("the witcher", result.myGame().game().title());
+        assertEquals(Status.PLAYING, result.myGame().status());
+    }
+
+    @Test
+    @Transactional
+    void deveDevolverMeuJogoExistentePeloUpsertSemAlterarStatus() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game game = gameRepository.save(getGame(null, "The Witcher", company));
+        userRepository.save(getUser(null, "username", "123456", Role.USER));
+        MyGameDto dto = myGameService.save(new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), null), "username");
+
+        UpsertMyGameResultDto result = myGameService.upsert(
+                new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), Status.COMPLETED), false, "username");
+
+        assertFalse(result.created());
+        assertEquals(dto.id(), result.myGame().id());
+        assertEquals(Status.NOT_PLAYED, result.myGame().status());
+        assertEquals(1, myGameService.findByUser("username").size());
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarStatusDoMeuJogoExistentePeloUpsertQuandoSolicitado() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game game = gameRepository.save(getGame(null, "The Witcher", company));
+        userRepository.save(getUser(null, "username", "123456", Role.USER));
+        MyGameDto dto = myGameService.save(new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), null), "username");
+
+        UpsertMyGameResultDto result = myGameService.upsert(
+                new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), Status.COMPLETED), true, "username");
+
+        assertFalse(result.created());
+        assertEquals(dto.id(), result.myGame().id());
+        assertEquals(Status.COMPLETED, result.myGame().status());
+        assertEquals(Status.COMPLETED, myGameService.detail(dto.id(), "username").status());
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoAoSalvarParaUsuarioInexistente() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "Valve"));
+        Game game = gameRepository.save(getGame(null, "Portal", company));
+
+        assertThrows(UnprocessableEntity.class, () -> myGameService.save(
+                new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), null), "inexistente"));
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoNoUpsertQuandoReferenciaNaoExistir() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        userRepository.save(getUser(null, "username", "123456", Role.USER));
+
+        assertThrows(UnprocessableEntity.class, () -> myGameService.upsert(
+                new SaveMyGameDto(-1L, platform.getId(), source.getId(), null), false, "username"));
+    }
+
     @Test
     @Transactional
     void deveAtualizarStatusMeuJogoDoUsuarioDono() {
@@ -573,6 +701,374 @@ class MyGameServiceTest {
         }
     }
 
+    @Test
+    @Transactional
+    void deveListarPaginaDeMeusJogosComNumeroFixoDeConsultas() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        List<Genre> genres = List.of(genreRepository.save(getGenre("RPG")), genreRepository.save(getGenre("Ação")));
+        List<Theme> themes = List.of(themeRepository.save(getTheme("Fantasia")), themeRepository.save(getTheme("Guerra")));
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+
+        for (int i = 0; i < 5; i++) {
+            Game game = getGame(null, "The Witcher " + i, company);
+            game.getGenres().addAll(genres);
+            game.getThemes().addAll(themes);
+            gameRepository.save(game);
+            myGameService.save(new SaveMyGameDto(game.getId(), platform.getId(), source.getId(), null), "username1");
+        }
+
+        entityManager.flush();
+        MyGameFilter filter = MyGameFilter.builder().username("username1").build();
+        myGameService.findByFilter(filter, PageRequest.of(0, 3, Sort.by("game.title")));
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<MyGameDto> myGames = myGameService.findByFilter(filter, PageRequest.of(0, 3, Sort.by("game.title")));
+
+        assertEquals(5, myGames.getTotalElements());
+        assertEquals(3, myGames.getContent().size());
+        assertEquals(2, myGames.getContent().getFirst().game().genres().size());
+        assertEquals(2, myGames.getContent().getFirst().game().themes().size());
+        // usuário com a versão da biblioteca, página, gêneros e temas; o total já foi contado na primeira listagem
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Esperado no máximo 4 consultas, executadas " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarTotalGuardadoQuandoABibliotecaMudar() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "Valve"));
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            games.add(gameRepository.save(getGame(null, "Portal " + i, company)));
+        }
+        for (int i = 0; i < 3; i++) {
+            myGameService.save(new SaveMyGameDto(games.get(i).getId(), platform.getId(), source.getId(), Status.PLAYING), "username1");
+        }
+
+        MyGameFilter filter = MyGameFilter.builder()
+                .username("username1")
+                .statuses(List.of(Status.PLAYING, Status.COMPLETED))
+                .build();
+        MyGameFilter reordered = MyGameFilter.builder()
+                .username("username1")
+                .statuses(List.of(Status.COMPLETED, Status.PLAYING, Status.PLAYING))
+                .build();
+        assertEquals(3, myGameService.findByFilter(filter, PageRequest.of(0, 2)).getTotalElements());
+        assertEquals(3, myGameService.findByFilter(reordered, PageRequest.of(0, 2)).getTotalElements());
+
+        myGameService.save(new SaveMyGameDto(games.get(3).getId(), platform.getId(), source.getId(), Status.COMPLETED), "username1");
+
+        assertEquals(4, myGameService.findByFilter(reordered, PageRequest.of(0, 2)).getTotalElements());
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarTotalGuardadoDoFiltroPorTituloQuandoOJogoForRenomeado() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "Valve"));
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            games.add(gameRepository.save(getGame(null, "Portal " + i, company)));
+            myGameService.save(new SaveMyGameDto(games.get(i).getId(), platform.getId(), source.getId(), Status.PLAYING), "username1");
+        }
+
+        MyGameFilter filter = MyGameFilter.builder().username("username1").title("portal").build();
+        assertEquals(3, myGameService.findByFilter(filter, PageRequest.of(0, 2)).getTotalElements());
+
+        games.getFirst().setTitle("Half-Life");
+        entityManager.flush();
+
+        assertEquals(2, myGameService.findByFilter(filter, PageRequest.of(0, 2)).getTotalElements());
+    }
+
+    @Test
+    @Transactional
+    void deveListarMeusJogosFiltradosSemHidratarEntidades() {
+        Platform pc = platformRepository.save(getPlatform(null, "PC"));
+        Platform ps5 = platformRepository.save(getPlatform(null, "PS5"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Genre genre = genreRepository.save(getGenre("RPG"));
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+
+        Game witcher = getGame(null, "The Witcher", company);
+        witcher.getGenres().add(genre);
+        gameRepository.save(witcher);
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), source.getId(), Status.PLAYING), "username1");
+        myGameService.save(new SaveMyGameDto(witcher.getId(), ps5.getId(), source.getId(), Status.PLAYING), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), source.getId(), Status.PLAYING), "username1");
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MyGameFilter filter = MyGameFilter.builder()
+                .username("username1")
+                .title("witch")
+                .platformId(pc.getId())
+                .sourceId(source.getId())
+                .statuses(List.of(Status.PLAYING))
+                .build();
+        Page<MyGameDto> myGames = myGameService.findByFilter(filter, PageRequest.of(0, 20, Sort.by("game.title")));
+
+        assertEquals(1, myGames.getTotalElements());
+        MyGameDto dto = myGames.getContent().getFirst();
+        assertEquals("the witcher", dto.game().title());
+        assertEquals("cd projekt", dto.game().company().name());
+        assertEquals("pc", dto.platform().name());
+        assertEquals("steam", dto.source().name());
+        assertEquals("rpg", dto.game().genres().getFirst().name());
+        assertTrue(dto.game().themes().isEmpty());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @Transactional
+    void deveListarMeusJogosPorCursor() {
+        Platform pc = platformRepository.save(getPlatform(null, "PC"));
+        Platform ps5 = platformRepository.save(getPlatform(null, "PS5"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        userRepository.save(getUser(null, "username2", "123456", Role.USER));
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(witcher.getId(), ps5.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), source.getId(), null), "username2");
+
+        MyGameFilter filter = MyGameFilter.builder().username("username1").build();
+        CursorPage<MyGameDto> first = myGameService.findByFilterAfter(filter, KeysetCursor.FIRST, 2);
+        CursorPage<MyGameDto> second = myGameService.findByFilterAfter(filter, KeysetCursor.decode(first.nextCursor()), 2);
+
+        assertEquals(List.of("cyberpunk 2077", "the witcher"), first.content().stream().map(m -> m.game().title()).toList());
+        assertEquals(1, second.content().size());
+        assertEquals("the witcher", second.content().getFirst().game().title());
+        assertEquals("ps5", second.content().getFirst().platform().name());
+        assertNull(second.nextCursor());
+
+        CursorPage<MyGameDto> all = myGameService.findAllAfter(KeysetCursor.FIRST, 10);
+        assertEquals(4, all.content().size());
+        assertNull(all.nextCursor());
+    }
+
+    @Test
+    @Transactional
+    void deveOrdenarCursorPeloTituloAtualDoJogo() {
+        Platform pc = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(cyberpunk.getId(), pc.getId(), source.getId(), null), "username1");
+
+        witcher.setTitle("Assassin's Creed");
+        gameRepository.saveAndFlush(witcher);
+
+        MyGameFilter filter = MyGameFilter.builder().username("username1").build();
+        CursorPage<MyGameDto> first = myGameService.findByFilterAfter(filter, KeysetCursor.FIRST, 1);
+        CursorPage<MyGameDto> second = myGameService.findByFilterAfter(filter, KeysetCursor.decode(first.nextCursor()), 1);
+
+        assertEquals("assassin's creed", first.content().getFirst().game().title());
+        assertEquals("cyberpunk 2077", second.content().getFirst().game().title());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    void deveBuscarPaginaDaBibliotecaPorCursorComoFaixaDoIndice() {
+        // Tabela pequena: sem isso o planejador prefere varrer a tabela e o plano não diz nada
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        // Mesma forma que findDtosAfter gera para a biblioteca de um usuário
+        List<String> plan = entityManager.createNativeQuery("""
+                EXPLAIN SELECT m.id FROM my_games m
+                WHERE m.user_id = 1 AND m.game_title >= 'the witcher'
+                AND (m.game_title > 'the witcher' OR (m.game_title = 'the witcher' AND m.id > 10))
+                ORDER BY m.game_title, m.id LIMIT 21""").getResultList();
+
+        String explain = String.join("\n", plan);
+        assertTrue(explain.contains("using my_games_user_id_game_title_id_idx"), explain);
+        assertTrue(explain.contains("Index Cond: ((user_id = 1) AND (game_title >= 'the witcher'::text))"), explain);
+        assertFalse(explain.contains("Sort"), explain);
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarStatusEmMassaPeloFiltroApenasNaBibliotecaDoUsuario() {
+        Platform pc = platformRepository.save(getPlatform(null, "PC"));
+        Platform ps4 = platformRepository.save(getPlatform(null, "PS4"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        userRepository.save(getUser(null, "username2", "123456", Role.USER));
+        MyGameDto witcherPs4 = myGameService.save(new SaveMyGameDto(witcher.getId(), ps4.getId(), source.getId(), null), "username1");
+        MyGameDto cyberpunkPs4 = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), ps4.getId(), source.getId(), Status.PLAYING), "username1");
+        MyGameDto witcherPc = myGameService.save(new SaveMyGameDto(witcher.getId(), pc.getId(), source.getId(), null), "username1");
+        MyGameDto other = myGameService.save(new SaveMyGameDto(witcher.getId(), ps4.getId(), source.getId(), null), "username2");
+
+        BulkStatusDto.Filter filter = new BulkStatusDto.Filter(null, null, ps4.getId(), null);
+        BulkStatusResultDto result = myGameService.updateStatus(new BulkStatusDto(null, filter, Status.ON_HOLD), "username1");
+
+        assertEquals(2, result.updated());
+        assertEquals(Status.ON_HOLD, myGameService.detail(witcherPs4.id(), "username1").status());
+        assertEquals(Status.ON_HOLD, myGameService.detail(cyberpunkPs4.id(), "username1").status());
+        assertEquals(Status.NOT_PLAYED, myGameService.detail(witcherPc.id(), "username1").status());
+        assertEquals(Status.NOT_PLAYED, myGameService.detail(other.id(), "username2").status());
+
+        BulkStatusDto.Filter byTitle = new BulkStatusDto.Filter("witcher", null, null, List.of(Status.ON_HOLD));
+        assertEquals(1, myGameService.updateStatus(new BulkStatusDto(null, byTitle, Status.COMPLETED), "username1").updated());
+        assertEquals(Status.COMPLETED, myGameService.detail(witcherPs4.id(), "username1").status());
+    }
+
+    @Test
+    @Transactional
+    void deveAtualizarStatusEmMassaPelosIdsIgnorandoRegistrosDeOutroUsuario() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        userRepository.save(getUser(null, "username2", "123456", Role.USER));
+        MyGameDto mine = myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username1");
+        MyGameDto completed = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), platform.getId(), source.getId(), Status.COMPLETED), "username1");
+        MyGameDto other = myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username2");
+
+        BulkStatusResultDto result = myGameService.updateStatus(
+                new BulkStatusDto(List.of(mine.id(), completed.id(), other.id()), null, Status.COMPLETED), "username1");
+
+        assertEquals(1, result.updated());
+        assertEquals(Status.COMPLETED, myGameService.detail(mine.id(), "username1").status());
+        assertEquals(Status.NOT_PLAYED, myGameService.detail(other.id(), "username2").status());
+    }
+
+    @Test
+    @Transactional
+    void deveLancarExcecaoQuandoAtualizacaoEmMassaNaoInformarIdsNemFiltro() {
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+
+        assertThrows(UnprocessableEntity.class,
+                () -> myGameService.updateStatus(new BulkStatusDto(null, null, Status.COMPLETED), "username1"));
+        assertThrows(UnprocessableEntity.class, () -> myGameService.updateStatus(
+                new BulkStatusDto(List.of(1L), new BulkStatusDto.Filter(null, null, null, null), Status.COMPLETED), "username1"));
+    }
+
+    @Test
+    @Transactional
+    void deveListarAlteracoesDaBibliotecaDesdeAVersaoDoCliente() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+        Game gwent = gameRepository.save(getGame(null, "Gwent", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        userRepository.save(getUser(null, "username2", "123456", Role.USER));
+        MyGameDto first = myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username1");
+        MyGameDto removed = myGameService.save(new SaveMyGameDto(gwent.getId(), platform.getId(), source.getId(), null), "username1");
+        myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username2");
+
+        MyGameChangesDto initial = myGameService.findChangesSince("username1", 0, 100);
+        assertEquals(2, initial.version());
+        assertFalse(initial.hasMore());
+        assertEquals(List.of(first.id(), removed.id()), initial.upserted().stream().map(MyGameDto::id).toList());
+
+        MyGameDto added = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), platform.getId(), source.getId(), null), "username1");
+        myGameService.updateStatus(new BulkStatusDto(List.of(first.id()), null, Status.COMPLETED), "username1");
+        myGameService.delete(removed.id(), "username1");
+        myGameService.updateStatus(new BulkStatusDto(List.of(first.id()), null, Status.COMPLETED), "username1");
+
+        MyGameChangesDto changes = myGameService.findChangesSince("username1", initial.version(), 100);
+        assertEquals(5, changes.version());
+        assertEquals(List.of(added.id(), first.id()), changes.upserted().stream().map(MyGameDto::id).toList());
+        assertEquals(Status.COMPLETED, changes.upserted().get(1).status());
+        assertEquals(List.of(removed.id()), changes.deleted());
+
+        MyGameChangesDto nothing = myGameService.findChangesSince("username1", changes.version(), 100);
+        assertEquals(changes.version(), nothing.version());
+        assertTrue(nothing.upserted().isEmpty());
+        assertTrue(nothing.deleted().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveListarAlteracoesDaBibliotecaEmJanelas() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game cyberpunk = gameRepository.save(getGame(null, "Cyberpunk 2077", company));
+        Game gwent = gameRepository.save(getGame(null, "Gwent", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        MyGameDto removed = myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username1");
+        MyGameDto second = myGameService.save(new SaveMyGameDto(cyberpunk.getId(), platform.getId(), source.getId(), null), "username1");
+        myGameService.delete(removed.id(), "username1");
+        entityManager.flush(); // a exclusão precisa ganhar versão antes da próxima inclusão
+        MyGameDto last = myGameService.save(new SaveMyGameDto(gwent.getId(), platform.getId(), source.getId(), null), "username1");
+
+        MyGameChangesDto first = myGameService.findChangesSince("username1", 0, 2);
+        assertTrue(first.hasMore());
+        assertEquals(List.of(second.id()), first.upserted().stream().map(MyGameDto::id).toList());
+        assertEquals(List.of(removed.id()), first.deleted());
+
+        MyGameChangesDto next = myGameService.findChangesSince("username1", first.version(), 2);
+        assertFalse(next.hasMore());
+        assertEquals(List.of(last.id()), next.upserted().stream().map(MyGameDto::id).toList());
+        assertTrue(next.deleted().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void deveDevolverBibliotecaInteiraQuandoExclusoesDoCursorJaForamApagadas() {
+        Platform platform = platformRepository.save(getPlatform(null, "PC"));
+        Source source = sourceRepository.save(getSource(null, "Steam"));
+        Company company = companyRepository.save(getCompany(null, "CD Projekt"));
+        Game witcher = gameRepository.save(getGame(null, "The Witcher", company));
+        Game gwent = gameRepository.save(getGame(null, "Gwent", company));
+
+        userRepository.save(getUser(null, "username1", "123456", Role.USER));
+        MyGameDto kept = myGameService.save(new SaveMyGameDto(witcher.getId(), platform.getId(), source.getId(), null), "username1");
+        MyGameDto removed = myGameService.save(new SaveMyGameDto(gwent.getId(), platform.getId(), source.getId(), null), "username1");
+        MyGameChangesDto initial = myGameService.findChangesSince("username1", 0, 100);
+        myGameService.delete(removed.id(), "username1");
+        entityManager.flush();
+
+        assertEquals(1, libraryTombstoneService.prune(Instant.now().plusSeconds(60)));
+
+        MyGameChangesDto changes = myGameService.findChangesSince("username1", initial.version(), 100);
+        assertTrue(changes.reset());
+        assertEquals(3, changes.version());
+        assertEquals(List.of(kept.id()), changes.upserted().stream().map(MyGameDto::id).toList());
+        assertTrue(changes.deleted().isEmpty());
+
+        MyGameChangesDto next = myGameService.findChangesSince("username1", changes.version(), 100);
+        assertFalse(next.reset());
+        assertTrue(next.upserted().isEmpty());
+    }
+
     private User getUser(Long id, String username, String password, Role role) {
         User user =  new User();
         user.setId(id);
@@ -610,4 +1106,16 @@ class MyGameServiceTest {
         game.setCompany(company);
         return game;
     }
-}
\ No newline at end of file
+
+    private Genre getGenre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genre;
+    }
+
+    private Theme getTheme(String name) {
+        Theme theme = new Theme();
+        theme.setName(name);
+        return theme;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.ronaldobertolucci.mygames.service.pagination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCountCacheTest {
+
+    private PageCountCache pageCountCache;
+
+    private AtomicInteger counts;
+
+    @BeforeEach
+    void setUp() {
+        pageCountCache = new PageCountCache();
+        ReflectionTestUtils.setField(pageCountCache, "maxSize", 2);
+        counts = new AtomicInteger();
+    }
+
+    @Test
+    void deveReaproveitarTotalEnquantoAVersaoNaoMudar() {
+        assertEquals(10, pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 1L, 3, this::count));
+        assertEquals(10, pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 1L, 3, this::count));
+
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    void deveContarDeNovoQuandoAVersaoMudar() {
+        pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 1L, 3, this::count);
+        pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 1L, 4, this::count);
+
+        long version = pageCountCache.version(PageCountCache.GAMES);
+        pageCountCache.count(PageCountCache.GAMES, null, null, version, this::count);
+        pageCountCache.invalidate(PageCountCache.GAMES);
+        pageCountCache.count(PageCountCache.GAMES, null, null, pageCountCache.version(PageCountCache.GAMES), this::count);
+
+        assertEquals(version + 1, pageCountCache.version(PageCountCache.GAMES));
+        assertEquals(4, counts.get());
+    }
+
+    @Test
+    void deveSepararTotaisPorFiltroEUsuario() {
+        pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 1L, 3, this::count);
+        pageCountCache.count(PageCountCache.MY_GAMES, List.of("witcher"), 2L, 3, this::count);
+        pageCountCache.count(PageCountCache.MY_GAMES, List.of("portal"), 1L, 3, this::count);
+
+        assertEquals(3, counts.get());
+    }
+
+    @Test
+    void deveDescartarTotalConsultadoHaMaisTempoAoPassarDoLimite() {
+        pageCountCache.count(PageCountCache.GAMES, null, null, 0, this::count);
+        pageCountCache.count(PageCountCache.USERS, null, null, 0, this::count);
+        pageCountCache.count(PageCountCache.GAMES, null, null, 0, this::count);
+        pageCountCache.count(PageCountCache.MY_GAMES, null, 1L, 0, this::count);
+
+        pageCountCache.count(PageCountCache.GAMES, null, null, 0, this::count);
+        assertEquals(3, counts.get());
+        pageCountCache.count(PageCountCache.USERS, null, null, 0, this::count);
+        assertEquals(4, counts.get());
+    }
+
+    @Test
+    void deveInvalidarSomenteAoFimDaTransacao() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            pageCountCache.invalidateAfterCompletion(PageCountCache.USERS);
+            assertEquals(0, pageCountCache.version(PageCountCache.USERS));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, pageCountCache.version(PageCountCache.USERS));
+    }
+
+    private long count() {
+        counts.incrementAndGet();
+        return 10;
+    }
+}